@@ -0,0 +1,101 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.app.routing.stochastic.fuel;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jsdp.sdp.HashType;
+import jsdp.sdp.impl.univariate.SamplingScheme;
+
+/**
+ * Benchmarks the forward recursion engines on the tiny instance of {@code BowserRoutingFuel}.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BowserRoutingFuelBenchmark {
+   
+   public enum Engine {
+      SEQUENTIAL,
+      PARALLEL,
+      ITERATIVE
+   }
+   
+   @Param({"SEQUENTIAL", "PARALLEL", "ITERATIVE"})
+   public Engine engine;
+   
+   @Param({"THASHMAP", "MAPDB_HEAP_SHARDED"})
+   public HashType hashType;
+   
+   @Param({"0", "100000"})
+   public int transitionCacheSize;
+   
+   private BRF_ForwardRecursion recursion;
+   private jsdp.sdp.State initialState;
+   
+   @Setup(Level.Invocation)
+   public void setup(){
+      BowserRoutingFuel instance = new BowserRoutingFuel(BowserRoutingFuel.InstanceType.TINY, SamplingScheme.NONE, 1, 1);
+      this.recursion = instance.buildModel(this.hashType);
+      this.recursion.setTransitionCacheSize(this.transitionCacheSize);
+      BRF_StateDescriptor stateDescriptor = instance.getInitialState();
+      this.initialState = ((BRF_StateSpace)this.recursion.getStateSpace()[stateDescriptor.getPeriod()]).getState(stateDescriptor);
+   }
+   
+   @Benchmark
+   public double runForwardRecursion(){
+      switch(this.engine){
+      case SEQUENTIAL:
+         return this.recursion.runForwardRecursion(this.initialState);
+      case PARALLEL:
+         return this.recursion.runParallelForwardRecursion(this.initialState);
+      case ITERATIVE:
+         return this.recursion.runIterativeForwardRecursion(this.initialState);
+      default:
+         throw new NullPointerException("Unknown engine");
+      }
+   }
+}
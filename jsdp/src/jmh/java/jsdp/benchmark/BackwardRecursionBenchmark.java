@@ -0,0 +1,83 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jsdp.sdp.HashType;
+import jsdp.sdp.impl.univariate.BackwardRecursionImpl;
+
+/**
+ * Benchmarks a complete backward recursion of {@code BackwardRecursionImpl} on the 
+ * stochastic lot sizing and CLQG models.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BackwardRecursionBenchmark {
+   
+   @Param({"LOT_SIZING", "CLQG"})
+   public Models.Model model;
+   
+   @Param({"101", "201", "401"})
+   public int states;
+   
+   @Param({"HASHTABLE", "CONCURRENT_HASHMAP", "THASHMAP", "DENSE_ARRAY"})
+   public HashType hashType;
+   
+   private BackwardRecursionImpl recursion;
+   
+   @Setup(Level.Invocation)
+   public void setup(){
+      this.recursion = Models.build(this.model, this.states, this.hashType);
+   }
+   
+   @Benchmark
+   public double runBackwardRecursion(){
+      this.recursion.runBackwardRecursion();
+      return this.recursion.getExpectedCost(0);
+   }
+}
@@ -0,0 +1,119 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jsdp.sdp.Action;
+import jsdp.sdp.HashType;
+import jsdp.sdp.impl.univariate.BackwardRecursionImpl;
+import jsdp.sdp.impl.univariate.StateDescriptorImpl;
+import jsdp.sdp.impl.univariate.StateImpl;
+import jsdp.sdp.impl.univariate.StateSpaceImpl;
+import jsdp.sdp.impl.univariate.TransitionProbabilityImpl;
+import jsdp.utilities.probdist.DiscreteDistributionFactory;
+
+import umontreal.ssj.probdist.NormalDist;
+import umontreal.ssj.probdist.PoissonDist;
+
+/**
+ * Microbenchmarks for the building blocks of a recursion step on the stochastic lot sizing model: 
+ * expected value of a state-action pair, transition probabilities and distribution discretisation.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoreBenchmark {
+   
+   @Param({"101", "201", "401"})
+   public int states;
+   
+   @Param({"HASHTABLE", "CONCURRENT_HASHMAP", "THASHMAP", "DENSE_ARRAY"})
+   public HashType hashType;
+   
+   private BackwardRecursionImpl recursion;
+   private TransitionProbabilityImpl transitionProbability;
+   private StateImpl state;
+   private ArrayList<Action> actions;
+   private ArrayList<jsdp.sdp.State> finalStates;
+   
+   @Setup(Level.Trial)
+   public void setup(){
+      this.recursion = Models.stochasticLotSizing(this.states, this.hashType);
+      this.recursion.runBackwardRecursion();
+      this.recursion.getValueRepository().setMemoisation(false);
+      this.transitionProbability = this.recursion.getTransitionProbability();
+      this.state = (StateImpl) ((StateSpaceImpl) this.recursion.getStateSpace(0)).getState(new StateDescriptorImpl(0, 0));
+      this.actions = this.state.getFeasibleActions();
+      this.finalStates = new ArrayList<jsdp.sdp.State>();
+      this.transitionProbability.getTransitions(this.state, this.actions.get(0)).forEach(t -> this.finalStates.add(t.getFinalState()));
+   }
+   
+   @Benchmark
+   public void getExpectedValue(Blackhole blackhole){
+      for(Action action : this.actions)
+         blackhole.consume(this.recursion.getValueRepository().getExpectedValue(this.state, action, this.transitionProbability));
+   }
+   
+   @Benchmark
+   public void getTransitionProbability(Blackhole blackhole){
+      Action action = this.actions.get(0);
+      for(jsdp.sdp.State finalState : this.finalStates)
+         blackhole.consume(this.transitionProbability.getTransitionProbability(this.state, action, finalState));
+   }
+   
+   @Benchmark
+   public Object getTruncatedDiscreteDistributionPoisson(){
+      return DiscreteDistributionFactory.getTruncatedDiscreteDistribution(new PoissonDist(40), 0, this.states, 1);
+   }
+   
+   @Benchmark
+   public Object getTruncatedDiscreteDistributionNormal(){
+      return DiscreteDistributionFactory.getTruncatedDiscreteDistribution(new NormalDist(40, 10), 0, this.states, 0.5);
+   }
+}
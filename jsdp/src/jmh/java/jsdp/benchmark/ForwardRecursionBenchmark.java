@@ -0,0 +1,110 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jsdp.app.lotsizing.sS_ForwardRecursion;
+import jsdp.app.lotsizing.sS_State;
+import jsdp.app.lotsizing.sS_StateDescriptor;
+import jsdp.app.lotsizing.sS_StateSpace;
+
+import umontreal.ssj.probdist.Distribution;
+import umontreal.ssj.probdist.PoissonDist;
+
+/**
+ * Benchmarks the forward recursion engines on {@code sS_ForwardRecursion}. The sequential engine 
+ * recurses inside the memo table mapping function and is therefore not benchmarked.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ForwardRecursionBenchmark {
+   
+   public enum Engine {
+      PARALLEL,
+      ITERATIVE
+   }
+   
+   @Param({"PARALLEL", "ITERATIVE"})
+   public Engine engine;
+   
+   @Param({"101", "161"})
+   public int states;
+   
+   @Param({"0", "100000"})
+   public int transitionCacheSize;
+   
+   private sS_ForwardRecursion recursion;
+   private jsdp.sdp.State initialState;
+   
+   @Setup(Level.Invocation)
+   public void setup(){
+      double[] meanDemand = {20,30,20,40};
+      int minInventory = -60;
+      sS_State.setStateBoundaries(1, minInventory, minInventory + this.states - 1);
+      Distribution[] demand = new Distribution[meanDemand.length];
+      for(int i = 0; i < demand.length; i++)
+         demand[i] = new PoissonDist(meanDemand[i]);
+      double maxDemand = sS_State.getMaxInventory()-sS_State.getMinInventory();
+      this.recursion = new sS_ForwardRecursion(demand, 0, maxDemand, 50, 0, 1, 4);
+      this.recursion.setTransitionCacheSize(this.transitionCacheSize);
+      sS_StateDescriptor stateDescriptor = new sS_StateDescriptor(0, sS_State.inventoryToState(0));
+      this.initialState = ((sS_StateSpace)this.recursion.getStateSpace()[0]).getState(stateDescriptor);
+   }
+   
+   @Benchmark
+   public double runForwardRecursion(){
+      switch(this.engine){
+      case PARALLEL:
+         return this.recursion.runParallelForwardRecursion(this.initialState);
+      case ITERATIVE:
+         return this.recursion.runIterativeForwardRecursion(this.initialState);
+      default:
+         throw new NullPointerException("Unknown engine");
+      }
+   }
+}
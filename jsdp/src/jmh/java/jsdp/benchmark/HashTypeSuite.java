@@ -0,0 +1,198 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import jsdp.sdp.HashType;
+import jsdp.sdp.impl.univariate.BackwardRecursionImpl;
+
+/**
+ * Solves the stochastic lot sizing reference model under each {@code HashType} and records wall time, 
+ * process CPU time, GC time and the heap, direct memory and disk bytes retained per state and per 
+ * memoised state-action pair. 
+ * 
+ * Each {@code HashType} is solved twice: without memoisation of state-action expected values, to 
+ * measure the footprint of states, and with memoisation, to measure the additional footprint of 
+ * state-action pairs. The figures measured are those used by {@code HashType.AUTO}, see 
+ * {@code HashTypeSelector}. Run with
+ * 
+ * <pre>
+ * mvn -Pbenchmark compile exec:exec -Dbenchmark.main=jsdp.benchmark.HashTypeSuite -Djmh.args="201 target/hashtype.csv"
+ * </pre>
+ * 
+ * where the arguments are the number of states per period and the output CSV file.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@SuppressWarnings("restriction")
+public class HashTypeSuite {
+   
+   static class Measurement {
+      HashType hashType;
+      boolean memoisation;
+      long states;
+      long stateActions;
+      long wallNanos;
+      long cpuNanos;
+      long gcMillis;
+      long heapBytes;
+      long directBytes;
+      long diskBytes;
+      double expectedCost;
+      
+      long retainedBytes(){
+         return this.heapBytes + this.directBytes + this.diskBytes;
+      }
+   }
+   
+   public static void main(String args[]) throws IOException{
+      int states = args.length > 0 ? Integer.parseInt(args[0]) : 201;
+      File output = args.length > 1 ? new File(args[1]) : null;
+      
+      List<String> rows = new ArrayList<String>();
+      String header = "hashType,states,stateActions,wallMillis,cpuMillis,gcMillis,heapBytes,directBytes,diskBytes,bytesPerState,bytesPerStateAction,expectedCost";
+      rows.add(header);
+      System.out.println(header);
+      // warm up
+      measure(HashType.THASHMAP, states, true);
+      
+      for(HashType hashType : HashType.values()){
+         if(hashType == HashType.AUTO)
+            continue;
+         Measurement withoutMemo = measure(hashType, states, false);
+         Measurement withMemo = measure(hashType, states, true);
+         double bytesPerState = ((double) withoutMemo.retainedBytes())/withoutMemo.states;
+         double bytesPerStateAction = withMemo.stateActions > 0 ? 
+               ((double) Math.max(0, withMemo.retainedBytes() - withoutMemo.retainedBytes()))/withMemo.stateActions : 0;
+         for(Measurement m : new Measurement[]{withoutMemo, withMemo}){
+            String row = m.hashType + "," + m.states + "," + m.stateActions + "," + m.wallNanos/1000000 + "," 
+                  + m.cpuNanos/1000000 + "," + m.gcMillis + "," + m.heapBytes + "," + m.directBytes + "," + m.diskBytes + "," 
+                  + Math.round(bytesPerState) + "," + Math.round(bytesPerStateAction) + "," + m.expectedCost;
+            rows.add(row);
+            System.out.println(row);
+         }
+      }
+      
+      if(output != null){
+         try(PrintWriter writer = new PrintWriter(new FileWriter(output))){
+            rows.forEach(row -> writer.println(row));
+         }
+      }
+   }
+   
+   static Measurement measure(HashType hashType, int states, boolean memoisation){
+      Measurement m = new Measurement();
+      m.hashType = hashType;
+      m.memoisation = memoisation;
+      
+      long directBefore = usedDirect();
+      long diskBefore = usedDisk();
+      long gcBefore = gcMillis();
+      long cpuBefore = cpuNanos();
+      long wallBefore = System.nanoTime();
+      
+      BackwardRecursionImpl recursion = Models.stochasticLotSizing(states, hashType);
+      recursion.setExpectedValueMemoisation(memoisation);
+      recursion.runBackwardRecursion();
+      
+      m.wallNanos = System.nanoTime() - wallBefore;
+      m.cpuNanos = cpuNanos() - cpuBefore;
+      m.gcMillis = gcMillis() - gcBefore;
+      m.expectedCost = recursion.getExpectedCost(0);
+      for(int t = 0; t <= recursion.getHorizonLength(); t++)
+         m.states += recursion.getStateSpace(t).entrySet().size();
+      
+      long heapWith = usedHeap();
+      long directWith = usedDirect();
+      long diskWith = usedDisk();
+      m.stateActions = recursion.getValueRepository().getValueHashTable() == null ? 0 : 
+                       recursion.getValueRepository().getValueHashTable().size();
+      
+      // static model data, e.g. state boundaries and action builders, are replaced by those of 
+      // a trivial model, so that only the footprint of the solved recursion is measured 
+      recursion = null;
+      Models.stochasticLotSizing(2, HashType.THASHMAP);
+      m.heapBytes = Math.max(0, heapWith - usedHeap());
+      m.directBytes = Math.max(0, directWith - directBefore);
+      m.diskBytes = Math.max(0, diskWith - diskBefore);
+      return m;
+   }
+   
+   private static long usedHeap(){
+      for(int i = 0; i < 3; i++){
+         System.gc();
+         try {
+            Thread.sleep(100);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+      }
+      return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+   }
+   
+   private static long usedDirect(){
+      long used = 0;
+      for(BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class))
+         if(pool.getName().equals("direct"))
+            used += pool.getMemoryUsed();
+      return used;
+   }
+   
+   private static long usedDisk(){
+      File[] files = new File("tables").listFiles();
+      long used = 0;
+      if(files != null)
+         for(File file : files)
+            used += file.length();
+      return used;
+   }
+   
+   private static long gcMillis(){
+      long millis = 0;
+      for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+         millis += Math.max(0, gc.getCollectionTime());
+      return millis;
+   }
+   
+   private static long cpuNanos(){
+      java.lang.management.OperatingSystemMXBean osMBean = ManagementFactory.getOperatingSystemMXBean();
+      if(osMBean instanceof com.sun.management.OperatingSystemMXBean)
+         return ((com.sun.management.OperatingSystemMXBean) osMBean).getProcessCpuTime();
+      else
+         return 0;
+   }
+}
@@ -0,0 +1,209 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import jsdp.sdp.Action;
+import jsdp.sdp.HashType;
+import jsdp.sdp.ImmediateValueFunction;
+import jsdp.sdp.RandomOutcomeFunction;
+import jsdp.sdp.State;
+import jsdp.sdp.StateTransitionFunction;
+import jsdp.sdp.Recursion.OptimisationDirection;
+import jsdp.sdp.impl.univariate.ActionImpl;
+import jsdp.sdp.impl.univariate.BackwardRecursionImpl;
+import jsdp.sdp.impl.univariate.SamplingScheme;
+import jsdp.sdp.impl.univariate.StateDescriptorImpl;
+import jsdp.sdp.impl.univariate.StateImpl;
+
+import umontreal.ssj.probdist.Distribution;
+import umontreal.ssj.probdist.NormalDist;
+import umontreal.ssj.probdist.PoissonDist;
+
+/**
+ * Benchmark instances of the {@code StochasticLotSizing} and {@code CLQG} models, 
+ * whose state space comprises a given number of states per period.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class Models {
+   
+   public enum Model {
+      LOT_SIZING,
+      CLQG
+   }
+   
+   public static BackwardRecursionImpl build(Model model, int states, HashType hashType){
+      switch(model){
+      case LOT_SIZING:
+         return stochasticLotSizing(states, hashType);
+      case CLQG:
+         return clqg(states, hashType);
+      default:
+         throw new NullPointerException("Unknown model");
+      }
+   }
+   
+   /**
+    * Stochastic lot sizing instance of {@code StochasticLotSizing} with inventory levels -50, -49, ... 
+    * 
+    * @param states the number of states per period.
+    * @param hashType the hash type of the value repository.
+    * @return the backward recursion.
+    */
+   public static BackwardRecursionImpl stochasticLotSizing(int states, HashType hashType){
+      double fixedOrderingCost = 100; 
+      double proportionalOrderingCost = 0; 
+      double holdingCost = 1;
+      double penaltyCost = 10;
+      double[] meanDemand = {20,40,60,40};
+      double truncationQuantile = 0.999;
+      
+      Distribution[] distributions = Arrays.stream(meanDemand)
+                                           .mapToObj(d -> new PoissonDist(d))
+                                           .toArray(Distribution[]::new);
+      double[] supportLB = Arrays.stream(distributions).mapToDouble(d -> d.inverseF(1-truncationQuantile)).toArray();
+      double[] supportUB = Arrays.stream(distributions).mapToDouble(d -> d.inverseF(truncationQuantile)).toArray();
+      
+      double minState = -50;
+      StateImpl.setStateBoundaries(1, minState, minState + states - 1);
+      
+      Function<State, ArrayList<Action>> buildActionList = s -> {
+         StateImpl state = (StateImpl) s;
+         ArrayList<Action> feasibleActions = new ArrayList<Action>();
+         for(double i = state.getInitialState(); i <= StateImpl.getMaxState(); i += StateImpl.getStepSize()){
+            feasibleActions.add(new ActionImpl(state, i - state.getInitialState()));
+         }
+         return feasibleActions;
+      };
+      Function<State, Action> idempotentAction = s -> new ActionImpl(s, 0.0);
+      
+      ImmediateValueFunction<State, Action, Double> immediateValueFunction = (initialState, action, finalState) -> {
+         ActionImpl a = (ActionImpl)action;
+         StateImpl fs = (StateImpl)finalState;
+         double orderingCost = a.getAction() > 0 ? (fixedOrderingCost + a.getAction()*proportionalOrderingCost) : 0;
+         double holdingAndPenaltyCost = holdingCost*Math.max(fs.getInitialState(),0) + penaltyCost*Math.max(-fs.getInitialState(),0);
+         return orderingCost+holdingAndPenaltyCost;
+      };
+      RandomOutcomeFunction<State, Action, Double> randomOutcomeFunction = (initialState, action, finalState) -> 
+         ((StateImpl)initialState).getInitialState() + ((ActionImpl)action).getAction() - ((StateImpl)finalState).getInitialState();
+      StateTransitionFunction<State, Action, Double> stateTransitionFunction = (initialState, action, realizedDemand) -> 
+         new StateImpl(new StateDescriptorImpl(initialState.getPeriod() + 1, 
+                                               ((StateImpl)initialState).getInitialState() + ((ActionImpl)action).getAction() - realizedDemand));
+      
+      BackwardRecursionImpl recursion = new BackwardRecursionImpl(OptimisationDirection.MIN,
+                                                                  distributions,
+                                                                  supportLB,
+                                                                  supportUB,
+                                                                  immediateValueFunction,
+                                                                  randomOutcomeFunction,
+                                                                  buildActionList,
+                                                                  idempotentAction,
+                                                                  1.0,
+                                                                  SamplingScheme.NONE,
+                                                                  100,
+                                                                  1,
+                                                                  states*(meanDemand.length + 1),
+                                                                  0.8F,
+                                                                  hashType);
+      recursion.getTransitionProbability().setStateTransitionFunction(stateTransitionFunction);
+      return recursion;
+   }
+   
+   /**
+    * Constrained linear quadratic Gaussian control instance of {@code CLQG} over 5 periods with 
+    * states -25, -24.5, ... 
+    * 
+    * @param states the number of states per period.
+    * @param hashType the hash type of the value repository.
+    * @return the backward recursion.
+    */
+   public static BackwardRecursionImpl clqg(int states, HashType hashType){
+      int T = 5;
+      double G = 1;
+      double Phi = 1;
+      double R = 1;
+      double Q = 1;
+      double Ulb = -1;
+      double Uub = 20;
+      double noiseStd = 5;
+      double truncationQuantile = 0.975;
+      
+      Distribution[] distributions = IntStream.range(0, T)
+                                              .mapToObj(i -> new NormalDist(0, noiseStd))
+                                              .toArray(Distribution[]::new);
+      double[] supportLB = IntStream.range(0, T).mapToDouble(i -> NormalDist.inverseF(0, noiseStd, 1-truncationQuantile)).toArray();
+      double[] supportUB = IntStream.range(0, T).mapToDouble(i -> NormalDist.inverseF(0, noiseStd, truncationQuantile)).toArray();
+      
+      double stepSize = 0.5;
+      double minState = -25;
+      StateImpl.setStateBoundaries(stepSize, minState, minState + (states - 1)*stepSize);
+      
+      Function<State, ArrayList<Action>> buildActionList = s -> {
+         StateImpl state = (StateImpl) s;
+         ArrayList<Action> feasibleActions = new ArrayList<Action>();
+         double maxAction = Math.min(Uub, (StateImpl.getMaxState() - Phi*state.getInitialState())/G);
+         double minAction = Math.max(Ulb, (StateImpl.getMinState() - Phi*state.getInitialState())/G);
+         for(double actionPointer = minAction; actionPointer <= maxAction; actionPointer += StateImpl.getStepSize()){
+            feasibleActions.add(new ActionImpl(state, actionPointer));
+         }
+         return feasibleActions;
+      };
+      Function<State, Action> idempotentAction = s -> new ActionImpl(s, 0.0);
+      
+      ImmediateValueFunction<State, Action, Double> immediateValueFunction = (initialState, action, finalState) -> 
+         Math.pow(((ActionImpl)action).getAction(),2)*R + Math.pow(((StateImpl)finalState).getInitialState(),2)*Q;
+      RandomOutcomeFunction<State, Action, Double> randomOutcomeFunction = (initialState, action, finalState) -> 
+         ((StateImpl)finalState).getInitialState() - ((StateImpl)initialState).getInitialState()*Phi - ((ActionImpl)action).getAction()*G;
+      StateTransitionFunction<State, Action, Double> stateTransitionFunction = (initialState, action, realizedNoise) -> 
+         new StateImpl(new StateDescriptorImpl(initialState.getPeriod() + 1, 
+                                               ((StateImpl)initialState).getInitialState()*Phi + ((ActionImpl)action).getAction()*G + realizedNoise));
+      
+      BackwardRecursionImpl recursion = new BackwardRecursionImpl(OptimisationDirection.MIN,
+                                                                  distributions,
+                                                                  supportLB,
+                                                                  supportUB,
+                                                                  immediateValueFunction,
+                                                                  randomOutcomeFunction,
+                                                                  buildActionList,
+                                                                  idempotentAction,
+                                                                  1.0,
+                                                                  SamplingScheme.NONE,
+                                                                  50,
+                                                                  1,
+                                                                  states*(T + 1),
+                                                                  0.8F,
+                                                                  hashType);
+      recursion.getTransitionProbability().setStateTransitionFunction(stateTransitionFunction);
+      return recursion;
+   }
+}
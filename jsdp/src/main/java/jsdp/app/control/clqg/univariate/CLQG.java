@@ -43,6 +43,8 @@ import jsdp.sdp.HashType;
 import jsdp.sdp.ImmediateValueFunction;
 import jsdp.sdp.RandomOutcomeFunction;
 import jsdp.sdp.State;
+import jsdp.sdp.StateTransitionFunction;
+import jsdp.sdp.UnimodalActionSearch;
 import jsdp.sdp.Recursion.OptimisationDirection;
 import jsdp.sdp.impl.univariate.ActionImpl;
 import jsdp.sdp.impl.univariate.BackwardRecursionImpl;
@@ -151,6 +153,15 @@ public class CLQG {
                                  ((ActionImpl)action).getAction()*G;
          return realizedNoise;
       };
+
+      // State Transition Function (inverse of the Random Outcome Function)
+      
+      StateTransitionFunction<State, Action, Double> stateTransitionFunction = (initialState, action, realizedNoise) -> {
+         double finalState = ((StateImpl)initialState).getInitialState()*Phi +
+                             ((ActionImpl)action).getAction()*G +
+                             realizedNoise;
+         return new StateImpl(new StateDescriptorImpl(initialState.getPeriod() + 1, finalState));
+      };
       
       /*******************************************************************
        * Solve
@@ -182,6 +193,10 @@ public class CLQG {
                                                                   stateSpaceLowerBound,
                                                                   loadFactor,
                                                                   HashType.THASHMAP);
+      recursion.getTransitionProbability().setStateTransitionFunction(stateTransitionFunction);
+      
+      // The cost of an action is convex in the action, hence actions can be searched by golden-section search
+      recursion.setActionSearchStrategy(new UnimodalActionSearch());
 
       
       System.out.println("--------------Backward recursion--------------");
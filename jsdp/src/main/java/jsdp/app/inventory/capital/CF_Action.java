@@ -29,6 +29,8 @@ public class CF_Action extends Action{
 
    @Override
    public boolean equals(Object action) {
+      if(this == action)
+         return true;
       if(action instanceof CF_Action)
          return this.orderQuantity == ((CF_Action) action).orderQuantity; 
       else
@@ -37,10 +39,7 @@ public class CF_Action extends Action{
 
    @Override
    public int hashCode() {
-      String hash = "A";
-      hash = (hash + state.getPeriod()) + "_" + 
-            this.orderQuantity;
-      return hash.hashCode();
+      return this.orderQuantity;
    }
    
    @Override
@@ -25,6 +25,8 @@ public class CF_State extends State {
 
    @Override
    public boolean equals(Object state) {
+      if(this == state)
+         return true;
       if(state instanceof CF_State)
          return this.period == ((CF_State) state).period &&
                 this.inventory == ((CF_State) state).inventory &&
@@ -35,11 +37,7 @@ public class CF_State extends State {
 
    @Override
    public int hashCode() {
-      String hash = "S";
-      hash = (hash + period) + "_I" + 
-             this.inventory + "_C" +
-             this.capital;
-      return hash.hashCode();
+      return 31*(31*this.period + this.inventory) + this.capital;
    }
    
    @Override
@@ -19,6 +19,8 @@ public class CF_StateDescriptor extends State{
 
    @Override
    public boolean equals(Object state) {
+      if(this == state)
+         return true;
       if(state instanceof CF_StateDescriptor){
          return this.period == ((CF_StateDescriptor) state).period &&
                 this.inventory == ((CF_StateDescriptor) state).inventory &&
@@ -29,11 +31,7 @@ public class CF_StateDescriptor extends State{
 
    @Override
    public int hashCode() {
-      String hash = "SD";
-      hash = (hash + period) + "_I" + 
-             this.inventory + "C_" +
-             this.capital;
-      return hash.hashCode();
+      return 31*(31*this.period + this.inventory) + this.capital;
    }
    
    @Override
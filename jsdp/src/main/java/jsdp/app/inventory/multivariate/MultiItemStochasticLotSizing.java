@@ -180,6 +180,10 @@ public class MultiItemStochasticLotSizing {
                                                                   stateSpaceLowerBound,
                                                                   loadFactor,
                                                                   HashType.CONCURRENT_HASHMAP);
+      
+      // Feasible actions are created lazily while they are evaluated, rather than collected by buildActionList
+      recursion.setBuildActionIterator(s -> sampleActions ? 
+            new ActionSampleIteratorImpl((StateImpl) s, maxSampledAction) : new ActionIteratorImpl((StateImpl) s));
 
       System.out.println("--------------Backward recursion--------------");
       recursion.runBackwardRecursionMonitoring();
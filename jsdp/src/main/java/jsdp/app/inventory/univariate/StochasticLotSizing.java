@@ -46,6 +46,7 @@ import jsdp.sdp.HashType;
 import jsdp.sdp.ImmediateValueFunction;
 import jsdp.sdp.RandomOutcomeFunction;
 import jsdp.sdp.State;
+import jsdp.sdp.StateTransitionFunction;
 import jsdp.sdp.Recursion.OptimisationDirection;
 import jsdp.sdp.impl.univariate.*;
 import jsdp.app.inventory.univariate.simulation.SimulatePolicies;
@@ -158,6 +159,15 @@ public class StochasticLotSizing {
                                  ((StateImpl)finalState).getInitialState();
          return realizedDemand;
       };
+
+      // State Transition Function (inverse of the Random Outcome Function)
+      
+      StateTransitionFunction<State, Action, Double> stateTransitionFunction = (initialState, action, realizedDemand) -> {
+         double finalInventory = ((StateImpl)initialState).getInitialState() +
+                                 ((ActionImpl)action).getAction() -
+                                 realizedDemand;
+         return new StateImpl(new StateDescriptorImpl(initialState.getPeriod() + 1, finalInventory));
+      };
       
       /*******************************************************************
        * Solve
@@ -189,6 +199,14 @@ public class StochasticLotSizing {
                                                                   stateSpaceLowerBound,
                                                                   loadFactor,
                                                                   HashType.THASHMAP);
+      recursion.getTransitionProbability().setStateTransitionFunction(stateTransitionFunction);
+      
+      // States that have not been sampled are valued by interpolating between the nearest sampled states
+      if(samplingScheme != SamplingScheme.NONE)
+         recursion.setValueFunctionApproximator(new PiecewiseLinearApproximator());
+      
+      // Feasible actions are created lazily while they are evaluated, rather than collected by buildActionList
+      recursion.setBuildActionIterator(s -> new ActionIteratorImpl(s, 0, StateImpl.getMaxIntState() - ((StateImpl) s).getInitialIntState()));
 
       
       System.out.println("--------------Backward recursion--------------");
@@ -223,6 +241,9 @@ public class StochasticLotSizing {
                                                                       maxSampleSize,
                                                                       reductionFactorPerStage,
                                                                       HashType.THASHMAP);
+      recursionPlot.getTransitionProbability().setStateTransitionFunction(stateTransitionFunction);
+      if(samplingScheme != SamplingScheme.NONE)
+         recursionPlot.setValueFunctionApproximator(new PiecewiseLinearApproximator());
       plotOptimalPolicyCost(targetPeriod, recursionPlot);   //Plot optimal policy cost 
       System.out.println();
       
@@ -233,7 +254,7 @@ public class StochasticLotSizing {
       double confidence = 0.95;            //Simulation confidence level 
       double errorTolerance = 0.0001;      //Simulation error threshold
       
-      if(simulate && samplingScheme == SamplingScheme.NONE) 
+      if(simulate) 
          simulate(distributions, 
                fixedOrderingCost, 
                holdingCost, 
@@ -243,10 +264,8 @@ public class StochasticLotSizing {
                recursion, 
                confidence, 
                errorTolerance);
-      else{
-         if(!simulate) System.out.println("Simulation disabled.");
-         if(samplingScheme != SamplingScheme.NONE) System.out.println("Cannot simulate a sampled solution, please disable sampling: set samplingScheme == SamplingScheme.NONE.");
-      }
+      else
+         System.out.println("Simulation disabled.");
    }
    
    static void plotOptimalPolicyCost(int targetPeriod, BackwardRecursionImpl recursion){
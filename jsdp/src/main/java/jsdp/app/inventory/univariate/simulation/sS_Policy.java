@@ -52,7 +52,7 @@ public class sS_Policy {
    
    private State find_S(int period){
       StateImpl s = (StateImpl) this.find_s(period);
-      double i = ((ActionImpl)recursion.getValueRepository().getOptimalAction(s)).getAction()+s.getInitialState();
+      double i = recursion.getOptimalAction(new StateDescriptorImpl(period, s.getInitialState())).getAction()+s.getInitialState();
       StateDescriptorImpl stateDescriptor = new StateDescriptorImpl(period, i);
       return ((StateSpaceImpl)recursion.getStateSpace()[period]).getState(stateDescriptor);
    }
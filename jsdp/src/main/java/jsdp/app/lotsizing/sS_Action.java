@@ -54,6 +54,8 @@ public class sS_Action extends Action {
 	
 	@Override
 	public boolean equals(Object action){
+		if(this == action)
+			return true;
 		if(action instanceof sS_Action)
 			return this.intAction == ((sS_Action)action).intAction;
 		else
@@ -62,9 +64,7 @@ public class sS_Action extends Action {
 	
 	@Override
 	public int hashCode(){
-		String hash = "";
-      hash = (hash + intAction);
-      return hash.hashCode();
+		return this.intAction;
 	}
 	
 	@Override
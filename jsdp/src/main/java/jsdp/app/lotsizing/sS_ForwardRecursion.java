@@ -26,6 +26,8 @@
 
 package jsdp.app.lotsizing;
 
+import java.util.ArrayList;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -33,6 +35,7 @@ import jsdp.sdp.Action;
 import jsdp.sdp.BestActionRepository;
 import jsdp.sdp.ForwardRecursion;
 import jsdp.sdp.State;
+import jsdp.sdp.Transition;
 import umontreal.ssj.probdist.Distribution;
 
 /**
@@ -90,19 +93,16 @@ public class sS_ForwardRecursion extends ForwardRecursion{
       return this.valueRepository.getOptimalValueHashTable().computeIfAbsent(state, y -> {
          BestActionRepository repository = new BestActionRepository(direction);
          y.getFeasibleActions().stream().forEach(action -> {
-            double normalisationFactor = this.getTransitionProbability()
-                                             .generateFinalStates(y, action)
-                                             .stream()
-                                             .mapToDouble(finalState -> transitionProbability.getTransitionProbability(y, action, finalState))
-                                             .sum();
-            double currentCost = this.getTransitionProbability()
-                                     .generateFinalStates(y, action)
-                                     .stream()
-                                     .mapToDouble(c -> ( this.getValueRepository().getImmediateValue(y, action, c)+
-                                                         (y.getPeriod() < horizonLength - 1 ? runForwardRecursion(c) : 0) )*
-                                                         this.getValueRepository().getDiscountFactor()*
-                                                         this.getTransitionProbability().getTransitionProbability(y, action, c))
-                                     .sum();
+            ArrayList<Transition> transitions = this.getTransitions(y, action);
+            double normalisationFactor = transitions.stream()
+                                                    .mapToDouble(t -> t.getProbability())
+                                                    .sum();
+            double currentCost = transitions.stream()
+                                            .mapToDouble(t -> ( this.getValueRepository().getImmediateValue(y, action, t.getFinalState())+
+                                                                (y.getPeriod() < horizonLength - 1 ? runForwardRecursion(t.getFinalState()) : 0) )*
+                                                                this.getValueRepository().getDiscountFactor()*
+                                                                t.getProbability())
+                                            .sum();
                if(normalisationFactor != 0)
                   currentCost /= normalisationFactor;
                repository.update(action, currentCost);
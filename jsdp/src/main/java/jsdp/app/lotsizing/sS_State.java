@@ -30,12 +30,14 @@ import java.util.ArrayList;
 
 import jsdp.sdp.Action;
 import jsdp.sdp.State;
+import jsdp.utilities.hash.HashMixer;
 
 public class sS_State extends State {
 
    private static final long serialVersionUID = 1L;
    
    private int initialIntState;
+   private transient int hash;
 
    private static double stepSize;
    private static int minIntState;
@@ -108,6 +110,8 @@ public class sS_State extends State {
 
    @Override
    public boolean equals(Object state){
+      if(this == state)
+         return true;
       if(state instanceof sS_State)
          return this.period == ((sS_State)state).period && this.initialIntState == ((sS_State)state).initialIntState;
       else return false;
@@ -115,9 +119,12 @@ public class sS_State extends State {
 
    @Override
    public int hashCode(){
-      String hash = "";
-      hash = (hash + period) + initialIntState;
-      return hash.hashCode();
+      int hash = this.hash;
+      if(hash == 0){
+         hash = HashMixer.mix(this.period, this.initialIntState);
+         this.hash = hash;
+      }
+      return hash;
    }
 
    @Override
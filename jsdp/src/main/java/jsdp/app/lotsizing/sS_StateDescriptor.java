@@ -27,12 +27,14 @@
 package jsdp.app.lotsizing;
 
 import jsdp.sdp.StateDescriptor;
+import jsdp.utilities.hash.HashMixer;
 
 public class sS_StateDescriptor extends StateDescriptor{
 
    private static final long serialVersionUID = 1L;
    
    int initialIntState;
+   private transient int hash;
 
    public sS_StateDescriptor(int period, int initialIntState){
       super(period);
@@ -41,6 +43,8 @@ public class sS_StateDescriptor extends StateDescriptor{
    
    @Override
    public boolean equals(Object descriptor){
+      if(this == descriptor)
+         return true;
       if(descriptor instanceof sS_StateDescriptor)
          return this.period == ((sS_StateDescriptor)descriptor).period &&
          this.initialIntState == ((sS_StateDescriptor)descriptor).initialIntState;
@@ -50,9 +54,12 @@ public class sS_StateDescriptor extends StateDescriptor{
 
    @Override
    public int hashCode(){
-      String hash = "";
-      hash = (hash + period) + "_" + initialIntState;
-      return hash.hashCode();
+      int hash = this.hash;
+      if(hash == 0){
+         hash = HashMixer.mix(this.period, this.initialIntState);
+         this.hash = hash;
+      }
+      return hash;
    }
 
    public int getInitialIntState(){
@@ -88,7 +88,7 @@ public class sS_TransitionProbability extends TransitionProbability {
          else
             break; 
       }
-      return states.parallelStream()
+      return (this.parallel ? states.parallelStream() : states.stream())
                    .filter(s -> this.getTransitionProbability(initialState, action, s) > 0)
                    .collect(Collectors.toCollection(ArrayList<State>::new));
    }
@@ -97,7 +97,7 @@ public class sS_TransitionProbability extends TransitionProbability {
    public ArrayList<State> getFinalStates(State initialState, Action action) {
       ArrayList<State> states = new ArrayList<State>();
       this.stateSpace[initialState.getPeriod()+1].forEach(entry -> states.add(entry));
-      return states.parallelStream().filter(s -> this.getTransitionProbability(initialState, action, s) > 0)
+      return (this.parallel ? states.parallelStream() : states.stream()).filter(s -> this.getTransitionProbability(initialState, action, s) > 0)
                                     .collect(Collectors.toCollection(ArrayList<State>::new));
    }
 }
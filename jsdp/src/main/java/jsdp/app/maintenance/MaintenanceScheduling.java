@@ -11,9 +11,11 @@ import jsdp.sdp.HashType;
 import jsdp.sdp.ImmediateValueFunction;
 import jsdp.sdp.RandomOutcomeFunction;
 import jsdp.sdp.State;
+import jsdp.sdp.StateTransitionFunction;
 import jsdp.sdp.Recursion.OptimisationDirection;
 import jsdp.sdp.impl.univariate.ActionImpl;
 import jsdp.sdp.impl.univariate.BackwardRecursionImpl;
+import jsdp.sdp.impl.univariate.InfiniteHorizonRecursionImpl;
 import jsdp.sdp.impl.univariate.SamplingScheme;
 import jsdp.sdp.impl.univariate.StateDescriptorImpl;
 import jsdp.sdp.impl.univariate.StateImpl;
@@ -147,6 +149,11 @@ public class MaintenanceScheduling {
          }*/
       };
 
+      // State Transition Function (inverse of the Random Outcome Function)
+      
+      StateTransitionFunction<State, Action, Double> stateTransitionFunction = (initialState, action, randomOutcome) -> 
+         new StateImpl(new StateDescriptorImpl(initialState.getPeriod() + 1, randomOutcome.intValue()));
+
       /*******************************************************************
        * Solve
        */
@@ -173,6 +180,8 @@ public class MaintenanceScheduling {
                                                                   maxSampleSize,
                                                                   reductionFactorPerStage,
                                                                   HashType.HASHTABLE);
+      recursion.getTransitionProbability().setStateTransitionFunction(stateTransitionFunction);
+      recursion.setTransitionKernels(true, true);   //Stationary problem: all periods share the same transition kernel
 
       System.out.println("--------------Backward recursion--------------");
       StopWatch timer = new StopWatch();
@@ -189,5 +198,32 @@ public class MaintenanceScheduling {
       }
       System.out.println("Time elapsed: "+timer);
       System.out.println();
+      
+      // Value Function Processing Method: stationary infinite horizon
+      InfiniteHorizonRecursionImpl stationaryRecursion = new InfiniteHorizonRecursionImpl(OptimisationDirection.MIN,
+                                                                                          distributions[0],
+                                                                                          supportLB[0],
+                                                                                          supportUB[0],
+                                                                                          immediateValueFunction,
+                                                                                          randomOutcomeFunction,
+                                                                                          buildActionList,
+                                                                                          idempotentAction,
+                                                                                          discountFactor,
+                                                                                          HashType.HASHTABLE);
+      stationaryRecursion.getTransitionProbability().setStateTransitionFunction(stateTransitionFunction);
+      
+      System.out.println("--------------Modified policy iteration--------------");
+      timer.reset();
+      timer.start();
+      stationaryRecursion.runModifiedPolicyIteration(10, 1e-6);
+      timer.stop();
+      System.out.println();
+      System.out.println("Expected total cost (assuming initial state "+initialMachineState+"): "+stationaryRecursion.getExpectedCost(initialMachineState));
+      for(int i = 0; i < states.length; i++){
+         System.out.println("Optimal action in state "+states[i]+": "+stationaryRecursion.getOptimalAction(states[i]).getAction());
+      }
+      System.out.println("Iterations: "+stationaryRecursion.getIterations());
+      System.out.println("Time elapsed: "+timer);
+      System.out.println();
    }
 }
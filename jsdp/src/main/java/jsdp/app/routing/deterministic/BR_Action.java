@@ -40,6 +40,8 @@ public class BR_Action extends Action {
    int bowserRefuelQty;
    int[] machineRefuelQty;
    
+   private transient int hash;
+   
    public BR_Action(State state, 
                     int bowserNewLocation,
                     int bowserRefuelQty,
@@ -64,6 +66,8 @@ public class BR_Action extends Action {
 
    @Override
    public boolean equals(Object action) {
+      if(this == action)
+         return true;
       if(action instanceof BR_Action)
          return this.bowserNewLocation == ((BR_Action)action).bowserNewLocation &&
                 this.bowserRefuelQty == ((BR_Action)action).bowserRefuelQty &&
@@ -74,12 +78,12 @@ public class BR_Action extends Action {
 
    @Override
    public int hashCode() {
-      String hash = "A";
-      hash = (hash + state.getPeriod()) + "_" + 
-             this.bowserNewLocation + "_" +
-             this.bowserRefuelQty + "_" +
-             Arrays.toString(this.machineRefuelQty);
-      return hash.hashCode();
+      int hash = this.hash;
+      if(hash == 0){
+         hash = 31*(31*this.bowserNewLocation + this.bowserRefuelQty) + Arrays.hashCode(this.machineRefuelQty);
+         this.hash = hash;
+      }
+      return hash;
    }
    
    private static void refuelMachine(int[] currentPlan, int machine, BR_State state, int availableFuel, ArrayList<int[]> qtys, int minRefuelingQty){
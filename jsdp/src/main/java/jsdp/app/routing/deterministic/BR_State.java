@@ -78,6 +78,8 @@ public class BR_State extends State {
    private int machineTankLevel[];
    private int machineLocation[];
    
+   private transient int hash;
+   
    public BR_State(BR_StateDescriptor descriptor){
       super(descriptor.getPeriod());
       this.bowserTankLevel = descriptor.getBowserTankLevel();
@@ -104,6 +106,8 @@ public class BR_State extends State {
    
    @Override
    public boolean equals(Object state) {
+      if(this == state)
+         return true;
       if(state instanceof BR_State)
          return this.period == ((BR_State)state).period && 
                 this.bowserTankLevel == ((BR_State)state).bowserTankLevel &&
@@ -116,13 +120,12 @@ public class BR_State extends State {
 
    @Override
    public int hashCode() {
-      String hash = "S";
-      hash = (hash + period) + "_" + 
-             this.bowserTankLevel + "_" +
-             this.bowserLocation +
-             Arrays.toString(this.machineTankLevel);
-             Arrays.toString(this.machineLocation);
-      return hash.hashCode();
+      int hash = this.hash;
+      if(hash == 0){
+         hash = 31*(31*(31*(31*this.period + this.bowserTankLevel) + this.bowserLocation) + Arrays.hashCode(this.machineTankLevel)) + Arrays.hashCode(this.machineLocation);
+         this.hash = hash;
+      }
+      return hash;
    }
    
    @Override
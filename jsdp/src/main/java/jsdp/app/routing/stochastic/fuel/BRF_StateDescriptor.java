@@ -40,6 +40,8 @@ public class BRF_StateDescriptor extends StateDescriptor {
    private int machineTankLevel[];
    private int machineLocation[];
    
+   private transient int hash;
+   
    public BRF_StateDescriptor(int period,
                              int bowserTankLevel,
                              int bowserLocation,
@@ -70,6 +72,8 @@ public class BRF_StateDescriptor extends StateDescriptor {
    
    @Override
    public boolean equals(Object state) {
+      if(this == state)
+         return true;
       if(state instanceof BRF_StateDescriptor)
          return this.period == ((BRF_StateDescriptor)state).period && 
                 this.bowserTankLevel == ((BRF_StateDescriptor)state).bowserTankLevel &&
@@ -82,13 +86,12 @@ public class BRF_StateDescriptor extends StateDescriptor {
 
    @Override
    public int hashCode() {
-      String hash = "SD";
-      hash = (hash + period) + "_" + 
-             this.bowserTankLevel + "_" +
-             this.bowserLocation +
-             Arrays.toString(this.machineTankLevel);
-             Arrays.toString(this.machineLocation);
-      return hash.hashCode();
+      int hash = this.hash;
+      if(hash == 0){
+         hash = 31*(31*(31*(31*this.period + this.bowserTankLevel) + this.bowserLocation) + Arrays.hashCode(this.machineTankLevel)) + Arrays.hashCode(this.machineLocation);
+         this.hash = hash;
+      }
+      return hash;
    }
    
    @Override
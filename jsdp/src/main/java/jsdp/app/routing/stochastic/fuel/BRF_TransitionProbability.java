@@ -138,7 +138,7 @@ public class BRF_TransitionProbability extends TransitionProbability {
          }
       }
       
-      ArrayList<State> finalStates = machineTankLevelArray.parallelStream().map(array ->
+      ArrayList<State> finalStates = (this.parallel ? machineTankLevelArray.parallelStream() : machineTankLevelArray.stream()).map(array ->
             this.stateSpace[initialState.getPeriod() + 1].getState(
                   new BRF_StateDescriptor(initialState.getPeriod() + 1, 
                                           bowserTankLevel,
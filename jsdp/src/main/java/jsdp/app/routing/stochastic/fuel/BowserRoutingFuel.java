@@ -668,6 +668,10 @@ public class BowserRoutingFuel {
    }
    
    private BRF_ForwardRecursion buildModel(){
+      return buildModel(HashType.MAPDB_HEAP_SHARDED);
+   }
+   
+   BRF_ForwardRecursion buildModel(HashType hashType){
       /*******************************************************************
        * Model definition
        */
@@ -756,7 +760,7 @@ public class BowserRoutingFuel {
                                                               immediateValueFunction, 
                                                               buildActionList,
                                                               discountFactor,
-                                                              HashType.MAPDB_HEAP_SHARDED,
+                                                              hashType,
                                                               stateSpaceSizeLowerBound,
                                                               loadFactor,
                                                               samplingScheme,
@@ -801,23 +805,27 @@ public class BowserRoutingFuel {
       this.simulatedExpectedTotalCost = tally;
    }
 
-   public void runInstance(){      
-      
-      resetInstance(); 
-      
-      recursion = buildModel();
-      
+   BRF_StateDescriptor getInitialState(){
       int period = 0;
       int bowserInitialLocation = 0;
       int bowserInitialTankLevel = this.bowserInitialTankLevel;
       int[] machinesInitialTankLevel = Arrays.copyOf(initialTankLevel, initialTankLevel.length);
       int[] machinesInitialLocation = getMachineLocationArray(M, machineLocation[0]);
       
-      BRF_StateDescriptor initialState = new BRF_StateDescriptor(period, 
-                                                                 bowserInitialTankLevel, 
-                                                                 bowserInitialLocation,
-                                                                 machinesInitialTankLevel,
-                                                                 machinesInitialLocation);
+      return new BRF_StateDescriptor(period, 
+                                     bowserInitialTankLevel, 
+                                     bowserInitialLocation,
+                                     machinesInitialTankLevel,
+                                     machinesInitialLocation);
+   }
+   
+   public void runInstance(){      
+      
+      resetInstance(); 
+      
+      recursion = buildModel();
+      
+      BRF_StateDescriptor initialState = getInitialState();
 
       recursion.runForwardRecursionMonitoring(((BRF_StateSpace)recursion.getStateSpace()[initialState.getPeriod()]).getState(initialState));
       long percent = recursion.getMonitoringInterfaceForward().getPercentCPU();
@@ -100,7 +100,7 @@ public class BRL_TransitionProbability extends TransitionProbability {
       int[] machineLocations = new int[((BRL_State) initialState).getMachineLocation().length];
       generateLocations(machineLocations, 0, this.machineLocationProbability[Math.min(initialState.getPeriod()+1, this.machineLocationProbability.length-1)], machineLocationsArray);
       
-      ArrayList<State> finalStates = machineLocationsArray.parallelStream().map(array ->
+      ArrayList<State> finalStates = (this.parallel ? machineLocationsArray.parallelStream() : machineLocationsArray.stream()).map(array ->
                   this.stateSpace[initialState.getPeriod() + 1].getState(
                         new BRL_StateDescriptor(initialState.getPeriod() + 1, 
                                                 bowserTankLevel,
@@ -0,0 +1,50 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A strategy that searches the feasible actions of a state for the best one, see {@code Recursion.setActionSearchStrategy}.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@FunctionalInterface
+public interface ActionSearchStrategy {
+   /**
+    * Searches the feasible actions of {@code state}, as enumerated by {@code recursion}, and returns 
+    * a {@code BestActionRepository} storing the best action found and its value.
+    * 
+    * @param recursion the recursion that enumerates feasible actions and sets the direction of optimisation.
+    * @param state the state whose feasible actions are searched.
+    * @param value the function computing the value of an action.
+    * @param parallel true if actions may be evaluated in parallel.
+    * @return a {@code BestActionRepository} storing the best action found and its value.
+    */
+   public BestActionRepository search(Recursion recursion, State state, ToDoubleFunction<Action> value, boolean parallel);
+}
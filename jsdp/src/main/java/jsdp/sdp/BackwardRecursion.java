@@ -26,9 +26,28 @@
 
 package jsdp.sdp;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.apache.logging.log4j.Logger;
 
@@ -45,20 +64,25 @@ import org.apache.logging.log4j.LogManager;
 public abstract class BackwardRecursion extends Recursion{
 	static final Logger logger = LogManager.getLogger(BackwardRecursion.class.getName());
 	
-	/**
-    * States processed
+	   /**
+    * Monitor
     */
-   private AtomicLong processedStates = new AtomicLong(0L);
+   private  MonitoringInterfaceBackward monitor;
    
    /**
-    * States generated
+    * Rolling memory mode
     */
-   private AtomicLong generatedStates = new AtomicLong(0L);
+   private boolean rollingMemory = false;
    
    /**
-    * Monitor
+    * Checkpoint directory
     */
-   private  MonitoringInterfaceBackward monitor;
+   private File checkpointDirectory;
+   
+   /**
+    * Number of periods whose states may be generated ahead of the period being processed
+    */
+   private int stateGenerationLookAhead = 1;
    
    public MonitoringInterfaceBackward getMonitoringInterfaceBackward(){
       return this.monitor;
@@ -73,6 +97,85 @@ public abstract class BackwardRecursion extends Recursion{
 		super(direction);
 	}
 	
+	/**
+	 * Enables or disables the rolling memory mode. In rolling memory mode, once the recursion step of period {@code t} 
+	 * has been completed, the expected values of all {@code StateAction} pairs and the optimal expected values 
+	 * of period {@code t+1} are discarded. At the end of the recursion only optimal actions, and the optimal expected 
+	 * values of the first period processed, are retained; optimal expected values of later periods are no longer available.
+	 * 
+	 * @param rollingMemory true to enable the rolling memory mode.
+	 */
+	public void setRollingMemory(boolean rollingMemory){
+	   this.rollingMemory = rollingMemory;
+	}
+	
+	/**
+	 * Returns true if the rolling memory mode is enabled.
+	 * 
+	 * @return true if the rolling memory mode is enabled.
+	 */
+	public boolean isRollingMemory(){
+	   return this.rollingMemory;
+	}
+	
+	/**
+	 * Enables or disables the memoisation of expected values associated with {@code StateAction} pairs 
+	 * in the value repository, see {@code ValueRepository.setMemoisation}. Memoisation is only beneficial 
+	 * if recursion steps are run more than once, e.g. when sampled state spaces are expanded on demand.
+	 * 
+	 * @param memoisation true to store expected values associated with {@code StateAction} pairs.
+	 */
+	public void setExpectedValueMemoisation(boolean memoisation){
+	   this.getValueRepository().setMemoisation(memoisation);
+	}
+	
+	/**
+	 * Sets the directory in which a checkpoint is written as soon as the recursion step of a period has been completed; 
+	 * the checkpoint stores the optimal expected values and the optimal actions of the states in that period. 
+	 * A recursion interrupted after one or more checkpoints have been written can be continued by 
+	 * {@code resumeBackwardRecursion}. If a checkpoint cannot be written, the recursion is stopped by an 
+	 * {@code UncheckedIOException}; checkpoints written so far remain valid. Checkpointing is disabled if 
+	 * {@code checkpointDirectory} is null.
+	 * 
+	 * @param checkpointDirectory the checkpoint directory.
+	 */
+	public void setCheckpointDirectory(File checkpointDirectory){
+	   this.checkpointDirectory = checkpointDirectory;
+	}
+	
+	/**
+	 * Returns the checkpoint directory, or null if checkpointing is disabled.
+	 * 
+	 * @return the checkpoint directory.
+	 */
+	public File getCheckpointDirectory(){
+	   return this.checkpointDirectory;
+	}
+	
+	/**
+	 * Sets the number of periods whose states may be generated ahead of the period being processed. 
+	 * States of period {@code t} are generated on a bounded pool of worker threads while the recursion step of 
+	 * period {@code t+1}, ..., {@code t+lookAhead} is being run, so that the recursion starts as soon as the 
+	 * states of the last period have been generated. If {@code lookAhead} is 0, states of a period are generated 
+	 * only once the recursion reaches that period. The default look-ahead is 1.
+	 * 
+	 * @param lookAhead the state generation look-ahead.
+	 */
+	public void setStateGenerationLookAhead(int lookAhead){
+	   if(lookAhead < 0)
+	      throw new NullPointerException("State generation look-ahead cannot be negative");
+	   this.stateGenerationLookAhead = lookAhead;
+	}
+	
+	/**
+	 * Returns the number of periods whose states may be generated ahead of the period being processed.
+	 * 
+	 * @return the state generation look-ahead.
+	 */
+	public int getStateGenerationLookAhead(){
+	   return this.stateGenerationLookAhead;
+	}
+	
 	/**
     * Runs the backward recursion algorithm for the given stochastic dynamic program.
     */
@@ -89,13 +192,126 @@ public abstract class BackwardRecursion extends Recursion{
 	 */
 	public void runBackwardRecursion(){
 		logger.info("Generating states...");
-		generateStates();
-		for(int i = horizonLength - 1; i >= 0; i--){
-			logger.info("Processing period["+i+"]...");
-			recurse(i);
+		StateGenerator generator = new StateGenerator(stateGenerationLookAhead);
+		try{
+		   generator.await(horizonLength);
+		   initialiseLastPeriod();
+		   recurseFrom(horizonLength - 1, generator);
+		}finally{
+		   generator.shutdown();
 		}
 	}
 	
+	/**
+	 * Continues a backward recursion from the checkpoints stored in {@code checkpointDirectory}. The optimal 
+	 * expected values of the earliest period for which a checkpoint exists are reloaded, together with the optimal 
+	 * actions of all subsequent periods, and the recursion is continued from the preceding period. 
+	 * Optimal expected values of subsequent periods are also reloaded, unless the rolling memory mode is enabled.
+	 * Checkpoints continue to be written in {@code checkpointDirectory}.
+	 * 
+	 * @param checkpointDirectory the checkpoint directory.
+	 * @throws IOException if a checkpoint cannot be read.
+	 */
+	public void resumeBackwardRecursion(File checkpointDirectory) throws IOException {
+	   this.checkpointDirectory = checkpointDirectory;
+	   logger.info("Generating states...");
+	   generateStates();
+	   int period = horizonLength;
+	   while(period > 0 && getCheckpointFile(period - 1).exists())
+	      period--;
+	   for(int i = horizonLength - 1; i >= period; i--){
+	      logger.info("Loading checkpoint of period["+i+"]...");
+	      readCheckpoint(i, getCheckpointFile(i), i == period || !rollingMemory);
+	   }
+	   recurseFrom(period - 1, null);
+	}
+	
+	private void recurseFrom(int period, StateGenerator generator){
+	   for(int i = period; i >= 0; i--){
+	      if(generator != null)
+	         generator.await(i);
+	      logger.info("Processing period["+i+"]...");
+	      periodStarted(i);
+	      recurse(i);
+	      if(checkpointDirectory != null)
+	         checkpoint(i);
+	      if(rollingMemory)
+	         releaseMemory(i);
+	   }
+	}
+	
+	private void checkpoint(int period){
+	   File file = getCheckpointFile(period);
+	   File temporaryFile = new File(checkpointDirectory, file.getName()+".tmp");
+	   try{
+	      checkpointDirectory.mkdirs();
+	      writeCheckpoint(period, temporaryFile);
+	      Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	   }catch(IOException e){
+	      temporaryFile.delete();
+	      throw new UncheckedIOException("Checkpoint of period["+period+"] failed", e);
+	   }
+	}
+	
+	/**
+	 * Returns the checkpoint file of period {@code period}.
+	 * 
+	 * @param period the target period.
+	 * @return the checkpoint file of period {@code period}.
+	 */
+	protected File getCheckpointFile(int period){
+	   return new File(checkpointDirectory, "period-"+period+".checkpoint");
+	}
+	
+	/**
+	 * Writes the optimal expected values and the optimal actions of the states in period {@code period} to {@code file}. 
+	 * This implementation relies on Java serialization; subclasses may override this method and 
+	 * {@code readCheckpoint} to adopt a more compact format.
+	 * 
+	 * @param period the target period.
+	 * @param file the checkpoint file.
+	 * @throws IOException if the checkpoint cannot be written.
+	 */
+	protected void writeCheckpoint(int period, File file) throws IOException {
+	   HashMap<State,Double> optimalValues = new HashMap<State,Double>();
+	   HashMap<State,Action> optimalActions = new HashMap<State,Action>();
+	   this.getStateSpace(period).entrySet().forEach(entry -> {
+	      State state = entry.getValue();
+	      Double value = this.getValueRepository().getOptimalValueHashTable().get(state);
+	      if(value != null)
+	         optimalValues.put(state, value);
+	      Action action = this.getValueRepository().getOptimalAction(state);
+	      if(action != null)
+	         optimalActions.put(state, action);
+	   });
+	   try(ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))){
+	      out.writeObject(optimalValues);
+	      out.writeObject(optimalActions);
+	   }
+	}
+	
+	/**
+	 * Reads the optimal actions, and if {@code values} is true the optimal expected values, of the states 
+	 * in period {@code period} from {@code file}, and stores them in the value repository.
+	 * 
+	 * @param period the target period.
+	 * @param file the checkpoint file.
+	 * @param values true if optimal expected values should be reloaded.
+	 * @throws IOException if the checkpoint cannot be read.
+	 */
+	@SuppressWarnings("unchecked")
+	protected void readCheckpoint(int period, File file, boolean values) throws IOException {
+	   try(ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))){
+	      HashMap<State,Double> optimalValues = (HashMap<State,Double>) in.readObject();
+	      HashMap<State,Action> optimalActions = (HashMap<State,Action>) in.readObject();
+	      if(values)
+	         optimalValues.forEach((state, value) -> this.getValueRepository().setOptimalExpectedValue(state, value.doubleValue()));
+	      optimalActions.forEach((state, action) -> this.getValueRepository().setOptimalAction(state, action));
+	   }catch(ClassNotFoundException e){
+	      throw new IOException(e);
+	   }
+	}
+	
 	/**
     * Runs the backward recursion algorithm for the given stochastic dynamic program from period {@code period} 
     * up to the end of the planning horizon. This implementation of the backward recursion algorithm assumes 
@@ -120,63 +336,125 @@ public abstract class BackwardRecursion extends Recursion{
 	 */
 	public void runBackwardRecursion(int period){
 		logger.info("Generating states...");
-		generateStates();
-		for(int i = horizonLength - 1; i > period; i--){
-			logger.info("Processing period["+i+"]...");
-			recurse(i);
+		StateGenerator generator = new StateGenerator(stateGenerationLookAhead);
+		try{
+		   generator.await(horizonLength);
+		   initialiseLastPeriod();
+		   for(int i = horizonLength - 1; i > period; i--){
+		      generator.await(i);
+		      logger.info("Processing period["+i+"]...");
+		      periodStarted(i);
+		      recurse(i);
+		      if(rollingMemory)
+		         releaseMemory(i);
+		   }
+		   generator.await(period);
+		}finally{
+		   generator.shutdown();
 		}
 		
 		logger.info("Processing period["+period+"]...");
-		this.getStateSpace(period).entrySet()
-		.parallelStream()
-		.forEach(entry -> {
-			State state = entry.getValue();
+		
+		periodStarted(period);
+		this.forEachState(period, state -> {
 			Action bestAction = state.getNoAction();
 			double bestCost = this.getValueRepository().getExpectedValue(state, bestAction, this.getTransitionProbability());
 			this.getValueRepository().setOptimalExpectedValue(state, bestCost);
 			this.getValueRepository().setOptimalAction(state, bestAction);
-         if(stateMonitoring){
-            monitor.setStates(generatedStates.get(), processedStates.addAndGet(1L), period);
-         }
+         stateProcessed(period);
 		});
+		if(rollingMemory)
+		   releaseMemory(period);
 	}
 	
 	  /**
     * Generates the complete state space for the discrete time, discrete space, stochastic dynamic program.
     */
    protected void generateStates(){
-      CountDownLatch latch = new CountDownLatch(horizonLength);
-      for(int i = horizonLength; i >= 0; i--){
-         Iterator<State> iterator = this.getStateSpace(i).iterator();
-         if(iterator != null){
-            Runnable r = () -> {
-               while(iterator.hasNext()){ 
-                  if(stateMonitoring)
-                     monitor.setStates(generatedStates.addAndGet(1L), processedStates.get(), horizonLength);
-                  iterator.next();
-               }
-               latch.countDown();
-               };
-            new Thread(r).start();
-         }else{
-            logger.info("Skipping state generation for period "+i);
-         }
+      StateGenerator generator = new StateGenerator(horizonLength);
+      try{
+         generator.await(0);
+      }finally{
+         generator.shutdown();
+      }
+      initialiseLastPeriod();
+   }
+   
+   /**
+    * Generates the states of period {@code period}, unless its state space is implicit or cannot be enumerated.
+    * 
+    * @param period the target period.
+    */
+   private void generateStates(int period){
+      if(this.getStateSpace(period).getStateList() != null)
+         return;
+      Iterator<State> iterator = this.getStateSpace(period).iterator();
+      if(iterator == null){
+         logger.info("Skipping state generation for period "+period);
+         return;
       }
-      try {
-         latch.await();
-      } catch (InterruptedException e) {
-         // TODO Auto-generated catch block
-         e.printStackTrace();
+      while(iterator.hasNext()){ 
+         State state = iterator.next();
+         if(stateMonitoring)
+            metrics.stateGenerated(state.getPeriod());
       }
-      
-      this.getStateSpace(horizonLength).entrySet()
-          .parallelStream()
-          .forEach(entry -> {
-             this.getValueRepository().setOptimalExpectedValue(entry.getValue(), 0);
-             if(stateMonitoring)
-                monitor.setStates(generatedStates.get(), processedStates.addAndGet(1L), horizonLength);
+   }
+   
+   private void initialiseLastPeriod(){
+      this.forEachState(horizonLength, state -> {
+             this.getValueRepository().setOptimalExpectedValue(state, 0);
+             stateProcessed(horizonLength);
           });
    }
+   
+   /**
+    * Generates state spaces period by period, from the last period backwards, on a bounded pool of threads; 
+    * the generation of period {@code t} is submitted as soon as the recursion waits for period {@code t+lookAhead}.
+    */
+   private class StateGenerator {
+      private final ExecutorService pool;
+      private final Future<?>[] generations;
+      private final int lookAhead;
+      private int nextPeriod;
+      
+      StateGenerator(int lookAhead){
+         this.lookAhead = lookAhead;
+         this.generations = new Future<?>[horizonLength + 1];
+         this.nextPeriod = horizonLength;
+         int threads = Math.min(Math.min(lookAhead, horizonLength) + 1, Runtime.getRuntime().availableProcessors());
+         this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "jsdp-state-generation");
+            thread.setDaemon(true);
+            return thread;
+         });
+      }
+      
+      /**
+       * Waits until the states of period {@code period} and of all subsequent periods have been generated, 
+       * after submitting the generation of all periods up to {@code period-lookAhead}.
+       */
+      void await(int period){
+         for(; nextPeriod >= 0 && nextPeriod >= period - lookAhead; nextPeriod--){
+            int p = nextPeriod;
+            generations[p] = pool.submit(() -> generateStates(p));
+         }
+         try{
+            for(int i = horizonLength; i >= period; i--)
+               generations[i].get();
+         }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("State generation interrupted", e);
+         }catch(ExecutionException e){
+            if(e.getCause() instanceof RuntimeException)
+               throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause());
+         }
+      }
+      
+      void shutdown(){
+         pool.shutdown();
+      }
+   }
 	
 	/**
 	 * Backward recursion step; in order to run the recursion step for period {@code period} 
@@ -185,20 +463,110 @@ public abstract class BackwardRecursion extends Recursion{
 	 * @param period the target period for the step.
 	 */
 	protected void recurse(int period){
-		this.getStateSpace(period).entrySet()
-			.parallelStream()
-			.forEach(entry -> {
-				State state = entry.getValue();
-				BestActionRepository repository = new BestActionRepository(direction);
-				state.getFeasibleActions().parallelStream().forEach(action -> {
-					double currentCost = this.getValueRepository().getExpectedValue(state, action, this.getTransitionProbability());
-					repository.update(action, currentCost);
-				});
+		this.forEachState(period, state -> {
+				BestActionRepository repository = this.getActionSearchStrategy().search(this, state, 
+				      action -> this.getValueRepository().getExpectedValue(state, action, this.getTransitionProbability()), 
+				      this.executor == null);
 				this.getValueRepository().setOptimalExpectedValue(state, repository.getBestValue());
 				this.getValueRepository().setOptimalAction(state, repository.getBestAction());
 				logger.trace(repository.getBestAction()+"\tCost: "+repository.getBestValue());
-				if(stateMonitoring)
-				   monitor.setStates(generatedStates.get(), processedStates.addAndGet(1L), period);
+				stateProcessed(period);
 			});
 	}
+	
+	/**
+	 * Searches the feasible actions of {@code state} for the best one by means of the action search strategy, 
+	 * without storing the result. This is used to solve states beyond the first period that have not been sampled, 
+	 * when a value function approximator has been set: their final states are valued by means of 
+	 * {@code ValueRepository.getFinalStateExpectedValue}.
+	 * 
+	 * @param state the target state.
+	 * @return the best action of {@code state} and its expected value.
+	 */
+	protected BestActionRepository searchBestAction(State state){
+	   return this.getActionSearchStrategy().search(this, state, 
+	         action -> this.getValueRepository().getExpectedValue(state, action, this.getTransitionProbability()), 
+	         this.executor == null);
+	}
+	
+	/**
+	 * Returns true if {@code state} has not been sampled and should therefore be solved by {@code searchBestAction} 
+	 * rather than by a recursion step; this only applies to states beyond the first period, when a value function 
+	 * approximator has been set. States in the first period, e.g. new initial states, are always solved by a recursion step.
+	 * 
+	 * @param state the target state.
+	 * @return true if {@code state} should be solved by {@code searchBestAction}.
+	 */
+	protected boolean isUnsampled(State state){
+	   return this.getValueRepository().getValueFunctionApproximator() != null && 
+	          state.getPeriod() > 0 && state.getPeriod() < this.horizonLength;
+	}
+	
+	/**
+	 * Applies {@code action} to each state in the state space of period {@code period}, 
+	 * either on the recursion executor or, if no executor has been set, by means of a parallel stream. 
+	 * Implicit state spaces are traversed by index range, see {@code StateSpace.getStateList}.
+	 * 
+	 * @param period the target period.
+	 * @param action the action.
+	 */
+	protected void forEachState(int period, Consumer<State> action){
+	   List<State> stateList = this.getStateSpace(period).getStateList();
+	   if(stateList != null){
+	      this.forEachIndex(0, stateList.size(), i -> action.accept(stateList.get(i)));
+	   }else if(this.executor == null){
+	      this.getStateSpace(period).entrySet().parallelStream().forEach(entry -> action.accept(entry.getValue()));
+	   }else{
+	      ArrayList<State> states = new ArrayList<State>();
+	      this.getStateSpace(period).entrySet().forEach(entry -> states.add(entry.getValue()));
+	      this.executor.forEach(states, action);
+	   }
+	}
+	
+	/**
+	 * Applies {@code action} to each integer in {@code [from, to)}, either on the recursion executor or, 
+	 * if no executor has been set, by means of a parallel stream.
+	 * 
+	 * @param from the first integer, inclusive.
+	 * @param to the last integer, exclusive.
+	 * @param action the action.
+	 */
+	protected void forEachIndex(int from, int to, IntConsumer action){
+	   if(this.executor == null)
+	      IntStream.range(from, to).parallel().forEach(action);
+	   else
+	      this.executor.forEach(from, to, action);
+	}
+	
+	/**
+	 * Releases data that is no longer needed once the recursion step of period {@code period} has been completed, 
+	 * i.e. the expected values of all {@code StateAction} pairs and the optimal expected values of period {@code period+1}.
+	 * 
+	 * @param period the period whose recursion step has been completed.
+	 */
+	protected void releaseMemory(int period){
+	   this.getValueRepository().clearExpectedValues();
+	   this.getValueRepository().removeOptimalExpectedValues(this.getStateSpace(period + 1));
+	}
+	
+	/**
+	 * Updates the metrics, if state monitoring is enabled, when a state has been processed in period {@code period}.
+	 * This method is meant to be invoked by subclasses that override the recursion step.
+	 * 
+	 * @param period the period of the processed state.
+	 */
+	protected void stateProcessed(int period){
+	   if(stateMonitoring)
+	      metrics.stateProcessed(period);
+	}
+	
+	/**
+	 * Updates the metrics, if state monitoring is enabled, when the recursion moves to period {@code period}.
+	 * 
+	 * @param period the period being processed.
+	 */
+	protected void periodStarted(int period){
+	   if(stateMonitoring)
+	      metrics.setCurrentPeriod(period);
+	}
 }
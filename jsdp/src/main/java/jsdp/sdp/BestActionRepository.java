@@ -26,6 +26,9 @@
 
 package jsdp.sdp;
 
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -58,24 +61,69 @@ public class BestActionRepository {
     * @param currentValue the action expected value.
     */
    public synchronized void update(Action currentAction, double currentValue){
+      accumulate(currentAction, currentValue);
+   }
+   
+   /**
+    * Unsynchronized version of {@code update}, to be used when this repository is confined to a single thread, 
+    * e.g. as the accumulator of a {@code Collector}.
+    * 
+    * @param currentAction the action.
+    * @param currentValue the action expected value.
+    */
+   public void accumulate(Action currentAction, double currentValue){
       if(currentAction == null)
          throw new NullPointerException("Current action cannot be null");
+      if(improves(currentValue)){
+         bestValue = currentValue;
+         bestAction = currentAction;
+      }
+   }
+   
+   /**
+    * Merges the content of {@code other}, which must collect actions that follow those collected by this repository, 
+    * into this repository. The result is the same that would have been obtained by updating a single repository 
+    * with all actions in the same order.
+    * 
+    * @param other the repository to be merged.
+    * @return this repository.
+    */
+   public BestActionRepository combine(BestActionRepository other){
+      if(other.bestAction != null && improves(other.bestValue)){
+         bestValue = other.bestValue;
+         bestAction = other.bestAction;
+      }
+      return this;
+   }
+   
+   private boolean improves(double currentValue){
       switch(direction){
       case MIN:
-         if(bestAction == null || Double.isNaN(this.bestValue) || currentValue < bestValue){
-            bestValue = currentValue;
-            bestAction = currentAction;
-         }
-         break;
+         return bestAction == null || Double.isNaN(this.bestValue) || currentValue < bestValue;
       case MAX:
-         if(bestAction == null || Double.isNaN(this.bestValue) || currentValue > bestValue){
-            bestValue = currentValue;
-            bestAction = currentAction;
-         }
-         break;
+         return bestAction == null || Double.isNaN(this.bestValue) || currentValue > bestValue;
+      default:
+         return false;
       }
    }
    
+   /**
+    * Returns a {@code Collector} that reduces a stream of actions to a {@code BestActionRepository} storing the best action, 
+    * according to {@code direction}, and its value, computed by means of {@code value}. The collector does not rely on shared 
+    * mutable state; ties are broken in favour of the action that comes first in the stream encounter order, 
+    * as for a sequence of calls to {@code update}.
+    * 
+    * @param direction the direction of optimisation.
+    * @param value the function computing the value of an action.
+    * @return a {@code Collector} reducing a stream of actions to a {@code BestActionRepository}.
+    */
+   public static Collector<Action, BestActionRepository, BestActionRepository> collector(OptimisationDirection direction, ToDoubleFunction<Action> value){
+      return Collector.of(() -> new BestActionRepository(direction), 
+                          (repository, action) -> repository.accumulate(action, value.applyAsDouble(action)), 
+                          BestActionRepository::combine,
+                          Collector.Characteristics.IDENTITY_FINISH);
+   }
+   
    /**
     * Returns the best action stored.
     * 
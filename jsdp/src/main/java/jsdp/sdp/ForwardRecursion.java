@@ -26,6 +26,16 @@
 
 package jsdp.sdp;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToDoubleFunction;
+
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
@@ -41,39 +51,14 @@ public abstract class ForwardRecursion extends Recursion{
 	static final Logger logger = LogManager.getLogger(ForwardRecursion.class.getName());
 	
 	/**
-	 * States reused by memoization
-	 */
-	private long reusedStates = 0;
-	
-	/**
-	 * States generated
-	 */
-   private long generatedStates = 0;
-	
-   /**
-    * First period action counter
-    */
-   private long actionCounter = 0;
-   
-   /**
-    * First period total actions
-    */
-   private long totalActions = 0;
-   
-   /**
-    * Action frequency array
-    */
-   private long[] actionFrequencies = null;
-   
-   /**
-    * Refresh variable for action frequency array
+    * Monitor
     */
-   private long lastCountDisplay = System.currentTimeMillis();
+   private  MonitoringInterfaceForward monitor;
    
    /**
-    * Monitor
+    * Transitions of pairs state-action
     */
-   private  MonitoringInterfaceForward monitor;
+   private TransitionCache transitionCache = new TransitionCache(0);
    
    public MonitoringInterfaceForward getMonitoringInterfaceForward(){
       return this.monitor;
@@ -89,16 +74,48 @@ public abstract class ForwardRecursion extends Recursion{
 	}
 	
 	/**
-	 * Monitors state generation
+	 * Sets the number of pairs state-action whose transitions are retained across state evaluations, 
+	 * in least recently used order; if {@code size} is zero, transitions are only shared within the 
+	 * evaluation of a state.
+	 * 
+	 * @param size the number of pairs state-action retained.
+	 */
+	public void setTransitionCacheSize(int size){
+	   this.transitionCache = new TransitionCache(size);
+	}
+	
+	/**
+	 * Returns the transition cache used by this recursion.
+	 * 
+	 * @return the transition cache used by this recursion.
+	 */
+	public TransitionCache getTransitionCache(){
+	   return this.transitionCache;
+	}
+	
+	/**
+	 * Returns the transitions towards final states that occur with positive probability when {@code action} 
+	 * is selected in {@code state}.
+	 * 
+	 * @param state the initial state.
+	 * @param action the action chosen.
+	 * @return the transitions towards final states that occur with positive probability.
+	 */
+	protected ArrayList<Transition> getTransitions(State state, Action action){
+	   return this.transitionCache.getTransitions(this.getTransitionProbability(), state, action);
+	}
+	
+	/**
+	 * Monitors state generation and reuse; metrics counters are contention free, 
+	 * hence concurrent state visits are not serialised.
 	 * 
 	 * @param state the initial state.
 	 */
-	private synchronized void stateMonitoring(State state){
+	private void stateMonitoring(State state){
 	   if(this.valueRepository.optimalValueHashTable.containsKey(state))
-         reusedStates++;
-      else
-         generatedStates++;
-      monitor.setStates(generatedStates, reusedStates, actionCounter, totalActions, actionFrequencies);
+	      metrics.stateReused(state.getPeriod());
+	   else
+	      metrics.stateGenerated(state.getPeriod());
 	}
 	
 	public double runForwardRecursionMonitoring(State state){
@@ -111,26 +128,14 @@ public abstract class ForwardRecursion extends Recursion{
 	}
 	
 	/**
-	 * Count an action
-	 */
-	private void countAction() {
-	   actionCounter++;
-	}
-	
-	/**
-	 * Count frequencies of actions (1000 millisec refresh)
+	 * Monitors the evaluation of {@code action} over {@code transitions} final states.
 	 * 
-	 * @param a the action
+	 * @param action the action evaluated.
+	 * @param transitions the number of transitions evaluated.
 	 */
-	private void countActionFrequency(Action a) {
-	   if(actionFrequencies == null)
-	      actionFrequencies = new long[this.horizonLength];
-	   actionFrequencies[a.getState().getPeriod()]++;
-	   long currentTime = System.currentTimeMillis();
-	   if(currentTime - lastCountDisplay > 1000) {
-	      lastCountDisplay = currentTime;
-	      actionFrequencies = new long[this.horizonLength];
-	   }
+	private void actionMonitoring(Action action, int transitions){
+	   metrics.actionEvaluated(action.getState().getPeriod());
+	   metrics.transitionsEvaluated(transitions);
 	}
 	
 	/**
@@ -145,43 +150,232 @@ public abstract class ForwardRecursion extends Recursion{
 	      stateMonitoring(state);
 	   
 		return this.valueRepository.optimalValueHashTable.computeIfAbsent(state, y -> {
-		   BestActionRepository repository = new BestActionRepository(direction);
-		   
-		   if(state.getPeriod() == 0) {
-		      totalActions = y.getFeasibleActions()
-                            .parallelStream()
-                            .count();
+		   if(stateMonitoring && state.getPeriod() == 0) {
+		      metrics.setFirstPeriodActions(this.getFeasibleActionStream(y).count());
 		   }
 		   
-		   y.getFeasibleActions().stream().forEach(action -> {
-		         double normalisationFactor = this.getTransitionProbability()
-		                                          .generateFinalStates(y, action)
-		                                          .parallelStream()
-		                                          .filter(c -> this.getTransitionProbability().getTransitionProbability(y, action, c) > 0)
-		                                          .mapToDouble(finalState -> transitionProbability.getTransitionProbability(y, action, finalState))
-		                                          .sum();
-				   double currentCost = this.getTransitionProbability()
-				                            .generateFinalStates(y, action)
-				                            .stream()
-				                            .filter(c -> this.getTransitionProbability().getTransitionProbability(y, action, c) > 0)
-				                            .mapToDouble(c -> ( this.getValueRepository().getImmediateValue(y, action, c)+
-						 				                              (y.getPeriod() < horizonLength - 1 ? runForwardRecursion(c) : 0) )*
-				                                                this.getValueRepository().getDiscountFactor()*
-						 						 	                     this.getTransitionProbability().getTransitionProbability(y, action, c))
-				                            .sum();
+		   BestActionRepository repository = this.getActionSearchStrategy().search(this, y, action -> {
+		         ArrayList<Transition> transitions = this.getTransitions(y, action);
+		         double normalisationFactor = transitions.stream()
+		                                                 .mapToDouble(t -> t.getProbability())
+		                                                 .sum();
+				   double currentCost = transitions.stream()
+				                                   .mapToDouble(t -> ( this.getValueRepository().getImmediateValue(y, action, t.getFinalState())+
+						 				                                     (y.getPeriod() < horizonLength - 1 ? runForwardRecursion(t.getFinalState()) : 0) )*
+				                                                       this.getValueRepository().getDiscountFactor()*
+						 						 	                            t.getProbability())
+				                                   .sum();
 					if(normalisationFactor != 0)
                   currentCost /= normalisationFactor;
 					
-					repository.update(action, currentCost);
+					if(stateMonitoring)
+					   this.actionMonitoring(action, transitions.size());
 					
-					if(state.period == 0) 
-					   this.countAction();
-					this.countActionFrequency(action);
-				});
+					return currentCost;
+				}, false);
 				this.getValueRepository().setOptimalExpectedValue(y, repository.getBestValue());
 				this.getValueRepository().setOptimalAction(y, repository.getBestAction());
 				logger.trace(repository.getBestAction()+"\tCost: "+repository.getBestValue());
 				return repository.getBestValue();
 		});
 	}
+	
+	/**
+	 * Runs a parallel version of the forward recursion algorithm for the given stochastic dynamic program and
+	 * computes the expected value function starting from state {@code state}. 
+	 * 
+	 * Each state is evaluated by a task; the first request for a state creates and forks its task, while 
+	 * subsequent requests, possibly concurrent, join the same task. Final states reached under different actions 
+	 * are therefore explored in parallel, on the pool of the recursion executor or, if no executor has been set, 
+	 * on the common pool. Since the value repository is never updated from within one of its own mapping functions, 
+	 * this method can be used with any {@code HashType}, including {@code CONCURRENT_HASHMAP}. Since the final states 
+	 * reached under all feasible actions are explored before a state is evaluated, this method evaluates every 
+	 * feasible action, as enumerated by {@code getFeasibleActionIterator}, and requires an {@code ExhaustiveActionSearch}.
+	 * 
+	 * @param state the initial state.
+	 * @return the expected value of running the system from state {@code state}.
+	 */
+	public double runParallelForwardRecursion(State state){
+	   this.checkExhaustiveActionSearch();
+	   if(stateMonitoring) 
+	      stateMonitoring(state);
+	   ConcurrentHashMap<State, ForwardTask> tasks = new ConcurrentHashMap<State, ForwardTask>();
+	   ForwardTask task = new ForwardTask(state, tasks);
+	   tasks.put(state, task);
+	   ForkJoinPool pool = this.executor != null ? this.executor.getPool() : ForkJoinPool.commonPool();
+	   return pool.invoke(task).doubleValue();
+	}
+	
+	/**
+	 * Evaluates a state in the parallel forward recursion.
+	 */
+	private class ForwardTask extends RecursiveTask<Double> {
+	   private static final long serialVersionUID = 1L;
+	   
+	   private final State state;
+	   private final ConcurrentHashMap<State, ForwardTask> tasks;
+	   
+	   ForwardTask(State state, ConcurrentHashMap<State, ForwardTask> tasks){
+	      this.state = state;
+	      this.tasks = tasks;
+	   }
+	   
+	   /**
+	    * Returns the task evaluating {@code finalState}, creating and forking it if this is the first request.
+	    */
+	   private ForwardTask request(State finalState){
+	      if(stateMonitoring) 
+	         stateMonitoring(finalState);
+	      ForwardTask task = new ForwardTask(finalState, this.tasks);
+	      ForwardTask existing = this.tasks.putIfAbsent(finalState, task);
+	      if(existing != null)
+	         return existing;
+	      task.fork();
+	      return task;
+	   }
+	   
+	   @Override
+	   protected Double compute(){
+	      State y = this.state;
+	      Double value = getValueRepository().getOptimalValueHashTable().get(y);
+	      if(value != null)
+	         return value;
+	      
+	      Expansion expansion = new Expansion(y);
+	      HashMap<State, ForwardTask> children = new HashMap<State, ForwardTask>();
+	      for(State c : expansion.getSuccessors()){
+	         children.put(c, request(c));
+	      }
+	      return expansion.evaluate(c -> children.get(c).join().doubleValue());
+	   }
+	}
+	
+	/**
+	 * Runs an iterative version of the forward recursion algorithm for the given stochastic dynamic program and
+	 * computes the expected value function starting from state {@code state}.
+	 * 
+	 * States are visited in post-order by means of an explicit work stack of states: a state is expanded when it 
+	 * first reaches the top of the stack, its unsolved final states are pushed on the stack, and the state is 
+	 * evaluated once all of them have been solved. A final state shared by several parents may be pushed more than 
+	 * once, but it is expanded only once: expansions in progress are kept in a map until the state is solved. 
+	 * Since final states are explored before a state is evaluated, this method evaluates every feasible action, 
+	 * as enumerated by {@code getFeasibleActionIterator}, and requires an {@code ExhaustiveActionSearch}; 
+	 * memoisation and optimal actions are then the same as those of {@code runForwardRecursion}, but the depth 
+	 * of the thread stack no longer grows with the planning horizon.
+	 * 
+	 * @param state the initial state.
+	 * @return the expected value of running the system from state {@code state}.
+	 */
+	public double runIterativeForwardRecursion(State state){
+	   this.checkExhaustiveActionSearch();
+	   ArrayDeque<State> stack = new ArrayDeque<State>();
+	   HashMap<State, Expansion> expansions = new HashMap<State, Expansion>();
+	   stack.push(state);
+	   while(!stack.isEmpty()){
+	      State y = stack.peek();
+	      if(this.valueRepository.optimalValueHashTable.containsKey(y)){
+	         stack.pop();
+	         continue;
+	      }
+	      Expansion expansion = expansions.get(y);
+	      if(expansion == null){
+	         if(stateMonitoring) 
+	            stateMonitoring(y);
+	         expansion = new Expansion(y);
+	         expansions.put(y, expansion);
+	         for(State c : expansion.getSuccessors()){
+	            if(!this.valueRepository.optimalValueHashTable.containsKey(c))
+	               stack.push(c);
+	         }
+	      }else{
+	         stack.pop();
+	         expansions.remove(y);
+	         expansion.evaluate(c -> this.valueRepository.optimalValueHashTable.get(c).doubleValue());
+	      }
+	   }
+	   return this.valueRepository.optimalValueHashTable.get(state).doubleValue();
+	}
+	
+	/**
+	 * Rejects action search strategies other than {@code ExhaustiveActionSearch}, which cannot be applied 
+	 * by the engines that explore final states before evaluating a state.
+	 */
+	private void checkExhaustiveActionSearch(){
+	   if(!(this.getActionSearchStrategy() instanceof ExhaustiveActionSearch))
+	      throw new NullPointerException("This forward recursion only supports ExhaustiveActionSearch");
+	}
+	
+	/**
+	 * Feasible actions of a state together with the final states that can be reached, with 
+	 * positive probability, under each of them.
+	 */
+	private class Expansion {
+	   private final State state;
+	   private final ArrayList<Action> actions;
+	   private final ArrayList<ArrayList<State>> finalStates;
+	   private final ArrayList<double[]> probabilities;
+	   
+	   Expansion(State state){
+	      this.state = state;
+	      this.actions = new ArrayList<Action>();
+	      getFeasibleActionIterator(state).forEachRemaining(this.actions::add);
+	      this.finalStates = new ArrayList<ArrayList<State>>(this.actions.size());
+	      this.probabilities = new ArrayList<double[]>(this.actions.size());
+	      for(Action action : this.actions){
+	         ArrayList<Transition> transitions = getTransitions(state, action);
+	         ArrayList<State> states = new ArrayList<State>(transitions.size());
+	         double[] p = new double[transitions.size()];
+	         for(int i = 0; i < p.length; i++){
+	            states.add(transitions.get(i).getFinalState());
+	            p[i] = transitions.get(i).getProbability();
+	         }
+	         this.finalStates.add(states);
+	         this.probabilities.add(p);
+	      }
+	   }
+	   
+	   /**
+	    * Returns the distinct final states whose value is required to evaluate this state; 
+	    * no final state is required in the last period.
+	    */
+	   LinkedHashSet<State> getSuccessors(){
+	      LinkedHashSet<State> successors = new LinkedHashSet<State>();
+	      if(this.state.getPeriod() < horizonLength - 1)
+	         this.finalStates.forEach(states -> successors.addAll(states));
+	      return successors;
+	   }
+	   
+	   /**
+	    * Evaluates this state, stores its optimal expected value and action, and returns the former.
+	    * 
+	    * @param value the optimal expected value of a final state.
+	    */
+	   double evaluate(ToDoubleFunction<State> value){
+	      State y = this.state;
+	      BestActionRepository repository = new BestActionRepository(direction);
+	      for(int a = 0; a < this.actions.size(); a++){
+	         Action action = this.actions.get(a);
+	         ArrayList<State> states = this.finalStates.get(a);
+	         double[] p = this.probabilities.get(a);
+	         double normalisationFactor = Arrays.stream(p).sum();
+	         double[] terms = new double[states.size()];
+	         for(int i = 0; i < terms.length; i++){
+	            State c = states.get(i);
+	            terms[i] = ( getValueRepository().getImmediateValue(y, action, c)+
+	                         (y.getPeriod() < horizonLength - 1 ? value.applyAsDouble(c) : 0) )*
+	                       getValueRepository().getDiscountFactor()*p[i];
+	         }
+	         double currentCost = Arrays.stream(terms).sum();
+	         if(normalisationFactor != 0)
+	            currentCost /= normalisationFactor;
+	         repository.accumulate(action, currentCost);
+	         if(stateMonitoring)
+	            actionMonitoring(action, states.size());
+	      }
+	      getValueRepository().setOptimalExpectedValue(y, repository.getBestValue());
+	      getValueRepository().setOptimalAction(y, repository.getBestAction());
+	      logger.trace(repository.getBestAction()+"\tCost: "+repository.getBestValue());
+	      return repository.getBestValue();
+	   }
+	}
 }
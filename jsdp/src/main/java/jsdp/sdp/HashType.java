@@ -9,6 +9,14 @@ package jsdp.sdp;
  * https://bugs.openjdk.java.net/browse/JDK-8074374
  * http://stackoverflow.com/q/28840047/521799
  * 
+ * {@code DENSE_ARRAY} stores optimal values and actions in primitive arrays indexed by period and state; 
+ * it is only available for univariate state spaces ({@code jsdp.sdp.impl.univariate}) in the context of 
+ * our backward recursion code. Since states themselves are still stored in hash maps, {@code StateSpace} 
+ * falls back to {@code THASHMAP} when this option is selected.
+ * 
+ * {@code AUTO} selects one of the other options from the estimated state space size and the memory 
+ * available when the state space and value repository are created, see {@code HashTypeSelector}.
+ * 
  * @author Roberto Rossi
  *
  */
@@ -21,5 +29,19 @@ public enum HashType {
    MAPDB_HEAP_SHARDED,
    MAPDB_MEMORY,
    MAPDB_MEMORY_SHARDED,
-   MAPDB_DISK
+   MAPDB_DISK,
+   DENSE_ARRAY,
+   AUTO;
+   
+   /**
+    * Returns {@code hash} or, if {@code hash} is {@code AUTO}, the option selected for a state space 
+    * of {@code estimatedStates} states.
+    * 
+    * @param hash the type of hash.
+    * @param estimatedStates the estimated number of states, or 0 if unknown.
+    * @return the type of hash to be used.
+    */
+   public static HashType resolve(HashType hash, long estimatedStates){
+      return hash == AUTO ? HashTypeSelector.select(estimatedStates) : hash;
+   }
 }
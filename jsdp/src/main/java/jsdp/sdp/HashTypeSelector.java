@@ -0,0 +1,92 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Selects a {@code HashType} for {@code HashType.AUTO}. 
+ * 
+ * The footprint of a state space is estimated from the number of states and from the bytes per state 
+ * measured by {@code jsdp.benchmark.HashTypeSuite} on the stochastic lot sizing reference model, 
+ * which include the share of memoised state-action pairs of each state. {@code THASHMAP} is selected 
+ * if the estimated footprint fits in the heap still available; otherwise states are stored on disk. 
+ * The other MapDB stores are never selected: on the reference model they are slower than 
+ * {@code THASHMAP} and, being kept on heap, they do not retain less memory per state (about 12KB for 
+ * {@code MAPDB_HEAP_SHARDED} and 33KB for {@code MAPDB_MEMORY}, against 3.8KB for {@code THASHMAP}). 
+ * {@code DENSE_ARRAY} is never selected either, since it requires a dedicated value repository.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class HashTypeSelector {
+   
+   static final Logger logger = LogManager.getLogger(HashTypeSelector.class.getName());
+   
+   /**
+    * Bytes retained per state, including memoised state-action pairs, by {@code THASHMAP}
+    */
+   public static final double THASHMAP_BYTES_PER_STATE = 3800;
+   
+   /**
+    * Fraction of the available heap the state space is allowed to fill
+    */
+   public static final double HEAP_FRACTION = 0.5;
+   
+   /**
+    * Selects a {@code HashType} for a state space of {@code estimatedStates} states given the heap 
+    * currently available.
+    * 
+    * @param estimatedStates the estimated number of states, or 0 if unknown.
+    * @return the selected {@code HashType}.
+    */
+   public static HashType select(long estimatedStates){
+      Runtime runtime = Runtime.getRuntime();
+      long availableHeap = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+      return select(estimatedStates, availableHeap);
+   }
+   
+   /**
+    * Selects a {@code HashType} for a state space of {@code estimatedStates} states given 
+    * {@code availableHeap} bytes of available heap.
+    * 
+    * @param estimatedStates the estimated number of states, or 0 if unknown.
+    * @param availableHeap the available heap (in bytes).
+    * @return the selected {@code HashType}.
+    */
+   public static HashType select(long estimatedStates, long availableHeap){
+      double budget = availableHeap*HEAP_FRACTION;
+      HashType hash;
+      if(estimatedStates*THASHMAP_BYTES_PER_STATE <= budget)
+         hash = HashType.THASHMAP;
+      else
+         hash = HashType.MAPDB_DISK;
+      logger.debug("HashType.AUTO selected "+hash+" for "+estimatedStates+" estimated states");
+      return hash;
+   }
+}
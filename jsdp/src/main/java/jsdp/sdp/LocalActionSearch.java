@@ -0,0 +1,86 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import jsdp.sdp.UnimodalActionSearch.EvaluatedActions;
+
+/**
+ * An {@code ActionSearchStrategy} that performs a bounded local search along the order in which feasible 
+ * actions are generated. The search starts from a warm-start action, e.g. a heuristic or the optimal action of 
+ * a similar problem, and moves to the best neighbouring action as long as this improves the current action, 
+ * up to {@code radius} positions away from the warm-start action. If the warm-start action is not feasible, 
+ * the search starts from the middle feasible action. As in {@code UnimodalActionSearch}, only the evaluated actions 
+ * are created if feasible actions are enumerated by a {@code RandomAccessActionIterator}.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class LocalActionSearch implements ActionSearchStrategy {
+   
+   private final Function<State, Action> warmStart;
+   private final int radius;
+   
+   /**
+    * Creates a local search strategy.
+    * 
+    * @param warmStart a function returning the warm-start action of a state.
+    * @param radius the maximum number of positions the search may move away from the warm-start action.
+    */
+   public LocalActionSearch(Function<State, Action> warmStart, int radius){
+      if(radius < 0)
+         throw new NullPointerException("Radius must be nonnegative");
+      this.warmStart = warmStart;
+      this.radius = radius;
+   }
+   
+   @Override
+   public BestActionRepository search(Recursion recursion, State state, ToDoubleFunction<Action> value, boolean parallel){
+      EvaluatedActions evaluated = EvaluatedActions.of(recursion, state, value);
+      if(evaluated.size == 0)
+         return evaluated.getBestActionRepository();
+      int start = evaluated.indexOf(this.warmStart.apply(state));
+      if(start < 0)
+         start = evaluated.size/2;
+      int lb = Math.max(0, start - this.radius);
+      int ub = Math.min(evaluated.size - 1, start + this.radius);
+      int current = start;
+      while(true){
+         int next = current;
+         if(current > lb && !evaluated.precedes(next, current - 1))
+            next = current - 1;
+         if(current < ub && !evaluated.precedes(next, current + 1))
+            next = current + 1;
+         if(next == current)
+            break;
+         current = next;
+      }
+      return evaluated.getBestActionRepository();
+   }
+}
@@ -0,0 +1,74 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An {@code ActionIterator} whose actions can also be accessed by their position in the iteration order, 
+ * so that search strategies may only create the actions they evaluate, see {@code UnimodalActionSearch}.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public abstract class RandomAccessActionIterator extends ActionIterator {
+   
+   protected int cursor = 0;
+   
+   /**
+    * Returns the number of actions enumerated by this iterator.
+    * 
+    * @return the number of actions.
+    */
+   public abstract int size();
+   
+   /**
+    * Creates the action at position {@code index} of the iteration order.
+    * 
+    * @param index the position of the action, between 0 and {@code size()-1}.
+    * @return the action at position {@code index}.
+    */
+   public abstract Action get(int index);
+   
+   /**
+    * Returns the position of {@code action} in the iteration order, or -1 if {@code action} is not enumerated by this iterator.
+    * 
+    * @param action the target action.
+    * @return the position of {@code action}, or -1.
+    */
+   public abstract int indexOf(Action action);
+   
+   public boolean hasNext(){
+      return this.cursor < this.size();
+   }
+   
+   public Action next(){
+      if(!hasNext())
+         throw new NoSuchElementException();
+      return this.get(this.cursor++);
+   }
+}
@@ -26,9 +26,18 @@
 
 package jsdp.sdp;
 
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import jsdp.utilities.monitoring.RecursionMetrics;
+
 /**
  * An abstraction for a recursive solution method for the stochastic dynamic program.
  * 
@@ -52,6 +61,14 @@ public abstract class Recursion {
 	
 	protected boolean stateMonitoring = false;
 	
+	protected RecursionMetrics metrics;
+	
+	protected RecursionExecutor executor;
+	
+	protected ActionSearchStrategy actionSearchStrategy = new ExhaustiveActionSearch();
+	
+	protected Function<State, ActionIterator> buildActionIterator;
+	
 	/**
 	 * Creates an instance of {@code Recursion} with the given optimisatio direction.
 	 * 
@@ -71,6 +88,15 @@ public abstract class Recursion {
 		return this.getValueRepository().getOptimalExpectedValue(state);
 	}
 	
+	/**
+	 * Returns the length of the planning horizon.
+	 * 
+	 * @return the length of the planning horizon.
+	 */
+	public int getHorizonLength(){
+		return this.horizonLength;
+	}
+	
 	/**
 	 * Returns the {@code StateSpace} for period {@code period}.
 	 * 
@@ -108,6 +134,105 @@ public abstract class Recursion {
 		return this.valueRepository;
 	}
 	
+	/**
+	 * Sets the executor on which the recursion steps are run. If {@code executor} is null, which is the default, 
+	 * recursion steps rely on nested parallel streams on the common pool; otherwise states are processed in chunks 
+	 * on the executor, and feasible actions and final states of each state are processed sequentially.
+	 * Several recursions may share the same executor.
+	 * 
+	 * @param executor the recursion executor.
+	 */
+	public void setExecutor(RecursionExecutor executor){
+	   this.executor = executor;
+	   this.getValueRepository().setParallel(executor == null);
+	   this.getTransitionProbability().setParallel(executor == null);
+	}
+	
+	/**
+	 * Returns the executor on which the recursion steps are run, or null if the common pool is used.
+	 * 
+	 * @return the recursion executor.
+	 */
+	public RecursionExecutor getExecutor(){
+	   return this.executor;
+	}
+	
+	/**
+	 * Sets the strategy used to search the feasible actions of each state for the best one; by default, 
+	 * an {@code ExhaustiveActionSearch}. Strategies other than the exhaustive one rely on structural properties 
+	 * of the problem, e.g. unimodality of action values, that must be asserted by the user. Recursion steps that 
+	 * do not evaluate actions one by one, such as those based on transition kernels, ignore this strategy.
+	 * 
+	 * @param actionSearchStrategy the action search strategy.
+	 */
+	public void setActionSearchStrategy(ActionSearchStrategy actionSearchStrategy){
+	   this.actionSearchStrategy = actionSearchStrategy;
+	}
+	
+	/**
+	 * Returns the strategy used to search the feasible actions of each state for the best one.
+	 * 
+	 * @return the action search strategy.
+	 */
+	public ActionSearchStrategy getActionSearchStrategy(){
+	   return this.actionSearchStrategy;
+	}
+	
+	/**
+	 * Returns the direction of optimisation.
+	 * 
+	 * @return the direction of optimisation.
+	 */
+	public OptimisationDirection getDirection(){
+	   return this.direction;
+	}
+	
+	/**
+	 * Sets a builder of lazy action iterators for this recursion, which takes precedence over the action list builder 
+	 * when feasible actions are enumerated, see {@code getFeasibleActionIterator}; actions are then created one at a time 
+	 * while they are evaluated, rather than collected in a list. The builder only applies to this recursion.
+	 * 
+	 * @param buildActionIterator the builder of lazy action iterators, or null to enumerate action lists.
+	 */
+	public void setBuildActionIterator(Function<State, ActionIterator> buildActionIterator){
+	   this.buildActionIterator = buildActionIterator;
+	}
+	
+	/**
+	 * Returns the builder of lazy action iterators, or null if feasible actions are enumerated from action lists.
+	 * 
+	 * @return the builder of lazy action iterators.
+	 */
+	public Function<State, ActionIterator> getBuildActionIterator(){
+	   return this.buildActionIterator;
+	}
+	
+	/**
+	 * Returns an {@code Iterator} over the feasible actions of {@code state}. If a builder of lazy action iterators 
+	 * has been set, actions are created as the iterator advances; otherwise the iterator traverses 
+	 * {@code state.getFeasibleActions()}.
+	 * 
+	 * @param state the target state.
+	 * @return an {@code Iterator} over the feasible actions of {@code state}.
+	 */
+	public Iterator<Action> getFeasibleActionIterator(State state){
+	   return this.buildActionIterator == null ? state.getFeasibleActions().iterator() : this.buildActionIterator.apply(state);
+	}
+	
+	/**
+	 * Returns a sequential {@code Stream} of the feasible actions of {@code state}, which is backed 
+	 * by {@code getFeasibleActionIterator} if a builder of lazy action iterators has been set.
+	 * 
+	 * @param state the target state.
+	 * @return a {@code Stream} of the feasible actions of {@code state}.
+	 */
+	public Stream<Action> getFeasibleActionStream(State state){
+	   if(this.buildActionIterator == null)
+	      return state.getFeasibleActions().stream();
+	   return StreamSupport.stream(
+	         Spliterators.spliteratorUnknownSize(this.getFeasibleActionIterator(state), Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+	
 	/**
 	 * If {@code stateMonitoring} is {@code true} state generation and reuse
 	 * are monitored during the recursion. 
@@ -115,6 +240,20 @@ public abstract class Recursion {
 	 * @param stateMonitoring status of state monitoring
 	 */
 	public void setStateMonitoring(boolean stateMonitoring){
+	   if(stateMonitoring && this.metrics == null)
+	      this.metrics = new RecursionMetrics(this.horizonLength);
+	   if(this.valueRepository != null)
+	      this.valueRepository.setMetrics(stateMonitoring ? this.metrics : null);
 	   this.stateMonitoring = stateMonitoring;
 	}
+	
+	/**
+	 * Returns the metrics collected while state monitoring is enabled, or null if state monitoring 
+	 * has never been enabled.
+	 * 
+	 * @return the recursion metrics.
+	 */
+	public RecursionMetrics getMetrics(){
+	   return this.metrics;
+	}
 }
@@ -0,0 +1,161 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Executes the recursion steps of a stochastic dynamic program on a dedicated {@code ForkJoinPool}. 
+ * Work is split into chunks of consecutive items, each of which is processed sequentially by a single worker; 
+ * this provides a single level of parallelism, isolated from the common pool and from other solves 
+ * that do not share the same executor.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class RecursionExecutor {
+   
+   /**
+    * Number of chunks per worker when the chunk size is determined automatically.
+    */
+   private static final int chunksPerWorker = 8;
+   
+   private final ForkJoinPool pool;
+   private final int chunkSize;
+   
+   /**
+    * Creates an executor backed by a dedicated {@code ForkJoinPool} with a parallelism 
+    * equal to the number of available processors.
+    */
+   public RecursionExecutor(){
+      this(Runtime.getRuntime().availableProcessors());
+   }
+   
+   /**
+    * Creates an executor backed by a dedicated {@code ForkJoinPool} with parallelism {@code parallelism}.
+    * 
+    * @param parallelism the parallelism level.
+    */
+   public RecursionExecutor(int parallelism){
+      this(new ForkJoinPool(parallelism), 0);
+   }
+   
+   /**
+    * Creates an executor backed by {@code pool}, which may be shared with other executors.
+    * 
+    * @param pool the {@code ForkJoinPool}.
+    * @param chunkSize the number of items processed sequentially by a task, or 0 to determine it 
+    * automatically from the number of items and the pool parallelism.
+    */
+   public RecursionExecutor(ForkJoinPool pool, int chunkSize){
+      if(chunkSize < 0)
+         throw new NullPointerException("Chunk size cannot be negative");
+      this.pool = pool;
+      this.chunkSize = chunkSize;
+   }
+   
+   /**
+    * Returns the {@code ForkJoinPool} backing this executor.
+    * 
+    * @return the {@code ForkJoinPool} backing this executor.
+    */
+   public ForkJoinPool getPool(){
+      return this.pool;
+   }
+   
+   /**
+    * Returns the parallelism level of this executor.
+    * 
+    * @return the parallelism level of this executor.
+    */
+   public int getParallelism(){
+      return this.pool.getParallelism();
+   }
+   
+   /**
+    * Applies {@code action} to each integer in {@code [from, to)} and waits for completion.
+    * 
+    * @param from the first integer, inclusive.
+    * @param to the last integer, exclusive.
+    * @param action the action.
+    */
+   public void forEach(int from, int to, IntConsumer action){
+      if(from >= to)
+         return;
+      int chunk = this.chunkSize > 0 ? this.chunkSize : Math.max(1, (to - from)/(this.pool.getParallelism()*chunksPerWorker));
+      this.pool.invoke(new RangeAction(from, to, chunk, action));
+   }
+   
+   /**
+    * Applies {@code action} to each element of {@code items} and waits for completion.
+    * 
+    * @param items the items.
+    * @param action the action.
+    * @param <T> the type of the items.
+    */
+   public <T> void forEach(List<T> items, Consumer<? super T> action){
+      forEach(0, items.size(), i -> action.accept(items.get(i)));
+   }
+   
+   /**
+    * Initiates an orderly shutdown of the {@code ForkJoinPool} backing this executor.
+    */
+   public void shutdown(){
+      this.pool.shutdown();
+   }
+   
+   private static class RangeAction extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+      
+      private final int from;
+      private final int to;
+      private final int chunk;
+      private final IntConsumer action;
+      
+      RangeAction(int from, int to, int chunk, IntConsumer action){
+         this.from = from;
+         this.to = to;
+         this.chunk = chunk;
+         this.action = action;
+      }
+      
+      @Override
+      protected void compute(){
+         if(to - from <= chunk){
+            for(int i = from; i < to; i++)
+               action.accept(i);
+         }else{
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, middle, chunk, action), new RangeAction(middle, to, chunk, action));
+         }
+      }
+   }
+}
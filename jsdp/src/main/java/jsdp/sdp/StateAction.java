@@ -28,6 +28,8 @@ package jsdp.sdp;
 
 import java.io.Serializable;
 
+import jsdp.utilities.hash.HashMixer;
+
 /**
  * An association abstraction for a pair state-action.
  * 
@@ -40,6 +42,7 @@ public class StateAction implements Serializable{
    
    State initialState;
    Action action;
+   private transient int hash;
    
    /**
     * Creates an instance of {@code StateAction} from state {@code initialState} and action {@code action}. 
@@ -52,13 +55,27 @@ public class StateAction implements Serializable{
       this.action = action; 
    }
    
+   @Override
+   public boolean equals(Object stateAction){
+      if(this == stateAction)
+         return true;
+      if(stateAction instanceof StateAction)
+         return this.equals((StateAction) stateAction);
+      else
+         return false;
+   }
+   
    public boolean equals(StateAction stateAction){
       return this.initialState.equals(stateAction.initialState) && this.action.equals(stateAction.action);
    }
    
+   @Override
    public int hashCode(){
-      String hash = "";
-      hash = hash + initialState.hashCode() + action.hashCode();
-      return hash.hashCode();
+      int hash = this.hash;
+      if(hash == 0){
+         hash = HashMixer.mix(initialState.hashCode(), action.hashCode());
+         this.hash = hash;
+      }
+      return hash;
    }
-}
\ No newline at end of file
+}
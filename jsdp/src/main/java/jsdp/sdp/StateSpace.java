@@ -26,9 +26,13 @@
 
 package jsdp.sdp;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -70,7 +74,7 @@ public abstract class StateSpace<SD> implements Iterable<State>{
 	 */
 	public StateSpace(int period, HashType hash){
 		this.period = period;
-		switch(hash){
+		switch(HashType.resolve(hash, 0)){
 		case HASHTABLE:
 		   this.states = new Hashtable<SD,State>();
 		   break;
@@ -78,6 +82,7 @@ public abstract class StateSpace<SD> implements Iterable<State>{
 		   this.states = Collections.synchronizedMap(new ConcurrentHashMap<SD,State>());
 		   break;
 		case THASHMAP:
+		case DENSE_ARRAY:
 		   this.states = Collections.synchronizedMap(new THashMap<SD,State>());
 		   break;
 		case MAPDB_HEAP:
@@ -111,7 +116,7 @@ public abstract class StateSpace<SD> implements Iterable<State>{
     */
    public StateSpace(int period, HashType hash, int stateSpaceSizeLowerBound, float loadFactor){
       this.period = period;
-      switch(hash){
+      switch(HashType.resolve(hash, stateSpaceSizeLowerBound)){
          case HASHTABLE:
             states = new Hashtable<SD,State>(stateSpaceSizeLowerBound,loadFactor);
             break;
@@ -119,6 +124,7 @@ public abstract class StateSpace<SD> implements Iterable<State>{
             states = Collections.synchronizedMap(new ConcurrentHashMap<SD,State>(stateSpaceSizeLowerBound,loadFactor));
             break;
          case THASHMAP:
+         case DENSE_ARRAY:
             states = Collections.synchronizedMap(new THashMap<SD,State>(stateSpaceSizeLowerBound,loadFactor));
             break;
          case MAPDB_HEAP:
@@ -158,12 +164,60 @@ public abstract class StateSpace<SD> implements Iterable<State>{
 		return period;
 	}
 	
+	/**
+	 * Returns a random access view of the states in this container if the container is implicit, i.e. if states 
+	 * are not stored but addressed by a linear index and created on demand; returns null otherwise. 
+	 * Implicit containers are traversed by index ranges rather than via {@code entrySet}.
+	 * 
+	 * @return a random access view of the states in this container, or null if states are stored.
+	 */
+	public List<State> getStateList(){
+	   return null;
+	}
+	
+	/**
+	 * Returns the descriptor of {@code state}; this is only used to build the entry set of implicit containers, 
+	 * which is a view of {@code getStateList}, and must therefore be overridden by containers whose 
+	 * {@code getStateList} does not return null.
+	 * 
+	 * @param state the target state.
+	 * @return the descriptor of {@code state}.
+	 */
+	protected SD getStateDescriptor(State state){
+	   throw new NullPointerException("getStateDescriptor must be overridden by implicit containers");
+	}
+	
 	/**
 	 * Returns the key entry set associated with this container.
 	 * 
 	 * @return the set of state descriptors that are keys in the states {@code Hashtable}.
 	 */
 	public Set<Map.Entry<SD,State>> entrySet(){
-		return states.entrySet();
+	   List<State> stateList = this.getStateList();
+	   if(stateList == null)
+	      return states.entrySet();
+	   return new AbstractSet<Map.Entry<SD,State>>(){
+	      @Override
+	      public Iterator<Map.Entry<SD,State>> iterator(){
+	         Iterator<State> iterator = stateList.iterator();
+	         return new Iterator<Map.Entry<SD,State>>(){
+	            @Override
+	            public boolean hasNext(){
+	               return iterator.hasNext();
+	            }
+	            
+	            @Override
+	            public Map.Entry<SD,State> next(){
+	               State state = iterator.next();
+	               return new AbstractMap.SimpleImmutableEntry<SD,State>(getStateDescriptor(state), state);
+	            }
+	         };
+	      }
+	      
+	      @Override
+	      public int size(){
+	         return stateList.size();
+	      }
+	   };
 	}
 }
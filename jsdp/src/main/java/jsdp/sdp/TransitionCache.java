@@ -0,0 +1,147 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches, for a pair state-action, the list of {@code Transition} towards final states that 
+ * occur with positive probability. 
+ * 
+ * Final states are generated and their probabilities computed once per pair state-action; callers 
+ * then read both the normalisation factor and the expected value from the same list. If the cache 
+ * has a positive capacity, lists are also retained across evaluations and evicted in least recently 
+ * used order once the capacity is exceeded.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class TransitionCache {
+   
+   private final int capacity;
+   private final Map<Key, ArrayList<Transition>> transitions;
+   
+   /**
+    * Creates an instance of {@code TransitionCache} retaining at most {@code capacity} lists of transitions;
+    * if {@code capacity} is zero, no list is retained across evaluations.
+    * 
+    * @param capacity the maximum number of pairs state-action retained.
+    */
+   public TransitionCache(int capacity){
+      if(capacity < 0)
+         throw new NullPointerException("Cache capacity cannot be negative");
+      this.capacity = capacity;
+      this.transitions = capacity == 0 ? null : Collections.synchronizedMap(
+            new LinkedHashMap<Key, ArrayList<Transition>>(16, 0.75f, true){
+               private static final long serialVersionUID = 1L;
+               
+               @Override
+               protected boolean removeEldestEntry(Map.Entry<Key, ArrayList<Transition>> eldest){
+                  return size() > TransitionCache.this.capacity;
+               }
+            });
+   }
+   
+   /**
+    * Returns the maximum number of pairs state-action retained by this cache.
+    * 
+    * @return the maximum number of pairs state-action retained by this cache.
+    */
+   public int getCapacity(){
+      return this.capacity;
+   }
+   
+   /**
+    * Returns the transitions towards final states that occur with positive probability when {@code action} 
+    * is selected in {@code initialState}.
+    * 
+    * @param transitionProbability the transition probability of the stochastic process.
+    * @param initialState the initial state.
+    * @param action the action chosen.
+    * @return the transitions towards final states that occur with positive probability.
+    */
+   public ArrayList<Transition> getTransitions(TransitionProbability transitionProbability, State initialState, Action action){
+      if(this.transitions == null)
+         return generateTransitions(transitionProbability, initialState, action);
+      Key key = new Key(initialState, action);
+      ArrayList<Transition> list = this.transitions.get(key);
+      if(list == null){
+         list = generateTransitions(transitionProbability, initialState, action);
+         this.transitions.put(key, list);
+      }
+      return list;
+   }
+   
+   /**
+    * Removes all transitions retained by this cache.
+    */
+   public void clear(){
+      if(this.transitions != null)
+         this.transitions.clear();
+   }
+   
+   private static ArrayList<Transition> generateTransitions(TransitionProbability transitionProbability, State initialState, Action action){
+      ArrayList<Transition> list = new ArrayList<Transition>();
+      for(State finalState : transitionProbability.generateFinalStates(initialState, action)){
+         double probability = transitionProbability.getTransitionProbability(initialState, action, finalState);
+         if(probability > 0)
+            list.add(new Transition(finalState, probability));
+      }
+      return list;
+   }
+   
+   /**
+    * Actions do not necessarily account for their state in {@code equals}, hence keys pair them explicitly.
+    */
+   private static class Key {
+      private final State state;
+      private final Action action;
+      private final int hash;
+      
+      Key(State state, Action action){
+         this.state = state;
+         this.action = action;
+         this.hash = 31*state.hashCode() + action.hashCode();
+      }
+      
+      @Override
+      public boolean equals(Object key){
+         if(!(key instanceof Key))
+            return false;
+         Key other = (Key) key;
+         return this.state.equals(other.state) && this.action.equals(other.action);
+      }
+      
+      @Override
+      public int hashCode(){
+         return this.hash;
+      }
+   }
+}
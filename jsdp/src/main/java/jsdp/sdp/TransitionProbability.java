@@ -36,6 +36,19 @@ import java.util.ArrayList;
  */
 public abstract class TransitionProbability {
 	
+	protected boolean parallel = true;
+	
+	/**
+	 * If {@code parallel} is true, which is the default, final states are filtered and generated by means of 
+	 * parallel streams; otherwise they are processed sequentially, e.g. when the recursion already runs on a 
+	 * {@code RecursionExecutor}, see {@code Recursion.setExecutor}.
+	 * 
+	 * @param parallel true to process final states in parallel.
+	 */
+	public void setParallel(boolean parallel){
+	   this.parallel = parallel;
+	}
+	
 	/**
 	 * This method returns the transition probability from {@code initialState} to {@code finalState} when
 	 * {@code action} is selected.
@@ -74,4 +87,24 @@ public abstract class TransitionProbability {
     * transition in period {@code t+1}.
     */
    public abstract ArrayList<State> getFinalStates(State initialState, Action action);
+   
+   /**
+    * This method retrieves an {@code ArrayList<Transition>} of existing states towards which the stochastic process may 
+    * transition in period {@code t+1} if {@code action} is selected in {@code initialState} at period  
+    * {@code t}, together with the associated transition probabilities. This method is used by backward recursion procedures.
+    * The default implementation evaluates {@code getTransitionProbability} once for each state returned by {@code getFinalStates}; 
+    * subclasses may override it to enumerate successors more efficiently.
+    * 
+    * @param initialState the initial state of the stochastic process; note that we assume that 
+    * {@code initialState} is associated with period {@code t}.
+    * @param action the action selected at period {@code t}.
+    * @return an {@code ArrayList<Transition>} of states towards which the stochastic process may 
+    * transition in period {@code t+1}, and of the associated transition probabilities.
+    */
+   public ArrayList<Transition> getTransitions(State initialState, Action action){
+      ArrayList<Transition> transitions = new ArrayList<Transition>();
+      for(State finalState : this.getFinalStates(initialState, action))
+         transitions.add(new Transition(finalState, this.getTransitionProbability(initialState, action, finalState)));
+      return transitions;
+   }
 }
@@ -0,0 +1,148 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+import jsdp.sdp.Recursion.OptimisationDirection;
+
+/**
+ * An {@code ActionSearchStrategy} for problems in which the value of an action is unimodal, e.g. convex 
+ * in a minimisation problem, along the order in which feasible actions are generated. A golden-section search 
+ * over the index of the feasible actions narrows the range of candidate actions, which is then searched exhaustively; 
+ * only O(log n) of the n feasible actions of a state are therefore evaluated. If feasible actions are enumerated 
+ * by a {@code RandomAccessActionIterator}, see {@code Recursion.setBuildActionIterator}, only the evaluated actions 
+ * are created. If the value of actions is not unimodal, the action returned is the best one among those evaluated.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class UnimodalActionSearch implements ActionSearchStrategy {
+   
+   private static final double PHI = (1 + Math.sqrt(5))/2;
+   
+   @Override
+   public BestActionRepository search(Recursion recursion, State state, ToDoubleFunction<Action> value, boolean parallel){
+      EvaluatedActions evaluated = EvaluatedActions.of(recursion, state, value);
+      int a = 0;
+      int b = evaluated.size - 1;
+      while(b - a > 2){
+         int c = b - (int) Math.round((b - a)/PHI);
+         int d = a + (int) Math.round((b - a)/PHI);
+         if(c >= d){
+            c = (a + b)/2;
+            d = c + 1;
+         }
+         if(evaluated.precedes(c, d))
+            b = d;
+         else
+            a = c;
+      }
+      for(int i = a; i <= b; i++)
+         evaluated.valueOf(i);
+      return evaluated.getBestActionRepository();
+   }
+   
+   /**
+    * Feasible actions of a state, accessed by their position in the order in which they are generated; 
+    * actions are created and valued on demand, and their values are cached.
+    */
+   static class EvaluatedActions {
+      final int size;
+      final IntFunction<Action> action;
+      final ToIntFunction<Action> indexOf;
+      final OptimisationDirection direction;
+      final ToDoubleFunction<Action> value;
+      final TreeMap<Integer, Action> actions = new TreeMap<Integer, Action>();
+      final TreeMap<Integer, Double> values = new TreeMap<Integer, Double>();
+      
+      EvaluatedActions(int size, IntFunction<Action> action, ToIntFunction<Action> indexOf, OptimisationDirection direction, ToDoubleFunction<Action> value){
+         this.size = size;
+         this.action = action;
+         this.indexOf = indexOf;
+         this.direction = direction;
+         this.value = value;
+      }
+      
+      /**
+       * Returns the feasible actions of {@code state}, as enumerated by {@code recursion}; these are only collected 
+       * in a list if the action iterator of the recursion does not provide random access.
+       */
+      static EvaluatedActions of(Recursion recursion, State state, ToDoubleFunction<Action> value){
+         Iterator<Action> iterator = recursion.getFeasibleActionIterator(state);
+         if(iterator instanceof RandomAccessActionIterator){
+            RandomAccessActionIterator actions = (RandomAccessActionIterator) iterator;
+            return new EvaluatedActions(actions.size(), actions::get, actions::indexOf, recursion.getDirection(), value);
+         }
+         ArrayList<Action> actions = new ArrayList<Action>();
+         while(iterator.hasNext())
+            actions.add(iterator.next());
+         return new EvaluatedActions(actions.size(), actions::get, actions::indexOf, recursion.getDirection(), value);
+      }
+      
+      /**
+       * Returns the position of {@code action}, or -1 if {@code action} is not feasible.
+       */
+      int indexOf(Action action){
+         return this.indexOf.applyAsInt(action);
+      }
+      
+      double valueOf(int i){
+         Double value = this.values.get(i);
+         if(value == null){
+            Action action = this.action.apply(i);
+            value = this.value.applyAsDouble(action);
+            this.actions.put(i, action);
+            this.values.put(i, value);
+         }
+         return value;
+      }
+      
+      /**
+       * Returns true if the value of action {@code i} is at least as good as that of action {@code j}.
+       */
+      boolean precedes(int i, int j){
+         return this.direction == OptimisationDirection.MIN ? this.valueOf(i) <= this.valueOf(j) : this.valueOf(i) >= this.valueOf(j);
+      }
+      
+      /**
+       * Returns a {@code BestActionRepository} updated with all evaluated actions, in the order in which they are generated.
+       */
+      BestActionRepository getBestActionRepository(){
+         BestActionRepository repository = new BestActionRepository(this.direction);
+         for(Map.Entry<Integer, Action> entry : this.actions.entrySet())
+            repository.accumulate(entry.getValue(), this.values.get(entry.getKey()));
+         return repository;
+      }
+   }
+}
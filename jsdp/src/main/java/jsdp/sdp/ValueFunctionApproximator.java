@@ -0,0 +1,50 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp;
+
+import java.util.Map;
+
+/**
+ * A functional interface that approximates the optimal expected value of a state that has not been solved, 
+ * e.g. because it has not been sampled, from the optimal expected values of the states that have been solved, 
+ * see {@code ValueRepository.setValueFunctionApproximator}.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@FunctionalInterface
+public interface ValueFunctionApproximator {
+   /**
+    * Approximates the optimal expected value of {@code state}. Implementations throw a {@code NullPointerException} 
+    * if no state of the same period has been solved.
+    * 
+    * @param state the target state.
+    * @param optimalValues the optimal expected values of the states that have been solved.
+    * @return the approximate optimal expected value of {@code state}.
+    */
+   public double approximate(State state, Map<State,Double> optimalValues);
+}
@@ -26,6 +26,7 @@
 
 package jsdp.sdp;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Hashtable;
 import java.util.Map;
@@ -34,6 +35,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import gnu.trove.map.hash.THashMap;
 import jsdp.utilities.hash.MapDBHashTable;
 import jsdp.utilities.hash.MapDBHashTable.Storage;
+import jsdp.utilities.monitoring.RecursionMetrics;
 
 /**
  * An abstraction representing a repository for the value associated with each {@code State}.
@@ -48,8 +50,16 @@ public class ValueRepository {
 	
 	protected double discountFactor;
 	
+	protected boolean memoisation = true;
+	
+	protected boolean parallel = true;
+	
+	protected volatile RecursionMetrics metrics;
+	
 	protected ImmediateValueFunction<State, Action, Double> immediateValueFunction;
 	
+	protected ValueFunctionApproximator valueFunctionApproximator;
+	
 	/**
 	 * Creates a new value repository. Do not use {@code ConcurrentHashMap} in conjunction with forward recursion.
 	 * 
@@ -61,7 +71,7 @@ public class ValueRepository {
 	public ValueRepository(ImmediateValueFunction<State, Action, Double> immediateValueFunction, double discountFactor, HashType hash){
 	   this.setImmediateValue(immediateValueFunction);
 	   this.discountFactor = discountFactor;
-	   switch(hash){
+	   switch(HashType.resolve(hash, 0)){
          case HASHTABLE:
             this.valueHashTable = new Hashtable<StateAction,Double>();
             this.optimalValueHashTable = new Hashtable<State,Double>();
@@ -102,6 +112,8 @@ public class ValueRepository {
             this.optimalValueHashTable = new MapDBHashTable<State,Double>("optimalValueHashTable", Storage.DISK);
             this.optimalActionHashTable = new MapDBHashTable<State,Action>("optimalActionHashTable", Storage.DISK);
             break;   
+         case DENSE_ARRAY:
+            throw new NullPointerException("HashType DENSE_ARRAY requires an array based repository, e.g. jsdp.sdp.impl.univariate.DenseValueRepository");
          default: 
             throw new NullPointerException("HashType not available");   
 	   }
@@ -120,7 +132,7 @@ public class ValueRepository {
 	public ValueRepository(ImmediateValueFunction<State, Action, Double> immediateValueFunction, double discountFactor, int stateSpaceSizeLowerBound, float loadFactor, HashType hash){
 	   this.setImmediateValue(immediateValueFunction);
       this.discountFactor = discountFactor;
-      switch(hash){
+      switch(HashType.resolve(hash, stateSpaceSizeLowerBound)){
          case HASHTABLE:
             this.valueHashTable = new Hashtable<StateAction,Double>(stateSpaceSizeLowerBound,loadFactor);
             this.optimalValueHashTable = new Hashtable<State,Double>(stateSpaceSizeLowerBound,loadFactor);
@@ -161,6 +173,8 @@ public class ValueRepository {
             this.optimalValueHashTable = new MapDBHashTable<State,Double>("optimalValueHashTable", Storage.DISK);
             this.optimalActionHashTable = new MapDBHashTable<State,Action>("optimalActionHashTable", Storage.DISK);
             break;   
+         case DENSE_ARRAY:
+            throw new NullPointerException("HashType DENSE_ARRAY requires an array based repository, e.g. jsdp.sdp.impl.univariate.DenseValueRepository");
          default: 
             throw new NullPointerException("HashType not available");   
       }
@@ -222,9 +236,72 @@ public class ValueRepository {
       return this.discountFactor;
    }
 	
+	/**
+	 * Sets the approximator to which {@code getFinalStateExpectedValue} falls back for final states whose optimal expected 
+	 * value has not been stored, e.g. states that have not been sampled. By default no approximator is set, and 
+	 * {@code getFinalStateExpectedValue} throws a {@code NullPointerException} for these states.
+	 * 
+	 * @param valueFunctionApproximator the value function approximator, or null to disable approximation.
+	 */
+	public void setValueFunctionApproximator(ValueFunctionApproximator valueFunctionApproximator){
+	   this.valueFunctionApproximator = valueFunctionApproximator;
+	}
+	
+	/**
+	 * Returns the approximator to which {@code getFinalStateExpectedValue} falls back for final states whose optimal 
+	 * expected value has not been stored, or null if no approximator has been set.
+	 * 
+	 * @return the value function approximator.
+	 */
+	public ValueFunctionApproximator getValueFunctionApproximator(){
+	   return this.valueFunctionApproximator;
+	}
+	
+	/**
+	 * Enables or disables the memoisation of expected values associated with {@code StateAction} pairs. 
+	 * Memoisation is enabled by default; in a backward recursion each pair is evaluated once per recursion step, 
+	 * hence memoisation can be disabled to avoid storing {@code |S|x|A|} expected values. 
+	 * 
+	 * @param memoisation true to store expected values associated with {@code StateAction} pairs.
+	 */
+	public void setMemoisation(boolean memoisation){
+	   this.memoisation = memoisation;
+	}
+	
+	/**
+	 * Returns true if expected values associated with {@code StateAction} pairs are stored.
+	 * 
+	 * @return true if expected values associated with {@code StateAction} pairs are stored.
+	 */
+	public boolean isMemoisation(){
+	   return this.memoisation;
+	}
+	
+	/**
+	 * If {@code parallel} is true, which is the default, expected values are computed by means of parallel streams 
+	 * over final states; otherwise final states are processed sequentially.
+	 * 
+	 * @param parallel true to process final states in parallel.
+	 */
+	public void setParallel(boolean parallel){
+	   this.parallel = parallel;
+	}
+	
+	/**
+	 * Sets the metrics updated when expected values are requested and computed; if {@code metrics} is null, 
+	 * which is the default, no metrics are collected.
+	 * 
+	 * @param metrics the recursion metrics.
+	 */
+	public void setMetrics(RecursionMetrics metrics){
+	   this.metrics = metrics;
+	}
+	
 	/**
 	 * Returns the expected value associated with {@code initialState} and {@code action} under one-step transition probabilities
-	 * described in {@code transitionProbability}.
+	 * described in {@code transitionProbability}. If memoisation is enabled, the expected value is stored and 
+	 * retrieved in subsequent calls; the expected value is computed outside the hashtable, so that concurrent 
+	 * evaluations of different {@code StateAction} pairs are not serialised.
 	 * 
 	 * @param initialState the initial state of the stochastic process.
 	 * @param action the chosen action. 
@@ -233,20 +310,42 @@ public class ValueRepository {
 	 * described in {@code transitionProbability}.
 	 */
 	public double getExpectedValue(State initialState, Action action, TransitionProbability transitionProbability) {
+	   if(!this.memoisation)
+	      return computeExpectedValue(initialState, action, transitionProbability);
       StateAction key = new StateAction(initialState, action);
-      return this.valueHashTable.computeIfAbsent(key, y -> {
-         double normalisationFactor = transitionProbability.getFinalStates(initialState, action).parallelStream()
-                 .mapToDouble(finalState -> transitionProbability.getTransitionProbability(initialState, action, finalState))
-                 .sum();
-         double expectedValue = transitionProbability.getFinalStates(initialState, action).parallelStream()
-                 .mapToDouble(finalState -> 
-                 (this.immediateValueFunction.apply(initialState, action, finalState)+this.discountFactor*this.getOptimalExpectedValue(finalState))*
-                 transitionProbability.getTransitionProbability(initialState, action, finalState)
-         ).sum()/normalisationFactor;
-         return expectedValue;
-      });
+      Double expectedValue = this.valueHashTable.get(key);
+      RecursionMetrics metrics = this.metrics;
+      if(metrics != null){
+         if(expectedValue == null)
+            metrics.expectedValueMiss();
+         else
+            metrics.expectedValueHit();
+      }
+      if(expectedValue == null){
+         expectedValue = Double.valueOf(computeExpectedValue(initialState, action, transitionProbability));
+         this.valueHashTable.put(key, expectedValue);
+      }
+      return expectedValue.doubleValue();
    }
 	
+	private double computeExpectedValue(State initialState, Action action, TransitionProbability transitionProbability) {
+	   ArrayList<Transition> transitions = transitionProbability.getTransitions(initialState, action);
+	   RecursionMetrics metrics = this.metrics;
+	   if(metrics != null){
+	      metrics.actionEvaluated(initialState.getPeriod());
+	      metrics.transitionsEvaluated(transitions.size());
+	   }
+      double normalisationFactor = (this.parallel ? transitions.parallelStream() : transitions.stream())
+              .mapToDouble(transition -> transition.getProbability())
+              .sum();
+      double expectedValue = (this.parallel ? transitions.parallelStream() : transitions.stream())
+              .mapToDouble(transition -> 
+              (this.immediateValueFunction.apply(initialState, action, transition.getFinalState())+this.discountFactor*this.getFinalStateExpectedValue(transition.getFinalState()))*
+              transition.getProbability()
+      ).sum()/normalisationFactor;
+      return expectedValue;
+	}
+	
 	/**
 	 * Associates an optimal expected value {@code expectedValue} to {@code state}.
 	 * 
@@ -267,6 +366,40 @@ public class ValueRepository {
 		return this.optimalValueHashTable.get(state).doubleValue();
 	}
 	
+	/**
+	 * Returns the optimal expected value of {@code finalState}, a final state reached while solving a state 
+	 * of the previous period; if no value has been stored for {@code finalState}, the value is approximated 
+	 * by the value function approximator, if one has been set. Values of states queried directly, e.g. initial 
+	 * states, are never approximated, see {@code getOptimalExpectedValue}.
+	 * 
+	 * @param finalState the target final state.
+	 * @return the optimal expected value, or its approximation.
+	 */
+	public double getFinalStateExpectedValue(State finalState){
+	   Double value = this.optimalValueHashTable.get(finalState);
+	   if(value != null)
+	      return value.doubleValue();
+	   if(this.valueFunctionApproximator == null)
+	      throw new NullPointerException("No optimal expected value stored for state "+finalState);
+	   return this.valueFunctionApproximator.approximate(finalState, this.optimalValueHashTable);
+	}
+	
+	/**
+	 * Removes the optimal expected values associated with the states in {@code stateSpace}.
+	 * 
+	 * @param stateSpace the state space whose optimal expected values should be removed.
+	 */
+	public void removeOptimalExpectedValues(StateSpace<?> stateSpace){
+	   stateSpace.entrySet().forEach(entry -> this.optimalValueHashTable.remove(entry.getValue()));
+	}
+	
+	/**
+	 * Removes all expected values associated with {@code StateAction} pairs.
+	 */
+	public void clearExpectedValues(){
+	   this.valueHashTable.clear();
+	}
+	
 	/**
 	 * Associates an optimal action {@code action} to state {@code state}.
 	 * 
@@ -30,6 +30,7 @@ import java.util.Arrays;
 
 import jsdp.sdp.Action;
 import jsdp.sdp.State;
+import jsdp.utilities.hash.HashMixer;
 
 /**
  * A concrete implementation of {@code Action}.
@@ -43,6 +44,8 @@ public class ActionImpl extends Action {
    
    int[] intAction;
    
+   private transient int hash;
+   
    private static double[] arrayProduct(int[] integerArray, double[] doubleArray){
       if(integerArray.length != doubleArray.length)
          throw new NullPointerException("Array sizes do not agree");
@@ -96,6 +99,8 @@ public class ActionImpl extends Action {
    
    @Override
    public boolean equals(Object action){
+      if(this == action)
+         return true;
       if(action instanceof ActionImpl)
          return Arrays.equals(this.intAction, ((ActionImpl)action).intAction);
       else
@@ -104,9 +109,12 @@ public class ActionImpl extends Action {
    
    @Override
    public int hashCode(){
-      String hash = "";
-        hash = (hash + Arrays.toString(intAction));
-        return hash.hashCode();
+      int hash = this.hash;
+      if(hash == 0){
+         hash = HashMixer.mix(0, this.intAction);
+         this.hash = hash;
+      }
+      return hash;
    }
    
    @Override
@@ -26,6 +26,8 @@
 
 package jsdp.sdp.impl.multivariate;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.function.Function;
@@ -37,6 +39,8 @@ import jsdp.sdp.ImmediateValueFunction;
 import jsdp.sdp.RandomOutcomeFunction;
 import jsdp.sdp.State;
 import jsdp.sdp.ValueRepository;
+import jsdp.utilities.policy.PolicyReader;
+import jsdp.utilities.policy.PolicyWriter;
 import jsdp.utilities.probdist.MultiINIDistribution;
 
 import umontreal.ssj.probdistmulti.DiscreteDistributionIntMulti;
@@ -77,6 +81,7 @@ public class BackwardRecursionImpl extends BackwardRecursion{
                                 HashType hash){
       super(optimisationDirection);
       this.horizonLength = demand.length;
+      hash = HashType.resolve(hash, this.estimateStates());
       
       Arrays.stream(demand).forEach(d -> {
          if(d instanceof MultiINIDistribution)
@@ -123,6 +128,7 @@ public class BackwardRecursionImpl extends BackwardRecursion{
                                 HashType hash){
       super(optimisationDirection);
       this.horizonLength = demand.length;
+      hash = HashType.resolve(hash, this.estimateStates());
       
       Arrays.stream(demand).forEach(d -> {
          if(d instanceof MultiINIDistribution)
@@ -137,11 +143,60 @@ public class BackwardRecursionImpl extends BackwardRecursion{
       this.valueRepository = new ValueRepository(immediateValueFunction, discountFactor, hash);
    }
    
+   /**
+    * Estimates the number of states from the state boundaries and the planning horizon, 
+    * in order to resolve {@code HashType.AUTO}.
+    * 
+    * @return the estimated number of states.
+    */
+   private long estimateStates(){
+      long states = this.horizonLength + 1;
+      for(int i = 0; i < StateImpl.getStateDimension(); i++)
+         states *= StateImpl.getMaxIntState()[i] - StateImpl.getMinIntState()[i] + 1L;
+      return states;
+   }
+   
    @Override
    public TransitionProbabilityImpl getTransitionProbability(){
       return (TransitionProbabilityImpl) this.transitionProbability; 
    }
    
+   /**
+    * Enables or disables the implicit mode of the state spaces of all periods, see {@code StateSpaceImpl.setImplicit}; 
+    * in implicit mode states are not stored, but created on demand from their linear index. The state space of 
+    * period 0 is still generated on demand.
+    * 
+    * @param implicit true to enable the implicit mode.
+    */
+   public void setImplicitStateSpaces(boolean implicit){
+      for(int i = 0; i < this.horizonLength + 1; i++)
+         ((StateSpaceImpl)this.stateSpace[i]).setImplicit(implicit);
+   }
+   
+   @Override
+   protected void writeCheckpoint(int period, File file) throws IOException {
+      PolicyWriter.writePeriod(file, this, period);
+   }
+   
+   @Override
+   protected void readCheckpoint(int period, File file, boolean values) throws IOException {
+      PolicyReader reader = new PolicyReader(file);
+      if(!Arrays.equals(reader.getMinIntState(), StateImpl.getMinIntState()) || !Arrays.equals(reader.getMaxIntState(), StateImpl.getMaxIntState()))
+         throw new IOException("Checkpoint does not match the state space boundaries: "+file);
+      StateSpaceImpl stateSpace = (StateSpaceImpl)this.getStateSpace(period);
+      for(int cell = 0; cell < reader.getCells(); cell++){
+         int[] intState = reader.getIntState(cell);
+         int[] intAction = reader.getOptimalIntAction(period, intState);
+         if(intAction == null)
+            continue;
+         State state = stateSpace.getState(new StateDescriptorImpl(period, intState));
+         this.getValueRepository().setOptimalAction(state, new ActionImpl(state, intAction));
+         double value = reader.getOptimalExpectedValueOfIntState(period, intState);
+         if(values && !Double.isNaN(value))
+            this.getValueRepository().setOptimalExpectedValue(state, value);
+      }
+   }
+   
    public double getExpectedCost(double[] initialState){
       StateDescriptorImpl stateDescriptor = new StateDescriptorImpl(0, initialState);
       return getExpectedCost(stateDescriptor);
@@ -152,6 +207,8 @@ public class BackwardRecursionImpl extends BackwardRecursion{
       try{
          return getExpectedValue(state);
       }catch(NullPointerException e){
+         if(this.isUnsampled(state))
+            return this.searchBestAction(state).getBestValue();
          recurse(state.getPeriod());
          return getExpectedValue(state);
       }
@@ -159,6 +216,11 @@ public class BackwardRecursionImpl extends BackwardRecursion{
    
    public ActionImpl getOptimalAction(StateDescriptorImpl stateDescriptor){
       State state = ((StateSpaceImpl)this.getStateSpace(stateDescriptor.getPeriod())).getState(stateDescriptor);
+      Action action = this.getValueRepository().getOptimalAction(state);
+      if(action != null)
+         return (ActionImpl) action;
+      if(this.isUnsampled(state))
+         return (ActionImpl) this.searchBestAction(state).getBestAction();
       try{
          getExpectedValue(state);
       }catch(NullPointerException e){
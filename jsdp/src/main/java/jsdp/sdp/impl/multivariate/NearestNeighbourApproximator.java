@@ -0,0 +1,99 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp.impl.multivariate;
+
+import java.util.Map;
+
+import jsdp.sdp.State;
+import jsdp.sdp.ValueFunctionApproximator;
+
+/**
+ * A {@code ValueFunctionApproximator} that returns the optimal expected value of the nearest solved state 
+ * in the same period, where distances are measured in the maximum norm over the integer state grid; 
+ * if several solved states are equally near, their optimal expected values are averaged.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class NearestNeighbourApproximator implements ValueFunctionApproximator {
+   
+   @Override
+   public double approximate(State state, Map<State,Double> optimalValues){
+      int period = state.getPeriod();
+      int[] intState = ((StateImpl)state).getInitialIntState();
+      int[] minIntState = StateImpl.getMinIntState();
+      int[] maxIntState = StateImpl.getMaxIntState();
+      int maxRadius = 0;
+      for(int i = 0; i < intState.length; i++)
+         maxRadius = Math.max(maxRadius, Math.max(intState[i] - minIntState[i], maxIntState[i] - intState[i]));
+      for(int radius = 1; radius <= maxRadius; radius++){
+         int[] lb = new int[intState.length];
+         int[] ub = new int[intState.length];
+         for(int i = 0; i < intState.length; i++){
+            lb[i] = Math.max(minIntState[i], intState[i] - radius);
+            ub[i] = Math.min(maxIntState[i], intState[i] + radius);
+         }
+         double sum = 0;
+         int count = 0;
+         int[] point = lb.clone();
+         do{
+            if(distance(point, intState) == radius){
+               Double value = optimalValues.get(new StateImpl(new StateDescriptorImpl(period, point.clone())));
+               if(value != null){
+                  sum += value.doubleValue();
+                  count++;
+               }
+            }
+         }while(next(point, lb, ub));
+         if(count > 0)
+            return sum/count;
+      }
+      throw new NullPointerException("No solved state in period "+period);
+   }
+   
+   private static int distance(int[] a, int[] b){
+      int distance = 0;
+      for(int i = 0; i < a.length; i++)
+         distance = Math.max(distance, Math.abs(a[i] - b[i]));
+      return distance;
+   }
+   
+   /**
+    * Advances {@code point} to the next point of the box {@code [lb, ub]} in lexicographic order; 
+    * returns false if {@code point} is the last point of the box.
+    */
+   private static boolean next(int[] point, int[] lb, int[] ub){
+      for(int i = point.length - 1; i >= 0; i--){
+         if(point[i] < ub[i]){
+            point[i]++;
+            return true;
+         }
+         point[i] = lb[i];
+      }
+      return false;
+   }
+}
@@ -29,6 +29,7 @@ package jsdp.sdp.impl.multivariate;
 import java.util.Arrays;
 
 import jsdp.sdp.StateDescriptor;
+import jsdp.utilities.hash.HashMixer;
 
 /**
  * A concrete implementation of {@code StateDescriptor}.
@@ -41,6 +42,8 @@ public class StateDescriptorImpl extends StateDescriptor{
    private static final long serialVersionUID = 1L;
    
    int[] initialIntState;
+   
+   private transient int hash;
 
    public StateDescriptorImpl(int period, int[] initialIntState){
       super(period);
@@ -54,6 +57,8 @@ public class StateDescriptorImpl extends StateDescriptor{
    
    @Override
    public boolean equals(Object descriptor){
+      if(this == descriptor)
+         return true;
       if(descriptor instanceof StateDescriptorImpl)
          return this.period == ((StateDescriptorImpl)descriptor).period &&
                 Arrays.equals(this.initialIntState, ((StateDescriptorImpl)descriptor).initialIntState);
@@ -63,9 +68,12 @@ public class StateDescriptorImpl extends StateDescriptor{
 
    @Override
    public int hashCode(){
-      String hash = "";
-      hash = (hash + period) + "_" + Arrays.toString(initialIntState);
-      return hash.hashCode();
+      int hash = this.hash;
+      if(hash == 0){
+         hash = HashMixer.mix(this.period, this.initialIntState);
+         this.hash = hash;
+      }
+      return hash;
    }
 
    public int[] getInitialIntState(){
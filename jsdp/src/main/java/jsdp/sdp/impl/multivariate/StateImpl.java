@@ -30,6 +30,7 @@ import java.util.Arrays;
 import java.util.stream.IntStream;
 
 import jsdp.sdp.State;
+import jsdp.utilities.hash.HashMixer;
 
 /**
  * A concrete implementation of {@code State}.
@@ -42,6 +43,8 @@ public class StateImpl extends State {
    private static final long serialVersionUID = 1L;
    
    private int initialIntState[];
+   
+   private transient int hash;
 
    private static double[] stepSize;
    private static int[] minIntState;
@@ -135,6 +138,8 @@ public class StateImpl extends State {
 
    @Override
    public boolean equals(Object state){
+      if(this == state)
+         return true;
       if(state instanceof StateImpl)
          return this.period == ((StateImpl)state).period && 
                 Arrays.equals(this.initialIntState, ((StateImpl)state).initialIntState);
@@ -143,9 +148,12 @@ public class StateImpl extends State {
 
    @Override
    public int hashCode(){
-      String hash = "";
-      hash = (hash + period) + Arrays.toString(initialIntState);
-      return hash.hashCode();
+      int hash = this.hash;
+      if(hash == 0){
+         hash = HashMixer.mix(this.period, this.initialIntState);
+         this.hash = hash;
+      }
+      return hash;
    }
 
    @Override
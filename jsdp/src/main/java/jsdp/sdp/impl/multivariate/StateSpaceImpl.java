@@ -26,8 +26,11 @@
 
 package jsdp.sdp.impl.multivariate;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
 import java.util.function.Function;
 
 import jsdp.sdp.Action;
@@ -46,6 +49,7 @@ public class StateSpaceImpl extends StateSpace<StateDescriptorImpl>{
    SamplingScheme samplingScheme = SamplingScheme.NONE;
    int maxSampleSize = Integer.MAX_VALUE;
    double reductionFactorPerStage = 1;
+   boolean implicit = false;
    
    public StateSpaceImpl(int period,
                          Function<State, ArrayList<Action>> buildActionList,
@@ -109,11 +113,47 @@ public class StateSpaceImpl extends StateSpace<StateDescriptorImpl>{
       }
    }
 
+   /**
+    * Enables or disables the implicit mode. In implicit mode states are not stored: the state space 
+    * spans the integer grid defined by {@code StateImpl.setStateBoundaries}, states are addressed by a linear 
+    * index in which the last state dimension varies fastest, and a new {@code StateImpl} is created 
+    * whenever a state is requested. The implicit mode cannot be combined with sampling. The state space 
+    * of period 0 is never implicit, since its states are generated on demand, 
+    * see {@code BackwardRecursionImpl.getExpectedCost}.
+    * 
+    * @param implicit true to enable the implicit mode.
+    */
+   public void setImplicit(boolean implicit){
+      if(implicit && this.samplingScheme != SamplingScheme.NONE)
+         throw new NullPointerException("Implicit state spaces cannot be sampled");
+      this.implicit = implicit && this.period > 0;
+      if(this.implicit)
+         this.states.clear();
+   }
+   
+   /**
+    * Returns true if the implicit mode is enabled.
+    * 
+    * @return true if the implicit mode is enabled.
+    */
+   public boolean isImplicit(){
+      return this.implicit;
+   }
+
    public boolean exists (StateDescriptorImpl descriptor){
+      if(this.implicit){
+         int[] intState = descriptor.getInitialIntState();
+         for(int i = 0; i < intState.length; i++)
+            if(intState[i] < StateImpl.getMinIntState()[i] || intState[i] > StateImpl.getMaxIntState()[i])
+               return false;
+         return true;
+      }
       return states.get(descriptor) != null;
    }
    
    public State getState(StateDescriptorImpl descriptor){
+      if(this.implicit)
+         return new StateImpl(descriptor);
       State value = states.get(descriptor);
       if(value == null){
          State state = new StateImpl(descriptor);
@@ -122,6 +162,16 @@ public class StateSpaceImpl extends StateSpace<StateDescriptorImpl>{
       }else
          return (StateImpl) value;
    }
+   
+   @Override
+   public List<State> getStateList(){
+      return this.implicit ? new StateList() : null;
+   }
+   
+   @Override
+   protected StateDescriptorImpl getStateDescriptor(State state){
+      return new StateDescriptorImpl(state.getPeriod(), ((StateImpl) state).getInitialIntState());
+   }
 
    public Iterator<State> iterator() {
       /**
@@ -130,9 +180,48 @@ public class StateSpaceImpl extends StateSpace<StateDescriptorImpl>{
        */
       if(this.period == 0) 
          return null;
+      else if(this.implicit)
+         return new StateList().iterator();
       else if(this.samplingScheme == SamplingScheme.NONE)
          return new StateSpaceIteratorImpl(this);
       else
          return new StateSpaceSampleIteratorImpl(this, this.samplingScheme, this.maxSampleSize, this.reductionFactorPerStage);
    }
+   
+   /**
+    * Random access view of an implicit state space.
+    */
+   private class StateList extends AbstractList<State> implements RandomAccess {
+      private final int[] minIntState = StateImpl.getMinIntState();
+      private final int[] sizes = new int[StateImpl.getStateDimension()];
+      private final int size;
+      
+      StateList(){
+         long size = 1;
+         for(int i = 0; i < this.sizes.length; i++){
+            this.sizes[i] = StateImpl.getMaxIntState()[i] - StateImpl.getMinIntState()[i] + 1;
+            size *= this.sizes[i];
+         }
+         if(size > Integer.MAX_VALUE)
+            throw new NullPointerException("State space too large for an implicit state space");
+         this.size = (int) size;
+      }
+      
+      @Override
+      public State get(int index){
+         if(index < 0 || index >= this.size)
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+this.size);
+         int[] intState = new int[this.sizes.length];
+         for(int i = this.sizes.length - 1; i >= 0; i--){
+            intState[i] = this.minIntState[i] + index % this.sizes[i];
+            index /= this.sizes[i];
+         }
+         return new StateImpl(new StateDescriptorImpl(period, intState));
+      }
+      
+      @Override
+      public int size(){
+         return this.size;
+      }
+   }
 }
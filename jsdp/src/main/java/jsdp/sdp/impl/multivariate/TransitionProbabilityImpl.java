@@ -113,7 +113,7 @@ public class TransitionProbabilityImpl extends TransitionProbability {
    public ArrayList<State> getFinalStates(State initialState, Action action) {
       ArrayList<State> states = new ArrayList<State>();
       this.stateSpace[initialState.getPeriod()+1].forEach(entry -> states.add(entry));
-      return states.parallelStream().filter(s -> this.getTransitionProbability(initialState, action, s) > 0)
+      return (this.parallel ? states.parallelStream() : states.stream()).filter(s -> this.getTransitionProbability(initialState, action, s) > 0)
                                     .collect(Collectors.toCollection(ArrayList<State>::new));
    }
 }
@@ -28,6 +28,7 @@ package jsdp.sdp.impl.univariate;
 
 import jsdp.sdp.Action;
 import jsdp.sdp.State;
+import jsdp.utilities.hash.HashMixer;
 
 /**
  * A concrete implementation of {@code Action}.
@@ -41,6 +42,8 @@ public class ActionImpl extends Action {
    
    int intAction;
    
+   private transient int hash;
+   
    public static double intActionToAction(int action){
       return action*StateImpl.getStepSize();
    }
@@ -69,6 +72,8 @@ public class ActionImpl extends Action {
    
    @Override
    public boolean equals(Object action){
+      if(this == action)
+         return true;
       if(action instanceof ActionImpl)
          return this.state.equals(((ActionImpl)action).state) && (this.intAction == ((ActionImpl)action).intAction);
       else
@@ -77,9 +82,12 @@ public class ActionImpl extends Action {
    
    @Override
    public int hashCode(){
-      String hash = "";
-        hash = (hash + this.state.hashCode() + "_" + intAction);
-        return hash.hashCode();
+      int hash = this.hash;
+      if(hash == 0){
+         hash = HashMixer.mix(this.state.hashCode(), this.intAction);
+         this.hash = hash;
+      }
+      return hash;
    }
    
    @Override
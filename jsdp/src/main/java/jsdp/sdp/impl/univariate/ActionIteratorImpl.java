@@ -0,0 +1,73 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp.impl.univariate;
+
+import jsdp.sdp.Action;
+import jsdp.sdp.RandomAccessActionIterator;
+import jsdp.sdp.State;
+
+/**
+ * A concrete implementation of {@code RandomAccessActionIterator} that enumerates the integer actions 
+ * {@code minIntAction}, ..., {@code maxIntAction} of a state in increasing order, creating each 
+ * {@code ActionImpl} only when it is reached or accessed by position.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class ActionIteratorImpl extends RandomAccessActionIterator {
+   
+   State state;
+   int minIntAction;
+   int size;
+   
+   public ActionIteratorImpl(State state, int minIntAction, int maxIntAction){
+      this.state = state;
+      this.minIntAction = minIntAction;
+      this.size = (int) Math.max(0, (long) maxIntAction - minIntAction + 1);
+   }
+   
+   public ActionIteratorImpl(State state, double minAction, double maxAction){
+      this(state, ActionImpl.actionToIntAction(minAction), ActionImpl.actionToIntAction(maxAction));
+   }
+   
+   public int size(){
+      return this.size;
+   }
+   
+   public Action get(int index){
+      if(index < 0 || index >= this.size)
+         throw new IndexOutOfBoundsException("Index: "+index+", Size: "+this.size);
+      return new ActionImpl(this.state, this.minIntAction + index);
+   }
+   
+   public int indexOf(Action action){
+      if(!(action instanceof ActionImpl) || !this.state.equals(action.getState()))
+         return -1;
+      long index = (long) ((ActionImpl) action).getIntAction() - this.minIntAction;
+      return index >= 0 && index < this.size ? (int) index : -1;
+   }
+}
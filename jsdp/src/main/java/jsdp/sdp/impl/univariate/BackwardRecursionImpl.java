@@ -26,16 +26,28 @@
 
 package jsdp.sdp.impl.univariate;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import jsdp.sdp.Action;
 import jsdp.sdp.BackwardRecursion;
 import jsdp.sdp.HashType;
 import jsdp.sdp.ImmediateValueFunction;
 import jsdp.sdp.RandomOutcomeFunction;
 import jsdp.sdp.State;
+import jsdp.sdp.ValueFunctionApproximator;
 import jsdp.sdp.ValueRepository;
+import jsdp.utilities.policy.PolicyReader;
+import jsdp.utilities.policy.PolicyWriter;
 
 import umontreal.ssj.probdist.Distribution;
 
@@ -47,6 +59,15 @@ import umontreal.ssj.probdist.Distribution;
  */
 public class BackwardRecursionImpl extends BackwardRecursion{
    
+   static final Logger logger = LogManager.getLogger(BackwardRecursionImpl.class.getName());
+   
+   private boolean transitionKernels = false;
+   private boolean stationary = false;
+   private TransitionKernel[] kernels;
+   private boolean monotoneActionSearch = false;
+   private double verificationRate = 0;
+   private final AtomicLong monotoneSearchViolations = new AtomicLong();
+   
    /**
     * Creates an instance of the problem and initializes state space, transition probability and value repository.
     * 
@@ -79,13 +100,14 @@ public class BackwardRecursionImpl extends BackwardRecursion{
                                 HashType hash){
       super(optimisationDirection);
       this.horizonLength = demand.length;
+      hash = HashType.resolve(hash, this.estimateStates());
       
       this.stateSpace = new StateSpaceImpl[this.horizonLength+1];
       for(int i = 0; i < this.horizonLength + 1; i++) 
          this.stateSpace[i] = new StateSpaceImpl(i, buildActionList, idempotentAction, hash, samplingScheme, maxSampleSize, reductionFactorPerStage);
       this.transitionProbability = new TransitionProbabilityImpl(
             demand,supportLB,supportUB,randomOutcomeFunction,(StateSpaceImpl[])this.getStateSpace(),StateImpl.getStepSize());
-      this.valueRepository = new ValueRepository(immediateValueFunction, discountFactor, hash);
+      this.valueRepository = buildValueRepository(immediateValueFunction, discountFactor, hash);
    }
    
    /**
@@ -125,13 +147,16 @@ public class BackwardRecursionImpl extends BackwardRecursion{
                                 HashType hash){
       super(optimisationDirection);
       this.horizonLength = demand.length;
+      hash = HashType.resolve(hash, this.estimateStates());
       
       this.stateSpace = new StateSpaceImpl[this.horizonLength+1];
       for(int i = 0; i < this.horizonLength + 1; i++) 
          this.stateSpace[i] = new StateSpaceImpl(i, buildActionList, idempotentAction, hash, samplingScheme, maxSampleSize, reductionFactorPerStage, stateSpaceSizeLowerBound, loadFactor);
       this.transitionProbability = new TransitionProbabilityImpl(
             demand,supportLB,supportUB,randomOutcomeFunction,(StateSpaceImpl[])this.getStateSpace(),StateImpl.getStepSize());
-      this.valueRepository = new ValueRepository(immediateValueFunction, discountFactor, stateSpaceSizeLowerBound, loadFactor, hash);
+      this.valueRepository = hash == HashType.DENSE_ARRAY ? 
+            new DenseValueRepository(immediateValueFunction, discountFactor, this.horizonLength + 1) :
+            new ValueRepository(immediateValueFunction, discountFactor, stateSpaceSizeLowerBound, loadFactor, hash);
    }
    
    /**
@@ -200,13 +225,31 @@ public class BackwardRecursionImpl extends BackwardRecursion{
                                 HashType hash){
       super(optimisationDirection);
       this.horizonLength = demand.length;
+      hash = HashType.resolve(hash, this.estimateStates());
 
       this.stateSpace = new StateSpaceImpl[this.horizonLength+1];
       for(int i = 0; i < this.horizonLength + 1; i++) 
          this.stateSpace[i] = new StateSpaceImpl(i, buildActionList, idempotentAction, hash, samplingScheme, maxSampleSize, reductionFactorPerStage);
       this.transitionProbability = new TransitionProbabilityImpl(
             demand,supportLB,supportUB,randomOutcomeFunction,(StateSpaceImpl[])this.getStateSpace(),StateImpl.getStepSize());
-      this.valueRepository = new ValueRepository(immediateValueFunction, discountFactor, hash);
+      this.valueRepository = buildValueRepository(immediateValueFunction, discountFactor, hash);
+   }
+   
+   private ValueRepository buildValueRepository(ImmediateValueFunction<State, Action, Double> immediateValueFunction, double discountFactor, HashType hash){
+      if(hash == HashType.DENSE_ARRAY)
+         return new DenseValueRepository(immediateValueFunction, discountFactor, this.horizonLength + 1);
+      else
+         return new ValueRepository(immediateValueFunction, discountFactor, hash);
+   }
+   
+   /**
+    * Estimates the number of states from the state boundaries and the planning horizon, 
+    * in order to resolve {@code HashType.AUTO}.
+    * 
+    * @return the estimated number of states.
+    */
+   private long estimateStates(){
+      return (StateImpl.getMaxIntState() - StateImpl.getMinIntState() + 1L)*(this.horizonLength + 1);
    }
    
    @Override
@@ -214,6 +257,330 @@ public class BackwardRecursionImpl extends BackwardRecursion{
       return (TransitionProbabilityImpl) this.transitionProbability; 
    }
    
+   /**
+    * Sets the value function approximator of the value repository, see {@code ValueRepository.setValueFunctionApproximator}, 
+    * which provides the optimal expected values of states that have not been sampled. When an approximator is set, 
+    * transitions computed by means of the state transition function also lead to states that have not been sampled, 
+    * see {@code TransitionProbabilityImpl.setUnsampledFinalStates}, and {@code getOptimalAction} recovers the optimal action 
+    * of these states by searching their feasible actions.
+    * 
+    * @param valueFunctionApproximator the value function approximator, or null to disable approximation.
+    */
+   public void setValueFunctionApproximator(ValueFunctionApproximator valueFunctionApproximator){
+      this.getValueRepository().setValueFunctionApproximator(valueFunctionApproximator);
+      this.getTransitionProbability().setUnsampledFinalStates(valueFunctionApproximator != null);
+   }
+   
+   /**
+    * Enables or disables the implicit mode of the state spaces of all periods, see {@code StateSpaceImpl.setImplicit}; 
+    * in implicit mode states are not stored, but created on demand from their linear index. Implicit state spaces are best combined with 
+    * {@code HashType.DENSE_ARRAY}, since hash based value repositories retain the states they store values for.
+    * 
+    * @param implicit true to enable the implicit mode.
+    */
+   public void setImplicitStateSpaces(boolean implicit){
+      for(int i = 0; i < this.horizonLength + 1; i++)
+         ((StateSpaceImpl)this.stateSpace[i]).setImplicit(implicit);
+   }
+   
+   /**
+    * Enables or disables precompiled transition kernels. When enabled, the recursion step of each period 
+    * compiles a {@code TransitionKernel} for that period, and evaluates expected values as sparse dot products 
+    * against the optimal values of the next period. Kernels are only used if the state spaces of the period and of 
+    * the next period are not sampled.
+    * 
+    * If {@code stationary} is true, periods whose random outcome distributions are identical share the same kernel; 
+    * this assumes that the immediate value function, the random outcome function, and the action list builder 
+    * do not depend on the period.
+    * 
+    * @param transitionKernels true to enable transition kernels.
+    * @param stationary true if periods with identical random outcome distributions can share the same kernel.
+    */
+   public void setTransitionKernels(boolean transitionKernels, boolean stationary){
+      this.transitionKernels = transitionKernels;
+      this.stationary = stationary;
+   }
+   
+   /**
+    * Enables or disables the monotone action search. Many inventory models, e.g. lot sizing problems 
+    * under (s,S), base-stock or modified base-stock policies, admit an optimal policy whose action, the order quantity, 
+    * is non-increasing in the state. When the monotone action search is enabled, the recursion step of each period 
+    * visits states in divide-and-conquer order: the optimal actions of the two nearest states already solved 
+    * bound the range of actions considered for every other state, so that each period only evaluates 
+    * O(n log n) state-action pairs instead of the whole feasible action sets. States whose feasible actions 
+    * all fall outside these bounds are searched exhaustively. The states of each divide-and-conquer level 
+    * are independent, and are processed in parallel. 
+    * 
+    * The monotone action search is only used in periods whose state space is not sampled, it is combined 
+    * with transition kernels if these are enabled, and it assumes actions are {@code ActionImpl} instances. 
+    * If the model does not admit a monotone optimal policy, the policy computed may be suboptimal; 
+    * to detect this, a fraction {@code verificationRate} of the states, selected at random, is also searched exhaustively: 
+    * violations are logged, counted, see {@code getMonotoneSearchViolations}, and corrected.
+    * 
+    * @param monotoneActionSearch true to enable the monotone action search.
+    * @param verificationRate the fraction of states whose optimal action is verified by means of an exhaustive search, in [0,1].
+    */
+   public void setMonotoneActionSearch(boolean monotoneActionSearch, double verificationRate){
+      if(verificationRate < 0 || verificationRate > 1)
+         throw new NullPointerException("Verification rate must be in [0,1]");
+      this.monotoneActionSearch = monotoneActionSearch;
+      this.verificationRate = verificationRate;
+   }
+   
+   /**
+    * Returns the number of states for which the exhaustive search of the verification mode 
+    * found a better action than the monotone action search, see {@code setMonotoneActionSearch}.
+    * 
+    * @return the number of violations of the monotone action search detected.
+    */
+   public long getMonotoneSearchViolations(){
+      return this.monotoneSearchViolations.get();
+   }
+   
+   /**
+    * Returns the transition kernel of period {@code period}, compiling it if necessary.
+    * 
+    * @param period the target period.
+    * @return the transition kernel of period {@code period}.
+    */
+   public synchronized TransitionKernel getTransitionKernel(int period){
+      if(this.kernels == null)
+         this.kernels = new TransitionKernel[this.horizonLength];
+      if(this.kernels[period] == null && this.stationary){
+         for(int t = period + 1; t < this.horizonLength; t++){
+            if(this.kernels[t] != null && this.getTransitionProbability().hasIdenticalDistributions(period, t)){
+               this.kernels[period] = this.kernels[t];
+               break;
+            }
+         }
+      }
+      if(this.kernels[period] == null)
+         this.kernels[period] = TransitionKernel.compile(period, (StateSpaceImpl)this.getStateSpace(period), this.getTransitionProbability(), this.getValueRepository(), this.getExecutor());
+      return this.kernels[period];
+   }
+   
+   /**
+    * Sets the transition kernel of period {@code period}, e.g. a kernel compiled for another problem instance 
+    * with identical dynamics.
+    * 
+    * @param period the target period.
+    * @param kernel the transition kernel.
+    */
+   public synchronized void setTransitionKernel(int period, TransitionKernel kernel){
+      if(kernel.getMinIntState() != StateImpl.getMinIntState() || 
+            kernel.getStates() != StateImpl.getMaxIntState() - StateImpl.getMinIntState() + 1)
+         throw new NullPointerException("Transition kernel does not match the state space boundaries");
+      if(this.kernels == null)
+         this.kernels = new TransitionKernel[this.horizonLength];
+      this.kernels[period] = kernel;
+   }
+   
+   @Override
+   protected void releaseMemory(int period){
+      super.releaseMemory(period);
+      synchronized(this){
+         if(this.kernels != null && period + 1 < this.horizonLength)
+            this.kernels[period + 1] = null;
+      }
+   }
+   
+   @Override
+   protected void recurse(int period){
+      boolean sampled = ((StateSpaceImpl)this.getStateSpace(period)).samplingScheme != SamplingScheme.NONE;
+      boolean kernel = this.transitionKernels && !sampled && 
+            ((StateSpaceImpl)this.getStateSpace(period + 1)).samplingScheme == SamplingScheme.NONE;
+      if(this.monotoneActionSearch && !sampled)
+         this.recurseMonotone(period, kernel);
+      else if(kernel)
+         this.recurseKernel(period);
+      else
+         super.recurse(period);
+   }
+   
+   private void recurseKernel(int period){
+      TransitionKernel kernel = this.getTransitionKernel(period);
+      double[] values = this.getOptimalExpectedValues(period + 1);
+      double discountFactor = this.getValueRepository().getDiscountFactor();
+      StateSpaceImpl periodStateSpace = (StateSpaceImpl)this.getStateSpace(period);
+      this.forEachIndex(0, kernel.getStates(), i -> {
+         State state = periodStateSpace.getState(new StateDescriptorImpl(period, kernel.getMinIntState() + i));
+         int bestRow = -1;
+         double bestValue = this.direction == OptimisationDirection.MIN ? Double.MAX_VALUE : Double.MIN_VALUE;
+         for(int row = kernel.getFirstRow(i); row < kernel.getFirstRow(i + 1); row++){
+            double currentValue = kernel.getExpectedValue(row, values, discountFactor);
+            if(bestRow < 0 || Double.isNaN(bestValue) || 
+                  (this.direction == OptimisationDirection.MIN ? currentValue < bestValue : currentValue > bestValue)){
+               bestRow = row;
+               bestValue = currentValue;
+            }
+         }
+         this.getValueRepository().setOptimalExpectedValue(state, bestValue);
+         if(bestRow >= 0)
+            this.getValueRepository().setOptimalAction(state, new ActionImpl(state, kernel.getIntAction(bestRow)));
+         this.stateProcessed(period);
+      });
+   }
+   
+   /**
+    * Recursion step of the monotone action search, see {@code setMonotoneActionSearch}. Each state is identified by its 
+    * index {@code intState - minIntState}; pending index intervals are stored together with the bounds on the 
+    * optimal actions of their states, and the middle states of all pending intervals are solved in parallel.
+    */
+   private void recurseMonotone(int period, boolean useKernel){
+      TransitionKernel kernel = useKernel ? this.getTransitionKernel(period) : null;
+      double[] values = useKernel ? this.getOptimalExpectedValues(period + 1) : null;
+      StateSpaceImpl periodStateSpace = (StateSpaceImpl)this.getStateSpace(period);
+      int states = StateImpl.getMaxIntState() - StateImpl.getMinIntState() + 1;
+      int[] intActions = new int[states];
+      int[][] intervals = new int[][]{{0, states - 1, Integer.MIN_VALUE, Integer.MAX_VALUE}};
+      while(intervals.length > 0){
+         int[][] current = intervals;
+         this.forEachIndex(0, current.length, j -> {
+            int[] interval = current[j];
+            int i = (interval[0] + interval[1]) >>> 1;
+            State state = periodStateSpace.getState(new StateDescriptorImpl(period, StateImpl.getMinIntState() + i));
+            ActionSearch search = this.searchActions(state, interval[2], interval[3], kernel, values);
+            if(search.action == null)
+               search = this.searchActions(state, Integer.MIN_VALUE, Integer.MAX_VALUE, kernel, values);
+            if(this.verificationRate > 0 && ThreadLocalRandom.current().nextDouble() < this.verificationRate)
+               search = this.verify(state, search, kernel, values);
+            intActions[i] = search.action == null ? Integer.MIN_VALUE : search.intAction;
+            this.getValueRepository().setOptimalExpectedValue(state, search.value);
+            if(search.action != null)
+               this.getValueRepository().setOptimalAction(state, search.action);
+            this.stateProcessed(period);
+         });
+         ArrayList<int[]> next = new ArrayList<int[]>(2*current.length);
+         for(int[] interval : current){
+            int i = (interval[0] + interval[1]) >>> 1;
+            boolean solved = intActions[i] != Integer.MIN_VALUE;
+            if(interval[0] < i)
+               next.add(new int[]{interval[0], i - 1, solved ? intActions[i] : interval[2], interval[3]});
+            if(i < interval[1])
+               next.add(new int[]{i + 1, interval[1], interval[2], solved ? intActions[i] : interval[3]});
+         }
+         intervals = next.toArray(new int[next.size()][]);
+      }
+   }
+   
+   /**
+    * Searches the feasible actions of {@code state} whose integer action falls in {@code [lowerIntAction, upperIntAction]}; 
+    * expected values are computed by means of {@code kernel}, if this is not null, or by means of the value repository.
+    */
+   private ActionSearch searchActions(State state, int lowerIntAction, int upperIntAction, TransitionKernel kernel, double[] values){
+      int intState = ((StateImpl)state).getInitialIntState();
+      ActionSearch search = new ActionSearch();
+      if(kernel != null){
+         double discountFactor = this.getValueRepository().getDiscountFactor();
+         int i = intState - kernel.getMinIntState();
+         int bestRow = -1;
+         for(int row = kernel.getFirstRow(i); row < kernel.getFirstRow(i + 1); row++){
+            int intAction = kernel.getIntAction(row);
+            if(intAction < lowerIntAction || intAction > upperIntAction)
+               continue;
+            double currentValue = kernel.getExpectedValue(row, values, discountFactor);
+            if(bestRow < 0 || search.improves(currentValue, this.direction)){
+               bestRow = row;
+               search.value = currentValue;
+               search.intAction = intAction;
+            }
+         }
+         if(bestRow >= 0)
+            search.action = new ActionImpl(state, search.intAction);
+      }else{
+         Iterator<Action> actions = this.getFeasibleActionIterator(state);
+         while(actions.hasNext()){
+            Action action = actions.next();
+            int intAction = ((ActionImpl)action).getIntAction();
+            if(intAction < lowerIntAction || intAction > upperIntAction)
+               continue;
+            double currentValue = this.getValueRepository().getExpectedValue(state, action, this.getTransitionProbability());
+            if(search.action == null || search.improves(currentValue, this.direction)){
+               search.action = action;
+               search.value = currentValue;
+               search.intAction = intAction;
+            }
+         }
+      }
+      return search;
+   }
+   
+   /**
+    * Compares {@code search} against an exhaustive search of the feasible actions of {@code state}, 
+    * and returns the better of the two.
+    */
+   private ActionSearch verify(State state, ActionSearch search, TransitionKernel kernel, double[] values){
+      ActionSearch exhaustive = this.searchActions(state, Integer.MIN_VALUE, Integer.MAX_VALUE, kernel, values);
+      double tolerance = 1e-9*Math.max(1, Math.abs(exhaustive.value));
+      if(exhaustive.action != null && 
+            (this.direction == OptimisationDirection.MIN ? exhaustive.value < search.value - tolerance : exhaustive.value > search.value + tolerance)){
+         this.monotoneSearchViolations.incrementAndGet();
+         logger.warn("Monotone action search violated in period "+state.getPeriod()+", state "+((StateImpl)state).getInitialState()+
+               ": "+search.value+" (action "+ActionImpl.intActionToAction(search.intAction)+") vs "+
+               exhaustive.value+" (action "+ActionImpl.intActionToAction(exhaustive.intAction)+")");
+         return exhaustive;
+      }
+      return search;
+   }
+   
+   /**
+    * The outcome of a search over the feasible actions of a state.
+    */
+   private static class ActionSearch {
+      Action action;
+      double value = Double.NaN;
+      int intAction;
+      
+      boolean improves(double currentValue, OptimisationDirection direction){
+         return Double.isNaN(this.value) || 
+               (direction == OptimisationDirection.MIN ? currentValue < this.value : currentValue > this.value);
+      }
+   }
+   
+   /**
+    * Returns the optimal expected values of all states in period {@code period}, indexed 
+    * by {@code intState - minIntState}; missing values are approximated, if a value function approximator 
+    * has been set, or set to {@code Double.NaN}.
+    */
+   private double[] getOptimalExpectedValues(int period){
+      StateSpaceImpl periodStateSpace = (StateSpaceImpl)this.getStateSpace(period);
+      double[] values = new double[StateImpl.getMaxIntState() - StateImpl.getMinIntState() + 1];
+      Map<State,Double> optimalValues = this.getValueRepository().getOptimalValueHashTable();
+      ValueFunctionApproximator approximator = this.getValueRepository().getValueFunctionApproximator();
+      this.forEachIndex(0, values.length, i -> {
+         State state = periodStateSpace.getState(new StateDescriptorImpl(period, StateImpl.getMinIntState() + i));
+         Double value = optimalValues.get(state);
+         if(value != null)
+            values[i] = value.doubleValue();
+         else
+            values[i] = approximator == null ? Double.NaN : approximator.approximate(state, optimalValues);
+      });
+      return values;
+   }
+   
+   @Override
+   protected void writeCheckpoint(int period, File file) throws IOException {
+      PolicyWriter.writePeriod(file, this, period);
+   }
+   
+   @Override
+   protected void readCheckpoint(int period, File file, boolean values) throws IOException {
+      PolicyReader reader = new PolicyReader(file);
+      if(reader.getMinIntState()[0] != StateImpl.getMinIntState() || reader.getMaxIntState()[0] != StateImpl.getMaxIntState())
+         throw new IOException("Checkpoint does not match the state space boundaries: "+file);
+      StateSpaceImpl stateSpace = (StateSpaceImpl)this.getStateSpace(period);
+      for(int intState = StateImpl.getMinIntState(); intState <= StateImpl.getMaxIntState(); intState++){
+         int intAction = reader.getOptimalIntAction(period, intState);
+         if(intAction == PolicyReader.NO_ACTION)
+            continue;
+         State state = stateSpace.getState(new StateDescriptorImpl(period, intState));
+         this.getValueRepository().setOptimalAction(state, new ActionImpl(state, intAction));
+         double value = reader.getOptimalExpectedValueOfIntState(period, intState);
+         if(values && !Double.isNaN(value))
+            this.getValueRepository().setOptimalExpectedValue(state, value);
+      }
+   }
+   
    public double getExpectedCost(double initialState){
       StateDescriptorImpl stateDescriptor = new StateDescriptorImpl(0, initialState);
       return getExpectedCost(stateDescriptor);
@@ -224,6 +591,8 @@ public class BackwardRecursionImpl extends BackwardRecursion{
       try{
          return getExpectedValue(state);
       }catch(NullPointerException e){
+         if(this.isUnsampled(state))
+            return this.searchBestAction(state).getBestValue();
          recurse(state.getPeriod());
          return getExpectedValue(state);
       }
@@ -231,6 +600,11 @@ public class BackwardRecursionImpl extends BackwardRecursion{
    
    public ActionImpl getOptimalAction(StateDescriptorImpl stateDescriptor){
       State state = ((StateSpaceImpl)this.getStateSpace(stateDescriptor.getPeriod())).getState(stateDescriptor);
+      Action action = this.getValueRepository().getOptimalAction(state);
+      if(action != null)
+         return (ActionImpl) action;
+      if(this.isUnsampled(state))
+         return (ActionImpl) this.searchBestAction(state).getBestAction();
       try{
          getExpectedValue(state);
       }catch(NullPointerException e){
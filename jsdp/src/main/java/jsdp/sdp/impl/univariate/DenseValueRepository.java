@@ -0,0 +1,275 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp.impl.univariate;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import gnu.trove.map.hash.THashMap;
+import jsdp.sdp.Action;
+import jsdp.sdp.ImmediateValueFunction;
+import jsdp.sdp.State;
+import jsdp.sdp.StateAction;
+import jsdp.sdp.StateSpace;
+import jsdp.sdp.ValueRepository;
+
+/**
+ * A {@code ValueRepository} for univariate state spaces that stores optimal values and 
+ * optimal actions in primitive arrays rather than in hash maps. The optimal action of state {@code intState}
+ * in period {@code period} is stored at position {@code period * range + (intState - minIntState)}, 
+ * where {@code range} is the number of states in the state space of a period, as defined 
+ * by {@code StateImpl.setStateBoundaries}. Optimal actions are stored as {@code ActionImpl} 
+ * integer actions and rebuilt on demand. Optimal values are stored in one array of length {@code range} 
+ * per period, which is allocated when the first value of the period is stored and can be released 
+ * via {@code removeOptimalExpectedValues}.
+ * 
+ * Missing values are encoded as {@code Double.NaN}; as for hash based repositories, 
+ * {@code getOptimalExpectedValue} throws a {@code NullPointerException} when no value has been stored for a state.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class DenseValueRepository extends ValueRepository {
+   
+   private static final int NO_ACTION = Integer.MIN_VALUE;
+   
+   private final int periods;
+   private final int minIntState;
+   private final int range;
+   
+   private final AtomicReferenceArray<double[]> optimalValues;
+   private final int[] optimalActions;
+   
+   /**
+    * Creates a new dense value repository covering {@code periods} periods, each of which
+    * spans the state space boundaries currently set in {@code StateImpl}.
+    * 
+    * @param immediateValueFunction the immediate value of a transition from {@code initialState} to 
+    * {@code finalState} under a chosen {@code action}.
+    * @param discountFactor the value function discount factor
+    * @param periods the number of periods covered, i.e. the planning horizon length plus one.
+    */
+   public DenseValueRepository(ImmediateValueFunction<State, Action, Double> immediateValueFunction, double discountFactor, int periods){
+      this.setImmediateValue(immediateValueFunction);
+      this.discountFactor = discountFactor;
+      this.periods = periods;
+      this.minIntState = StateImpl.getMinIntState();
+      this.range = StateImpl.getMaxIntState() - StateImpl.getMinIntState() + 1;
+      long size = (long) periods * this.range;
+      if(size > Integer.MAX_VALUE)
+         throw new NullPointerException("State space too large for a dense value repository");
+      this.optimalValues = new AtomicReferenceArray<double[]>(periods);
+      this.optimalActions = new int[(int) size];
+      Arrays.fill(this.optimalActions, NO_ACTION);
+      this.valueHashTable = Collections.synchronizedMap(new THashMap<StateAction,Double>());
+      this.optimalValueHashTable = new OptimalValueMap();
+      this.optimalActionHashTable = new OptimalActionMap();
+   }
+   
+   private int index(int period, int intState){
+      int offset = intState - this.minIntState;
+      if(period < 0 || period >= this.periods || offset < 0 || offset >= this.range)
+         return -1;
+      return period * this.range + offset;
+   }
+   
+   private int index(State state){
+      return index(state.getPeriod(), ((StateImpl) state).getInitialIntState());
+   }
+   
+   private State stateAt(int index){
+      return new StateImpl(new StateDescriptorImpl(index / this.range, this.minIntState + index % this.range));
+   }
+   
+   private double optimalValueAt(int index){
+      double[] values = index < 0 ? null : this.optimalValues.get(index / this.range);
+      return values == null ? Double.NaN : values[index % this.range];
+   }
+   
+   private double[] allocateOptimalValues(int period){
+      double[] values = new double[this.range];
+      Arrays.fill(values, Double.NaN);
+      return this.optimalValues.compareAndSet(period, null, values) ? values : this.optimalValues.get(period);
+   }
+   
+   @Override
+   public void setOptimalExpectedValue(State state, double expectedValue){
+      int index = index(state);
+      if(index < 0)
+         throw new NullPointerException("State outside the state space boundaries: " + state);
+      double[] values = this.optimalValues.get(state.getPeriod());
+      if(values == null)
+         values = allocateOptimalValues(state.getPeriod());
+      values[index % this.range] = expectedValue;
+   }
+   
+   @Override
+   public double getOptimalExpectedValue(State state){
+      double value = optimalValueAt(index(state));
+      if(Double.isNaN(value))
+         throw new NullPointerException("No optimal expected value for state: " + state);
+      return value;
+   }
+   
+   /**
+    * Releases the optimal values of the period associated with {@code stateSpace}.
+    * 
+    * @param stateSpace the state space whose optimal values should be removed.
+    */
+   @Override
+   public void removeOptimalExpectedValues(StateSpace<?> stateSpace){
+      int period = stateSpace.getPeriod();
+      if(period >= 0 && period < this.periods)
+         this.optimalValues.set(period, null);
+   }
+   
+   @Override
+   public void setOptimalAction(State state, Action action){
+      int index = index(state);
+      if(index < 0)
+         throw new NullPointerException("State outside the state space boundaries: " + state);
+      this.optimalActions[index] = ((ActionImpl) action).getIntAction();
+   }
+   
+   @Override
+   public Action getOptimalAction(State state){
+      int index = index(state);
+      if(index < 0 || this.optimalActions[index] == NO_ACTION)
+         return null;
+      return new ActionImpl(state, this.optimalActions[index]);
+   }
+   
+   /**
+    * Read-only {@code Map} view of the optimal values.
+    */
+   private class OptimalValueMap extends AbstractMap<State,Double> {
+      @Override
+      public Double get(Object key){
+         double value = optimalValueAt(key instanceof StateImpl ? index((StateImpl) key) : -1);
+         return Double.isNaN(value) ? null : Double.valueOf(value);
+      }
+      
+      @Override
+      public boolean containsKey(Object key){
+         return get(key) != null;
+      }
+      
+      @Override
+      public Set<Map.Entry<State,Double>> entrySet(){
+         return new EntrySet<Double>(){
+            @Override
+            boolean isSet(int index){
+               return !Double.isNaN(optimalValueAt(index));
+            }
+            
+            @Override
+            Double valueAt(State state, int index){
+               return Double.valueOf(optimalValueAt(index));
+            }
+         };
+      }
+   }
+   
+   /**
+    * Read-only {@code Map} view of the optimal actions.
+    */
+   private class OptimalActionMap extends AbstractMap<State,Action> {
+      @Override
+      public Action get(Object key){
+         return key instanceof StateImpl ? getOptimalAction((StateImpl) key) : null;
+      }
+      
+      @Override
+      public boolean containsKey(Object key){
+         return get(key) != null;
+      }
+      
+      @Override
+      public Set<Map.Entry<State,Action>> entrySet(){
+         return new EntrySet<Action>(){
+            @Override
+            boolean isSet(int index){
+               return optimalActions[index] != NO_ACTION;
+            }
+            
+            @Override
+            Action valueAt(State state, int index){
+               return new ActionImpl(state, optimalActions[index]);
+            }
+         };
+      }
+   }
+   
+   private abstract class EntrySet<V> extends AbstractSet<Map.Entry<State,V>> {
+      
+      abstract boolean isSet(int index);
+      
+      abstract V valueAt(State state, int index);
+      
+      @Override
+      public Iterator<Map.Entry<State,V>> iterator(){
+         return new Iterator<Map.Entry<State,V>>(){
+            int next = advance(0);
+            
+            private int advance(int from){
+               while(from < optimalActions.length && !isSet(from)) from++;
+               return from;
+            }
+            
+            @Override
+            public boolean hasNext(){
+               return next < optimalActions.length;
+            }
+            
+            @Override
+            public Map.Entry<State,V> next(){
+               if(!hasNext()) 
+                  throw new NoSuchElementException();
+               State state = stateAt(next);
+               Map.Entry<State,V> entry = new AbstractMap.SimpleImmutableEntry<State,V>(state, valueAt(state, next));
+               next = advance(next + 1);
+               return entry;
+            }
+         };
+      }
+      
+      @Override
+      public int size(){
+         int size = 0;
+         for(int i = 0; i < optimalActions.length; i++) 
+            if(isSet(i)) size++;
+         return size;
+      }
+   }
+}
@@ -0,0 +1,353 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp.impl.univariate;
+
+import java.util.ArrayList;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import jsdp.sdp.Action;
+import jsdp.sdp.HashType;
+import jsdp.sdp.ImmediateValueFunction;
+import jsdp.sdp.RandomOutcomeFunction;
+import jsdp.sdp.Recursion;
+import jsdp.sdp.State;
+import jsdp.sdp.ValueRepository;
+
+import umontreal.ssj.probdist.Distribution;
+
+/**
+ * Solves stationary discounted infinite-horizon problems. The dynamics of a single period are compiled 
+ * into a {@code TransitionKernel}, and the optimal value function is computed as a fixed point by means of 
+ * value iteration, Gauss-Seidel value iteration, or modified policy iteration. Rather than unrolling a long 
+ * planning horizon in a {@code BackwardRecursionImpl}, only the state spaces of two consecutive periods, 
+ * the kernel, and at most two value vectors are stored.
+ * 
+ * Once the problem has been solved, optimal expected values and actions are stored in the value repository 
+ * for the states of period 0.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class InfiniteHorizonRecursionImpl extends Recursion {
+   
+   static final Logger logger = LogManager.getLogger(InfiniteHorizonRecursionImpl.class.getName());
+   
+   private TransitionKernel kernel;
+   private int iterations;
+   
+   /**
+    * Creates an instance of the problem and initializes state space, transition probability and value repository.
+    * 
+    * @param optimisationDirection specifies if this is a mininimisation or a maximisation problem 
+    * @param demand the state-independent distribution of random demand in each period.
+    * @param supportLB the lower bound of the distribution of random demand.
+    * @param supportUB the upper bound of the distribution of random demand.
+    * @param immediateValueFunction the immediate value function.
+    * @param randomOutcomeFunction the random outcome function.
+    * @param buildActionList the action list builder.
+    * @param idempotentAction the idempotent action; i.e. an action that leaves the system in the same state from period {@code t} to period {@code t+1}.
+    * @param discountFactor the discount factor in the functional equation, in [0,1).
+    * @param hash the type of hash used to store the state space
+    */
+   public InfiniteHorizonRecursionImpl(OptimisationDirection optimisationDirection,
+                                       Distribution demand,
+                                       double supportLB,
+                                       double supportUB,
+                                       ImmediateValueFunction<State, Action, Double> immediateValueFunction,
+                                       RandomOutcomeFunction<State, Action, Double> randomOutcomeFunction,
+                                       Function<State, ArrayList<Action>> buildActionList,
+                                       Function<State, Action> idempotentAction,
+                                       double discountFactor,
+                                       HashType hash){
+      super(optimisationDirection);
+      hash = this.initialise(buildActionList, idempotentAction, hash);
+      this.transitionProbability = new TransitionProbabilityImpl(
+            new Distribution[]{demand}, new double[]{supportLB}, new double[]{supportUB}, randomOutcomeFunction, (StateSpaceImpl[])this.getStateSpace(), StateImpl.getStepSize());
+      this.valueRepository = this.buildValueRepository(immediateValueFunction, discountFactor, hash);
+   }
+   
+   /**
+    * Creates an instance of the problem and initializes state space, transition probability and value repository.
+    * 
+    * @param optimisationDirection specifies if this is a mininimisation or a maximisation problem 
+    * @param demand the state and action dependent distribution of random demand, a two-dimensional array of {@code Distribution}, first index is the action index, second index is the state index.
+    * @param supportLB the lower bound of demand support
+    * @param supportUB the upper bound of demand support
+    * @param immediateValueFunction the immediate value function.
+    * @param randomOutcomeFunction the random outcome function.
+    * @param buildActionList the action list builder.
+    * @param idempotentAction the idempotent action; i.e. an action that leaves the system in the same state from period {@code t} to period {@code t+1}.
+    * @param discountFactor the discount factor in the functional equation, in [0,1).
+    * @param hash the type of hash used to store the state space
+    */
+   public InfiniteHorizonRecursionImpl(OptimisationDirection optimisationDirection,
+                                       Distribution[][] demand,
+                                       double[][] supportLB,
+                                       double[][] supportUB,
+                                       ImmediateValueFunction<State, Action, Double> immediateValueFunction,
+                                       RandomOutcomeFunction<State, Action, Double> randomOutcomeFunction,
+                                       Function<State, ArrayList<Action>> buildActionList,
+                                       Function<State, Action> idempotentAction,
+                                       double discountFactor,
+                                       HashType hash){
+      super(optimisationDirection);
+      hash = this.initialise(buildActionList, idempotentAction, hash);
+      this.transitionProbability = new TransitionProbabilityImpl(
+            new Distribution[][][]{demand}, new double[][][]{supportLB}, new double[][][]{supportUB}, randomOutcomeFunction, (StateSpaceImpl[])this.getStateSpace(), StateImpl.getStepSize());
+      this.valueRepository = this.buildValueRepository(immediateValueFunction, discountFactor, hash);
+   }
+   
+   /**
+    * Initializes the state spaces of two consecutive periods, and returns the type of hash used.
+    */
+   private HashType initialise(Function<State, ArrayList<Action>> buildActionList, Function<State, Action> idempotentAction, HashType hash){
+      this.horizonLength = 1;
+      hash = HashType.resolve(hash, 2L*(StateImpl.getMaxIntState() - StateImpl.getMinIntState() + 1));
+      this.stateSpace = new StateSpaceImpl[2];
+      for(int i = 0; i < 2; i++) 
+         this.stateSpace[i] = new StateSpaceImpl(i, buildActionList, idempotentAction, hash);
+      return hash;
+   }
+   
+   private ValueRepository buildValueRepository(ImmediateValueFunction<State, Action, Double> immediateValueFunction, double discountFactor, HashType hash){
+      if(discountFactor < 0 || discountFactor >= 1)
+         throw new NullPointerException("Discount factor must be in [0,1)");
+      if(hash == HashType.DENSE_ARRAY)
+         return new DenseValueRepository(immediateValueFunction, discountFactor, 2);
+      else
+         return new ValueRepository(immediateValueFunction, discountFactor, hash);
+   }
+   
+   @Override
+   public TransitionProbabilityImpl getTransitionProbability(){
+      return (TransitionProbabilityImpl) this.transitionProbability; 
+   }
+   
+   /**
+    * Returns the transition kernel of the stationary dynamics, compiling it if necessary.
+    * 
+    * @return the transition kernel of the stationary dynamics.
+    */
+   public synchronized TransitionKernel getTransitionKernel(){
+      if(this.kernel == null)
+         this.kernel = TransitionKernel.compile(0, (StateSpaceImpl)this.getStateSpace(0), this.getTransitionProbability(), this.getValueRepository(), this.getExecutor());
+      return this.kernel;
+   }
+   
+   /**
+    * Returns the number of iterations carried out by the last run.
+    * 
+    * @return the number of iterations carried out by the last run.
+    */
+   public int getIterations(){
+      return this.iterations;
+   }
+   
+   /**
+    * Runs value iteration until the span of the difference between two consecutive value functions falls below 
+    * {@code epsilon(1-discountFactor)/discountFactor}; the values returned are the midpoints of the resulting 
+    * bounds on the optimal values, which are within {@code epsilon/2} of the optimal ones, and the policy is 
+    * greedy with respect to the last value function.
+    * 
+    * @param epsilon the tolerance.
+    */
+   public void runValueIteration(double epsilon){
+      TransitionKernel kernel = this.getTransitionKernel();
+      double discountFactor = this.getValueRepository().getDiscountFactor();
+      double[] current = new double[kernel.getStates()];
+      double[] next = new double[kernel.getStates()];
+      int[] rows = new int[kernel.getStates()];
+      double threshold = epsilon*(1 - discountFactor)/Math.max(discountFactor, Double.MIN_VALUE);
+      double min, max;
+      this.iterations = 0;
+      while(true){
+         double[] v = current;
+         double[] w = next;
+         this.forEachIndex(0, kernel.getStates(), i -> {
+            rows[i] = this.bestRow(kernel, i, v, discountFactor);
+            w[i] = rows[i] < 0 ? 0 : kernel.getExpectedValue(rows[i], v, discountFactor);
+         });
+         this.iterations++;
+         min = Double.POSITIVE_INFINITY;
+         max = Double.NEGATIVE_INFINITY;
+         for(int i = 0; i < w.length; i++){
+            min = Math.min(min, w[i] - v[i]);
+            max = Math.max(max, w[i] - v[i]);
+         }
+         current = w;
+         next = v;
+         if(max - min < threshold)
+            break;
+      }
+      this.store(shift(current, discountFactor, min, max), rows);
+   }
+   
+   /**
+    * Runs Gauss-Seidel value iteration, in which states are updated in place, in increasing order, so that each 
+    * update relies on the values already updated in the same sweep. Sweeps stop when the maximum change of a value 
+    * falls below {@code epsilon(1-discountFactor)/(2 discountFactor)}, so that the greedy policy is {@code epsilon}-optimal. 
+    * Sweeps are inherently sequential.
+    * 
+    * @param epsilon the tolerance.
+    */
+   public void runGaussSeidelValueIteration(double epsilon){
+      TransitionKernel kernel = this.getTransitionKernel();
+      double discountFactor = this.getValueRepository().getDiscountFactor();
+      double[] v = new double[kernel.getStates()];
+      int[] rows = new int[kernel.getStates()];
+      double threshold = epsilon*(1 - discountFactor)/(2*Math.max(discountFactor, Double.MIN_VALUE));
+      this.iterations = 0;
+      double change;
+      do{
+         change = 0;
+         for(int i = 0; i < v.length; i++){
+            rows[i] = this.bestRow(kernel, i, v, discountFactor);
+            double value = rows[i] < 0 ? 0 : kernel.getExpectedValue(rows[i], v, discountFactor);
+            change = Math.max(change, Math.abs(value - v[i]));
+            v[i] = value;
+         }
+         this.iterations++;
+      }while(change >= threshold);
+      this.store(v, rows);
+   }
+   
+   /**
+    * Runs modified policy iteration: each iteration improves the policy greedily with respect to the current 
+    * value function, and then partially evaluates it by means of {@code evaluationSweeps} sweeps of the 
+    * policy's own value iteration operator. Iterations stop when the span of the difference between the 
+    * improved and the current value function falls below {@code epsilon(1-discountFactor)/discountFactor}; as for 
+    * value iteration, the values returned are the midpoints of the resulting bounds on the optimal values. 
+    * With one evaluation sweep this is value iteration; as the number of sweeps grows it approaches policy iteration.
+    * 
+    * @param evaluationSweeps the number of partial policy evaluation sweeps per iteration.
+    * @param epsilon the tolerance.
+    */
+   public void runModifiedPolicyIteration(int evaluationSweeps, double epsilon){
+      if(evaluationSweeps < 1)
+         throw new NullPointerException("At least one evaluation sweep is required");
+      TransitionKernel kernel = this.getTransitionKernel();
+      double discountFactor = this.getValueRepository().getDiscountFactor();
+      double[] current = new double[kernel.getStates()];
+      double[] next = new double[kernel.getStates()];
+      int[] rows = new int[kernel.getStates()];
+      double threshold = epsilon*(1 - discountFactor)/Math.max(discountFactor, Double.MIN_VALUE);
+      this.iterations = 0;
+      while(true){
+         double[] v = current;
+         double[] w = next;
+         this.forEachIndex(0, kernel.getStates(), i -> {
+            rows[i] = this.bestRow(kernel, i, v, discountFactor);
+            w[i] = rows[i] < 0 ? 0 : kernel.getExpectedValue(rows[i], v, discountFactor);
+         });
+         this.iterations++;
+         double min = Double.POSITIVE_INFINITY;
+         double max = Double.NEGATIVE_INFINITY;
+         for(int i = 0; i < w.length; i++){
+            min = Math.min(min, w[i] - v[i]);
+            max = Math.max(max, w[i] - v[i]);
+         }
+         if(max - min < threshold){
+            this.store(shift(w, discountFactor, min, max), rows);
+            return;
+         }
+         current = w;
+         next = v;
+         for(int sweep = 1; sweep < evaluationSweeps; sweep++){
+            double[] x = current;
+            double[] y = next;
+            this.forEachIndex(0, kernel.getStates(), i -> y[i] = rows[i] < 0 ? 0 : kernel.getExpectedValue(rows[i], x, discountFactor));
+            current = y;
+            next = x;
+         }
+      }
+   }
+   
+   /**
+    * Shifts {@code values}, the result of applying the optimality operator to a value function, to the midpoint of the 
+    * bounds on the optimal values implied by the minimum {@code min} and maximum {@code max} difference between 
+    * {@code values} and that value function.
+    */
+   private static double[] shift(double[] values, double discountFactor, double min, double max){
+      double shift = discountFactor/(1 - discountFactor)*(max + min)/2;
+      for(int i = 0; i < values.length; i++)
+         values[i] += shift;
+      return values;
+   }
+   
+   /**
+    * Returns the row of the best action of state {@code i} with respect to values {@code v}, or -1 if the state 
+    * has no feasible action.
+    */
+   private int bestRow(TransitionKernel kernel, int i, double[] v, double discountFactor){
+      int bestRow = -1;
+      double bestValue = Double.NaN;
+      for(int row = kernel.getFirstRow(i); row < kernel.getFirstRow(i + 1); row++){
+         double currentValue = kernel.getExpectedValue(row, v, discountFactor);
+         if(bestRow < 0 || Double.isNaN(bestValue) || 
+               (this.direction == OptimisationDirection.MIN ? currentValue < bestValue : currentValue > bestValue)){
+            bestRow = row;
+            bestValue = currentValue;
+         }
+      }
+      return bestRow;
+   }
+   
+   private void forEachIndex(int from, int to, IntConsumer action){
+      if(this.executor == null)
+         IntStream.range(from, to).parallel().forEach(action);
+      else
+         this.executor.forEach(from, to, action);
+   }
+   
+   /**
+    * Stores values and the actions of {@code rows} in the value repository for the states of period 0.
+    */
+   private void store(double[] values, int[] rows){
+      StateSpaceImpl stateSpace = (StateSpaceImpl)this.getStateSpace(0);
+      for(int i = 0; i < values.length; i++){
+         State state = stateSpace.getState(new StateDescriptorImpl(0, this.kernel.getMinIntState() + i));
+         this.getValueRepository().setOptimalExpectedValue(state, values[i]);
+         if(rows[i] >= 0)
+            this.getValueRepository().setOptimalAction(state, new ActionImpl(state, this.kernel.getIntAction(rows[i])));
+      }
+      logger.info("Converged after "+this.iterations+" iterations");
+   }
+   
+   public double getExpectedCost(double initialState){
+      return this.getExpectedValue(((StateSpaceImpl)this.getStateSpace(0)).getState(new StateDescriptorImpl(0, initialState)));
+   }
+   
+   public ActionImpl getOptimalAction(double initialState){
+      State state = ((StateSpaceImpl)this.getStateSpace(0)).getState(new StateDescriptorImpl(0, initialState));
+      return (ActionImpl) this.getValueRepository().getOptimalAction(state);
+   }
+}
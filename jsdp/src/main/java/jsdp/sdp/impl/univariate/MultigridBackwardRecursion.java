@@ -0,0 +1,219 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp.impl.univariate;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import jsdp.sdp.Action;
+import jsdp.sdp.ActionSearchStrategy;
+import jsdp.sdp.BestActionRepository;
+import jsdp.sdp.State;
+import jsdp.sdp.Recursion;
+
+/**
+ * A coarse-to-fine driver for {@code BackwardRecursionImpl}. The problem is solved on a sequence of increasingly 
+ * fine state discretisations; the optimal policy computed on each grid bounds the action search on the next grid. 
+ * For a state of the finer grid, only actions that fall within {@code margin} coarse steps of the optimal actions 
+ * of the coarse states within {@code margin} coarse steps of the state are evaluated: in regions where the coarse policy 
+ * is flat only a few actions are considered, while in regions where it changes quickly, e.g. around a reorder point, 
+ * the range of actions widens accordingly. States for which no feasible action falls in this range are searched exhaustively.
+ * 
+ * Only the action space is pruned: every grid is uniform and covers the whole state space, so the solution of each 
+ * finer grid still visits all of its states, and the state grid is not refined locally where the value function 
+ * or the policy change quickly. The result is approximate: the bounded action search does not check optimality, and 
+ * if the optimal action of a state falls outside its range, e.g. because the policy jumps by more than {@code margin} 
+ * coarse steps between neighbouring coarse states, a suboptimal action is silently returned, and the value of the state 
+ * is overestimated in a minimisation problem, underestimated in a maximisation one. Larger margins reduce this risk.
+ * 
+ * Since state space boundaries are global, see {@code StateImpl.setStateBoundaries}, grids are solved one after 
+ * the other, and each recursion is built by {@code recursionBuilder} after the boundaries of its grid have been set; 
+ * the builder must therefore discretise random outcomes and generate actions according to the current step size.
+ * The bounded action search is installed as the action search strategy of the recursions of all grids but the 
+ * coarsest; monotone action search and transition kernels, which do not rely on action search strategies, should 
+ * therefore be disabled.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class MultigridBackwardRecursion {
+   
+   static final Logger logger = LogManager.getLogger(MultigridBackwardRecursion.class.getName());
+   
+   private final double[] stepSizes;
+   private final double minState;
+   private final double maxState;
+   private final Supplier<BackwardRecursionImpl> recursionBuilder;
+   private int margin = 1;
+   
+   private BackwardRecursionImpl recursion;
+   
+   /**
+    * Creates a coarse-to-fine driver.
+    * 
+    * @param stepSizes the step sizes of the grids, in decreasing order; the last one is the step size of the final solution.
+    * @param minState the minimum value used to encode a state.
+    * @param maxState the maximum value used to encode a state.
+    * @param recursionBuilder builds the recursion of a grid, once the state space boundaries of the grid have been set.
+    */
+   public MultigridBackwardRecursion(double[] stepSizes, double minState, double maxState, Supplier<BackwardRecursionImpl> recursionBuilder){
+      for(int i = 1; i < stepSizes.length; i++)
+         if(stepSizes[i] >= stepSizes[i-1])
+            throw new NullPointerException("Step sizes must be decreasing");
+      this.stepSizes = stepSizes.clone();
+      this.minState = minState;
+      this.maxState = maxState;
+      this.recursionBuilder = recursionBuilder;
+   }
+   
+   /**
+    * Sets the margin, expressed in step sizes of the coarser grid, that determines the coarse states whose optimal actions 
+    * bound the actions evaluated for a state of a finer grid, and by which the range of actions evaluated extends beyond 
+    * these optimal actions; the default margin is one step. Larger margins tolerate larger shifts of the policy 
+    * between grids, at the price of more actions evaluated.
+    * 
+    * @param margin the margin, in coarse step sizes.
+    */
+   public void setMargin(int margin){
+      if(margin < 0)
+         throw new NullPointerException("Margin must be nonnegative");
+      this.margin = margin;
+   }
+   
+   /**
+    * Solves the problem on all grids, from the coarsest to the finest, and leaves the state space boundaries 
+    * set to those of the finest grid.
+    * 
+    * @return the recursion of the finest grid.
+    */
+   public BackwardRecursionImpl runBackwardRecursion(){
+      CoarsePolicy policy = null;
+      for(int g = 0; g < this.stepSizes.length; g++){
+         logger.info("Solving grid with step size "+this.stepSizes[g]+"...");
+         StateImpl.setStateBoundaries(this.stepSizes[g], this.minState, this.maxState);
+         this.recursion = this.recursionBuilder.get();
+         if(policy != null)
+            this.recursion.setActionSearchStrategy(new BoundedActionSearch(policy, this.margin));
+         this.recursion.runBackwardRecursion();
+         if(g < this.stepSizes.length - 1)
+            policy = new CoarsePolicy(this.recursion);
+      }
+      return this.recursion;
+   }
+   
+   /**
+    * Returns the recursion of the finest grid, or null if {@code runBackwardRecursion} has not been invoked.
+    * 
+    * @return the recursion of the finest grid.
+    */
+   public BackwardRecursionImpl getRecursion(){
+      return this.recursion;
+   }
+   
+   /**
+    * The optimal actions computed on a coarse grid, indexed by period and by {@code intState - minIntState}; 
+    * missing actions are encoded as {@code Double.NaN}.
+    */
+   private static class CoarsePolicy {
+      final double stepSize;
+      final int minIntState;
+      final int maxIntState;
+      final double[][] actions;
+      
+      CoarsePolicy(BackwardRecursionImpl recursion){
+         this.stepSize = StateImpl.getStepSize();
+         this.minIntState = StateImpl.getMinIntState();
+         this.maxIntState = StateImpl.getMaxIntState();
+         this.actions = new double[recursion.getHorizonLength()][this.maxIntState - this.minIntState + 1];
+         for(int t = 0; t < this.actions.length; t++){
+            Arrays.fill(this.actions[t], Double.NaN);
+            for(int k = this.minIntState; k <= this.maxIntState; k++){
+               Action action = recursion.getValueRepository().getOptimalAction(new StateImpl(new StateDescriptorImpl(t, k)));
+               if(action != null)
+                  this.actions[t][k - this.minIntState] = ((ActionImpl)action).getAction();
+            }
+         }
+      }
+      
+      /**
+       * Returns the range of actions within {@code margin} coarse steps of the optimal actions of the coarse states 
+       * within {@code margin} coarse steps of {@code state}, or null if any of these optimal actions is missing.
+       */
+      double[] getActionRange(State state, int margin){
+         double position = ((StateImpl)state).getInitialState()/this.stepSize;
+         int lower = (int) Math.max(Math.floor(position) - margin, this.minIntState);
+         int upper = (int) Math.min(Math.ceil(position) + margin, this.maxIntState);
+         double[] periodActions = this.actions[state.getPeriod()];
+         double min = Double.POSITIVE_INFINITY;
+         double max = Double.NEGATIVE_INFINITY;
+         for(int k = lower; k <= upper; k++){
+            double action = periodActions[k - this.minIntState];
+            if(Double.isNaN(action))
+               return null;
+            min = Math.min(min, action);
+            max = Math.max(max, action);
+         }
+         return lower > upper ? null : new double[]{min - margin*this.stepSize, max + margin*this.stepSize};
+      }
+   }
+   
+   /**
+    * An {@code ActionSearchStrategy} that only evaluates actions within the range returned by {@code CoarsePolicy.getActionRange}.
+    */
+   private static class BoundedActionSearch implements ActionSearchStrategy {
+      final CoarsePolicy policy;
+      final int margin;
+      
+      BoundedActionSearch(CoarsePolicy policy, int margin){
+         this.policy = policy;
+         this.margin = margin;
+      }
+      
+      @Override
+      public BestActionRepository search(Recursion recursion, State state, ToDoubleFunction<Action> value, boolean parallel){
+         double[] range = this.policy.getActionRange(state, this.margin);
+         if(range != null){
+            double lb = range[0] - 1e-9;
+            double ub = range[1] + 1e-9;
+            Stream<Action> actions = recursion.getFeasibleActionStream(state).filter(a -> {
+               double action = ((ActionImpl)a).getAction();
+               return action >= lb && action <= ub;
+            });
+            BestActionRepository repository = (parallel ? actions.parallel() : actions).collect(BestActionRepository.collector(recursion.getDirection(), value));
+            if(repository.getBestAction() != null)
+               return repository;
+         }
+         Stream<Action> actions = recursion.getFeasibleActionStream(state);
+         return (parallel ? actions.parallel() : actions).collect(BestActionRepository.collector(recursion.getDirection(), value));
+      }
+   }
+}
@@ -0,0 +1,89 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp.impl.univariate;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import jsdp.sdp.State;
+import jsdp.sdp.ValueFunctionApproximator;
+
+/**
+ * A {@code ValueFunctionApproximator} that interpolates linearly between the optimal expected values of the 
+ * nearest solved states below and above a given state, in the same period. Outside the range of solved states, 
+ * the value function is extrapolated linearly from the two nearest solved states or, if only one state has been solved, 
+ * as a constant.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class PiecewiseLinearApproximator implements ValueFunctionApproximator {
+   
+   @Override
+   public double approximate(State state, Map<State,Double> optimalValues){
+      int period = state.getPeriod();
+      int intState = ((StateImpl)state).getInitialIntState();
+      int[] below = nearest(period, intState - 1, -1, 2, optimalValues);
+      int[] above = nearest(period, intState + 1, 1, 2, optimalValues);
+      if(below.length > 0 && above.length > 0)
+         return interpolate(period, below[0], above[0], intState, optimalValues);
+      int[] solved = below.length > 0 ? below : above;
+      if(solved.length == 0)
+         throw new NullPointerException("No solved state in period "+period);
+      if(solved.length == 1)
+         return value(period, solved[0], optimalValues);
+      return interpolate(period, solved[0], solved[1], intState, optimalValues);
+   }
+   
+   /**
+    * Returns up to {@code count} solved integer states of period {@code period}, scanning from {@code intState} 
+    * in direction {@code step}, in order of distance.
+    */
+   private static int[] nearest(int period, int intState, int step, int count, Map<State,Double> optimalValues){
+      int[] solved = new int[count];
+      int found = 0;
+      for(int k = intState; found < count && k >= StateImpl.getMinIntState() && k <= StateImpl.getMaxIntState(); k += step){
+         if(optimalValues.get(stateAt(period, k)) != null)
+            solved[found++] = k;
+      }
+      return found == count ? solved : Arrays.copyOf(solved, found);
+   }
+   
+   private static double interpolate(int period, int k1, int k2, int intState, Map<State,Double> optimalValues){
+      double v1 = value(period, k1, optimalValues);
+      double v2 = value(period, k2, optimalValues);
+      return v1 + (v2 - v1)*(intState - k1)/(k2 - k1);
+   }
+   
+   private static double value(int period, int intState, Map<State,Double> optimalValues){
+      return optimalValues.get(stateAt(period, intState)).doubleValue();
+   }
+   
+   private static State stateAt(int period, int intState){
+      return new StateImpl(new StateDescriptorImpl(period, intState));
+   }
+}
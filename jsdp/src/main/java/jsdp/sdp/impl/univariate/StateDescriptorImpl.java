@@ -27,6 +27,7 @@
 package jsdp.sdp.impl.univariate;
 
 import jsdp.sdp.StateDescriptor;
+import jsdp.utilities.hash.HashMixer;
 
 /**
  * A concrete implementation of {@code StateDescriptor}.
@@ -39,6 +40,7 @@ public class StateDescriptorImpl extends StateDescriptor{
    private static final long serialVersionUID = 1L;
    
    int initialIntState;
+   private transient int hash;
 
    public StateDescriptorImpl(int period, int initialIntState){
       super(period);
@@ -52,6 +54,8 @@ public class StateDescriptorImpl extends StateDescriptor{
    
    @Override
    public boolean equals(Object descriptor){
+      if(this == descriptor)
+         return true;
       if(descriptor instanceof StateDescriptorImpl)
          return this.period == ((StateDescriptorImpl)descriptor).period &&
          this.initialIntState == ((StateDescriptorImpl)descriptor).initialIntState;
@@ -61,9 +65,12 @@ public class StateDescriptorImpl extends StateDescriptor{
 
    @Override
    public int hashCode(){
-      String hash = "";
-      hash = (hash + period) + "_" + initialIntState;
-      return hash.hashCode();
+      int hash = this.hash;
+      if(hash == 0){
+         hash = HashMixer.mix(this.period, this.initialIntState);
+         this.hash = hash;
+      }
+      return hash;
    }
 
    public int getInitialIntState(){
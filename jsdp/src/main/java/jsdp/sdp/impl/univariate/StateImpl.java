@@ -27,6 +27,7 @@
 package jsdp.sdp.impl.univariate;
 
 import jsdp.sdp.State;
+import jsdp.utilities.hash.HashMixer;
 
 /**
  * A concrete implementation of {@code State}.
@@ -39,6 +40,7 @@ public class StateImpl extends State {
    private static final long serialVersionUID = 1L;
 
    private int initialIntState;
+   private transient int hash;
 
    private static double stepSize;
    private static int minIntState;
@@ -101,6 +103,8 @@ public class StateImpl extends State {
 
    @Override
    public boolean equals(Object state){
+      if(this == state)
+         return true;
       if(state instanceof StateImpl)
          return this.period == ((StateImpl)state).period && this.initialIntState == ((StateImpl)state).initialIntState;
       else return false;
@@ -108,9 +112,12 @@ public class StateImpl extends State {
 
    @Override
    public int hashCode(){
-      String hash = "";
-      hash = hash + period + "_" + initialIntState;
-      return hash.hashCode();
+      int hash = this.hash;
+      if(hash == 0){
+         hash = HashMixer.mix(this.period, this.initialIntState);
+         this.hash = hash;
+      }
+      return hash;
    }
 
    @Override
@@ -26,8 +26,11 @@
 
 package jsdp.sdp.impl.univariate;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
 import java.util.function.Function;
 
 import jsdp.sdp.Action;
@@ -46,6 +49,7 @@ public class StateSpaceImpl extends StateSpace<StateDescriptorImpl>{
    SamplingScheme samplingScheme = SamplingScheme.NONE;
    int maxSampleSize = Integer.MAX_VALUE;
    double reductionFactorPerStage = 1;
+   boolean implicit = false;
    
    public StateSpaceImpl(int period,
                          Function<State, ArrayList<Action>> buildActionList,
@@ -109,11 +113,41 @@ public class StateSpaceImpl extends StateSpace<StateDescriptorImpl>{
       }
    }
 
+   /**
+    * Enables or disables the implicit mode. In implicit mode states are not stored: the state space 
+    * spans the integer grid defined by {@code StateImpl.setStateBoundaries}, the state {@code intState} is 
+    * addressed by the linear index {@code intState - minIntState}, and a new {@code StateImpl} is created 
+    * whenever a state is requested. The implicit mode cannot be combined with sampling; it is best used 
+    * together with a {@code DenseValueRepository}, which does not retain states either.
+    * 
+    * @param implicit true to enable the implicit mode.
+    */
+   public void setImplicit(boolean implicit){
+      if(implicit && this.samplingScheme != SamplingScheme.NONE)
+         throw new NullPointerException("Implicit state spaces cannot be sampled");
+      this.implicit = implicit;
+      this.states.clear();
+   }
+   
+   /**
+    * Returns true if the implicit mode is enabled.
+    * 
+    * @return true if the implicit mode is enabled.
+    */
+   public boolean isImplicit(){
+      return this.implicit;
+   }
+
    public boolean exists (StateDescriptorImpl descriptor){
+      if(this.implicit)
+         return descriptor.getInitialIntState() >= StateImpl.getMinIntState() && 
+                descriptor.getInitialIntState() <= StateImpl.getMaxIntState();
       return states.get(descriptor) != null;
    }
    
    public State getState(StateDescriptorImpl descriptor){
+      if(this.implicit)
+         return new StateImpl(descriptor);
       State value = states.get(descriptor);
       if(value == null){
          State state = new StateImpl(descriptor);
@@ -122,11 +156,43 @@ public class StateSpaceImpl extends StateSpace<StateDescriptorImpl>{
       }else
          return (StateImpl) value;
    }
+   
+   @Override
+   public List<State> getStateList(){
+      return this.implicit ? new StateList() : null;
+   }
+   
+   @Override
+   protected StateDescriptorImpl getStateDescriptor(State state){
+      return new StateDescriptorImpl(state.getPeriod(), ((StateImpl) state).getInitialIntState());
+   }
 
    public Iterator<State> iterator() {
-      if(period == 0 || this.samplingScheme == SamplingScheme.NONE)
+      if(this.implicit)
+         return new StateList().iterator();
+      else if(period == 0 || this.samplingScheme == SamplingScheme.NONE)
          return new StateSpaceIteratorImpl(this);
       else
          return new StateSpaceSampleIteratorImpl(this, this.samplingScheme, this.maxSampleSize, this.reductionFactorPerStage);
    }
+   
+   /**
+    * Random access view of an implicit state space.
+    */
+   private class StateList extends AbstractList<State> implements RandomAccess {
+      private final int minIntState = StateImpl.getMinIntState();
+      private final int size = StateImpl.getMaxIntState() - StateImpl.getMinIntState() + 1;
+      
+      @Override
+      public State get(int index){
+         if(index < 0 || index >= this.size)
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+this.size);
+         return new StateImpl(new StateDescriptorImpl(period, this.minIntState + index));
+      }
+      
+      @Override
+      public int size(){
+         return this.size;
+      }
+   }
 }
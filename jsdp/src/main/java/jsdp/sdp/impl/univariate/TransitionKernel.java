@@ -0,0 +1,258 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp.impl.univariate;
+
+import java.util.ArrayList;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import jsdp.sdp.Action;
+import jsdp.sdp.RecursionExecutor;
+import jsdp.sdp.State;
+import jsdp.sdp.Transition;
+import jsdp.sdp.TransitionProbability;
+import jsdp.sdp.ValueRepository;
+
+/**
+ * A precompiled transition kernel for a given period, stored as a sparse matrix in compressed 
+ * sparse row (CSR) format. Each row is associated with a pair state-action, and holds the indices of 
+ * the states that can be reached in the next period, the associated (normalised) transition probabilities, 
+ * and the expected immediate value of the pair. States are indexed by their offset 
+ * {@code intState - minIntState} from the state space lower bound. 
+ * 
+ * Once compiled, the expected value of a pair state-action is a sparse dot product between a row 
+ * of the kernel and the vector of optimal values of the next period. Kernels are immutable and do not 
+ * depend on the period they have been compiled for, nor on the discount factor; therefore they can be 
+ * shared among periods and problem instances with identical dynamics.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class TransitionKernel {
+   
+   private final int minIntState;
+   private final int[] stateRows;
+   private final int[] rowActions;
+   private final double[] rowImmediateValues;
+   private final int[] rowEntries;
+   private final int[] finalStates;
+   private final double[] probabilities;
+   
+   private TransitionKernel(int minIntState, int[] stateRows, int[] rowActions, double[] rowImmediateValues, 
+                            int[] rowEntries, int[] finalStates, double[] probabilities){
+      this.minIntState = minIntState;
+      this.stateRows = stateRows;
+      this.rowActions = rowActions;
+      this.rowImmediateValues = rowImmediateValues;
+      this.rowEntries = rowEntries;
+      this.finalStates = finalStates;
+      this.probabilities = probabilities;
+   }
+   
+   /**
+    * Compiles the transition kernel of period {@code period} for all states within the state space boundaries 
+    * set in {@code StateImpl}, and for all their feasible actions.
+    * 
+    * @param period the target period.
+    * @param stateSpace the state space of period {@code period}.
+    * @param transitionProbability the transition probabilities of the stochastic process.
+    * @param valueRepository the value repository providing the immediate value function.
+    * @return the compiled transition kernel.
+    */
+   public static TransitionKernel compile(int period, 
+                                          StateSpaceImpl stateSpace, 
+                                          TransitionProbability transitionProbability, 
+                                          ValueRepository valueRepository){
+      return compile(period, stateSpace, transitionProbability, valueRepository, null);
+   }
+   
+   /**
+    * Compiles the transition kernel of period {@code period} for all states within the state space boundaries 
+    * set in {@code StateImpl}, and for all their feasible actions; states are compiled on {@code executor}, 
+    * or by means of a parallel stream if {@code executor} is null.
+    * 
+    * @param period the target period.
+    * @param stateSpace the state space of period {@code period}.
+    * @param transitionProbability the transition probabilities of the stochastic process.
+    * @param valueRepository the value repository providing the immediate value function.
+    * @param executor the recursion executor, or null.
+    * @return the compiled transition kernel.
+    */
+   public static TransitionKernel compile(int period, 
+                                          StateSpaceImpl stateSpace, 
+                                          TransitionProbability transitionProbability, 
+                                          ValueRepository valueRepository,
+                                          RecursionExecutor executor){
+      int minIntState = StateImpl.getMinIntState();
+      int states = StateImpl.getMaxIntState() - minIntState + 1;
+      CompiledState[] compiledStates = new CompiledState[states];
+      IntConsumer compileState = i -> compiledStates[i] = new CompiledState(stateSpace.getState(new StateDescriptorImpl(period, minIntState + i)), 
+                                                                            transitionProbability, valueRepository, minIntState);
+      if(executor == null)
+         IntStream.range(0, states).parallel().forEach(compileState);
+      else
+         executor.forEach(0, states, compileState);
+      
+      int[] stateRows = new int[states + 1];
+      for(int i = 0; i < states; i++)
+         stateRows[i + 1] = stateRows[i] + compiledStates[i].rowActions.length;
+      int rows = stateRows[states];
+      int[] rowActions = new int[rows];
+      double[] rowImmediateValues = new double[rows];
+      int[] rowEntries = new int[rows + 1];
+      for(int i = 0; i < states; i++){
+         CompiledState c = compiledStates[i];
+         System.arraycopy(c.rowActions, 0, rowActions, stateRows[i], c.rowActions.length);
+         System.arraycopy(c.rowImmediateValues, 0, rowImmediateValues, stateRows[i], c.rowImmediateValues.length);
+         for(int r = 0; r < c.rowActions.length; r++)
+            rowEntries[stateRows[i] + r + 1] = rowEntries[stateRows[i] + r] + c.rowLengths[r];
+      }
+      int[] finalStates = new int[rowEntries[rows]];
+      double[] probabilities = new double[rowEntries[rows]];
+      for(int i = 0; i < states; i++){
+         CompiledState c = compiledStates[i];
+         System.arraycopy(c.finalStates, 0, finalStates, rowEntries[stateRows[i]], c.finalStates.length);
+         System.arraycopy(c.probabilities, 0, probabilities, rowEntries[stateRows[i]], c.probabilities.length);
+      }
+      return new TransitionKernel(minIntState, stateRows, rowActions, rowImmediateValues, rowEntries, finalStates, probabilities);
+   }
+   
+   /**
+    * Returns the lower bound of the state space this kernel has been compiled for.
+    * 
+    * @return the lower bound of the state space this kernel has been compiled for.
+    */
+   public int getMinIntState(){
+      return this.minIntState;
+   }
+   
+   /**
+    * Returns the number of states covered by this kernel.
+    * 
+    * @return the number of states covered by this kernel.
+    */
+   public int getStates(){
+      return this.stateRows.length - 1;
+   }
+   
+   /**
+    * Returns the number of rows (pairs state-action) in this kernel.
+    * 
+    * @return the number of rows in this kernel.
+    */
+   public int getRows(){
+      return this.rowActions.length;
+   }
+   
+   /**
+    * Returns the number of nonzero entries in this kernel.
+    * 
+    * @return the number of nonzero entries in this kernel.
+    */
+   public int getEntries(){
+      return this.finalStates.length;
+   }
+   
+   /**
+    * Returns the index of the first row associated with state {@code stateIndex}; 
+    * rows of state {@code stateIndex} range from {@code getFirstRow(stateIndex)} (inclusive) 
+    * to {@code getFirstRow(stateIndex + 1)} (exclusive), and follow the order of the feasible actions list.
+    * 
+    * @param stateIndex the state index, i.e. {@code intState - minIntState}.
+    * @return the index of the first row associated with state {@code stateIndex}.
+    */
+   public int getFirstRow(int stateIndex){
+      return this.stateRows[stateIndex];
+   }
+   
+   /**
+    * Returns the integer action associated with row {@code row}.
+    * 
+    * @param row the row index.
+    * @return the integer action associated with row {@code row}.
+    */
+   public int getIntAction(int row){
+      return this.rowActions[row];
+   }
+   
+   /**
+    * Returns the expected value of the pair state-action associated with row {@code row}.
+    * 
+    * @param row the row index.
+    * @param values the optimal values of the next period, indexed by state index.
+    * @param discountFactor the discount factor.
+    * @return the expected value of the pair state-action associated with row {@code row}.
+    */
+   public double getExpectedValue(int row, double[] values, double discountFactor){
+      double expectedValue = 0;
+      for(int k = this.rowEntries[row]; k < this.rowEntries[row + 1]; k++)
+         expectedValue += this.probabilities[k]*values[this.finalStates[k]];
+      return this.rowImmediateValues[row] + discountFactor*expectedValue;
+   }
+   
+   /**
+    * Rows of a single state, collected in parallel before being packed into the kernel.
+    */
+   private static class CompiledState {
+      int[] rowActions;
+      double[] rowImmediateValues;
+      int[] rowLengths;
+      int[] finalStates;
+      double[] probabilities;
+      
+      CompiledState(State state, TransitionProbability transitionProbability, ValueRepository valueRepository, int minIntState){
+         ArrayList<Action> actions = state.getFeasibleActions();
+         ArrayList<ArrayList<Transition>> rows = new ArrayList<ArrayList<Transition>>(actions.size());
+         int entries = 0;
+         for(Action action : actions){
+            ArrayList<Transition> transitions = transitionProbability.getTransitions(state, action);
+            rows.add(transitions);
+            entries += transitions.size();
+         }
+         this.rowActions = new int[actions.size()];
+         this.rowImmediateValues = new double[actions.size()];
+         this.rowLengths = new int[actions.size()];
+         this.finalStates = new int[entries];
+         this.probabilities = new double[entries];
+         int k = 0;
+         for(int r = 0; r < actions.size(); r++){
+            Action action = actions.get(r);
+            ArrayList<Transition> transitions = rows.get(r);
+            double normalisationFactor = transitions.stream().mapToDouble(t -> t.getProbability()).sum();
+            double immediateValue = 0;
+            for(Transition t : transitions){
+               immediateValue += valueRepository.getImmediateValue(state, action, t.getFinalState())*t.getProbability();
+               this.finalStates[k] = ((StateImpl)t.getFinalState()).getInitialIntState() - minIntState;
+               this.probabilities[k++] = t.getProbability()/normalisationFactor;
+            }
+            this.rowActions[r] = ((ActionImpl)action).getIntAction();
+            this.rowImmediateValues[r] = immediateValue/normalisationFactor;
+            this.rowLengths[r] = transitions.size();
+         }
+      }
+   }
+}
@@ -33,8 +33,11 @@ import java.util.stream.IntStream;
 import jsdp.sdp.Action;
 import jsdp.sdp.RandomOutcomeFunction;
 import jsdp.sdp.State;
+import jsdp.sdp.StateTransitionFunction;
+import jsdp.sdp.Transition;
 import jsdp.sdp.TransitionProbability;
 import jsdp.utilities.probdist.DiscreteDistributionFactory;
+import jsdp.utilities.probdist.TabulatedDiscreteDistribution;
 import umontreal.ssj.probdist.DiscreteDistribution;
 import umontreal.ssj.probdist.Distribution;
 
@@ -101,6 +104,43 @@ public class TransitionProbabilityImpl extends TransitionProbability {
 
    protected RandomOutcomeFunction<State, Action, Double> randomOutcomeFunction;
    
+   protected StateTransitionFunction<State, Action, Double> stateTransitionFunction;
+   
+   protected boolean unsampledFinalStates = false;
+   
+   /**
+    * Sets the state transition function, i.e. the inverse of the random outcome function, which maps 
+    * an initial state, an action, and a random outcome to the final state. When this function is set, 
+    * {@code getTransitions} enumerates successors by walking the support of the discretised 
+    * random outcome distribution, rather than by scanning the whole state space of the next period.
+    * 
+    * The function may return {@code null} for outcomes that lead to no feasible final state. Final states 
+    * are validated against the random outcome function, so returning a state clamped to the state space 
+    * boundaries is safe.
+    * 
+    * @param stateTransitionFunction the state transition function.
+    */
+   public void setStateTransitionFunction(StateTransitionFunction<State, Action, Double> stateTransitionFunction){
+      this.stateTransitionFunction = stateTransitionFunction;
+   }
+   
+   public StateTransitionFunction<State, Action, Double> getStateTransitionFunction(){
+      return this.stateTransitionFunction;
+   }
+   
+   /**
+    * If {@code unsampledFinalStates} is true, and a state transition function has been set, {@code getTransitions} 
+    * walks the support of the discretised random outcome distribution even if the state space of the next period is sampled; 
+    * transitions then also lead to states that have not been sampled, whose optimal expected values must be 
+    * provided by a value function approximator, see {@code BackwardRecursionImpl.setValueFunctionApproximator}. 
+    * Otherwise, transitions only lead to sampled states, and their probabilities are normalised.
+    * 
+    * @param unsampledFinalStates true to include final states that have not been sampled.
+    */
+   public void setUnsampledFinalStates(boolean unsampledFinalStates){
+      this.unsampledFinalStates = unsampledFinalStates;
+   }
+   
    @Override
    public double getTransitionProbability(State initialState, Action action, State finalState) {
       switch(distributionType){
@@ -115,17 +155,60 @@ public class TransitionProbabilityImpl extends TransitionProbability {
       }
    }
    
+   /**
+    * Returns true if the discretised random outcome distributions of period {@code period} and 
+    * {@code otherPeriod} are identical, i.e. they have the same support and the same probabilities.
+    * 
+    * @param period a period.
+    * @param otherPeriod another period.
+    * @return true if the random outcome distributions of the two periods are identical.
+    */
+   public boolean hasIdenticalDistributions(int period, int otherPeriod){
+      switch(distributionType){
+      case STATE_ACTION_DEPENDENT:
+         DiscreteDistribution[][] d1 = this.stateActionDependentDistributions[period];
+         DiscreteDistribution[][] d2 = this.stateActionDependentDistributions[otherPeriod];
+         if(d1.length != d2.length) return false;
+         for(int a = 0; a < d1.length; a++){
+            if(d1[a].length != d2[a].length) return false;
+            for(int i = 0; i < d1[a].length; i++)
+               if(!identical(d1[a][i], d2[a][i])) return false;
+         }
+         return true;
+      case STATE_INDEPENDENT:
+         return identical(this.stateIndependentDistributions[period], this.stateIndependentDistributions[otherPeriod]);
+      default:
+         return false;
+      }
+   }
+   
+   private static boolean identical(DiscreteDistribution d1, DiscreteDistribution d2){
+      if(d1 == d2) return true;
+      if(d1.getN() != d2.getN()) return false;
+      for(int i = 0; i < d1.getN(); i++){
+         if(d1.getValue(i) != d2.getValue(i) || d1.prob(i) != d2.prob(i))
+            return false;
+      }
+      return true;
+   }
+   
    private double getStateActionDependentTransitionProbability(State initialState, Action action, State finalState) {
       double randomOutcome = this.randomOutcomeFunction.apply(initialState, action, finalState);
       int period = ((StateImpl)initialState).getPeriod();
-      return this.stateActionDependentDistributions[period][((ActionImpl)action).getIntAction()][((StateImpl)initialState).getInitialIntState()].cdf(randomOutcome + StateImpl.getStepSize()*0.5) -
-             this.stateActionDependentDistributions[period][((ActionImpl)action).getIntAction()][((StateImpl)initialState).getInitialIntState()].cdf(randomOutcome - StateImpl.getStepSize()*0.5);
+      return probability(this.stateActionDependentDistributions[period][((ActionImpl)action).getIntAction()][((StateImpl)initialState).getInitialIntState()], randomOutcome);
    }
    
    private double getStateIndependentTransitionProbability(State initialState, Action action, State finalState) {
       double randomOutcome = this.randomOutcomeFunction.apply(initialState, action, finalState);
       int period = ((StateImpl)initialState).getPeriod();
-      return this.stateIndependentDistributions[period].cdf(randomOutcome + StateImpl.getStepSize()*0.5) - this.stateIndependentDistributions[period].cdf(randomOutcome - StateImpl.getStepSize()*0.5);
+      return probability(this.stateIndependentDistributions[period], randomOutcome);
+   }
+   
+   private static double probability(DiscreteDistribution distribution, double randomOutcome){
+      if(distribution instanceof TabulatedDiscreteDistribution)
+         return ((TabulatedDiscreteDistribution)distribution).probabilityOfOutcome(randomOutcome);
+      else
+         return distribution.cdf(randomOutcome + StateImpl.getStepSize()*0.5) - distribution.cdf(randomOutcome - StateImpl.getStepSize()*0.5);
    }
    
    private double getStateDependentTransitionProbability(State initialState, Action action, State finalState) {
@@ -141,8 +224,81 @@ public class TransitionProbabilityImpl extends TransitionProbability {
    public ArrayList<State> getFinalStates(State initialState, Action action) {
       ArrayList<State> states = new ArrayList<State>();
       this.stateSpace[initialState.getPeriod()+1].forEach(entry -> states.add(entry));
-      return states.parallelStream().filter(s -> this.getTransitionProbability(initialState, action, s) > 0)
+      return (this.parallel ? states.parallelStream() : states.stream()).filter(s -> this.getTransitionProbability(initialState, action, s) > 0)
                                     .collect(Collectors.toCollection(ArrayList<State>::new));
    }
+   
+   /**
+    * If a state transition function has been set, and if the state space in period {@code t+1} is not sampled 
+    * or final states that have not been sampled are included, see {@code setUnsampledFinalStates}, 
+    * successors are obtained by walking the support of the discretised random outcome distribution: 
+    * each outcome is mapped to its final state via the state transition function. This requires a number 
+    * of operations proportional to the support size rather than to the state space size. 
+    * 
+    * The transitions returned, and their probabilities, are the same as those produced by the default 
+    * implementation, which is used in all other cases.
+    */
+   @Override
+   public ArrayList<Transition> getTransitions(State initialState, Action action) {
+      int period = initialState.getPeriod();
+      DiscreteDistribution distribution;
+      if(this.stateTransitionFunction == null || 
+            (this.stateSpace[period+1].samplingScheme != SamplingScheme.NONE && !this.unsampledFinalStates) ||
+            (distribution = this.getDistribution(initialState, action)) == null)
+         return super.getTransitions(initialState, action);
+      
+      ArrayList<Transition> transitions = new ArrayList<Transition>();
+      int[] finalIntStates = new int[distribution.getN()];
+      int size = 0;
+      for(int i = 0; i < distribution.getN(); i++){
+         if(distribution.prob(i) <= 0) continue;
+         int finalIntState = this.getFinalIntState(initialState, action, distribution.getValue(i));
+         if(finalIntState == Integer.MIN_VALUE || contains(finalIntStates, size, finalIntState)) continue;
+         finalIntStates[size++] = finalIntState;
+         State finalState = this.stateSpace[period+1].getState(new StateDescriptorImpl(period+1, finalIntState));
+         double probability = this.getTransitionProbability(initialState, action, finalState);
+         if(probability > 0)
+            transitions.add(new Transition(finalState, probability));
+      }
+      return transitions;
+   }
+   
+   private static boolean contains(int[] values, int size, int value){
+      for(int i = size - 1; i >= 0; i--)
+         if(values[i] == value) return true;
+      return false;
+   }
+   
+   private DiscreteDistribution getDistribution(State initialState, Action action){
+      int period = initialState.getPeriod();
+      switch(distributionType){
+      case STATE_ACTION_DEPENDENT:
+         return this.stateActionDependentDistributions[period][((ActionImpl)action).getIntAction()][((StateImpl)initialState).getInitialIntState()];
+      case STATE_INDEPENDENT:
+         return this.stateIndependentDistributions[period];
+      default:
+         return null;
+      }
+   }
+   
+   /**
+    * Returns the final state reached from {@code initialState} under {@code action} when {@code randomOutcome} 
+    * is observed, or {@code Integer.MIN_VALUE} if no state in the next period is consistent with this outcome. 
+    * A final state is consistent with {@code randomOutcome} if {@code randomOutcome} falls within the 
+    * discretisation interval centred on the value of the random outcome function for that state; the state 
+    * suggested by the state transition function and its two neighbours are checked.
+    */
+   private int getFinalIntState(State initialState, Action action, double randomOutcome){
+      State candidate = this.stateTransitionFunction.apply(initialState, action, randomOutcome);
+      if(candidate == null) return Integer.MIN_VALUE;
+      int intState = ((StateImpl)candidate).getInitialIntState();
+      for(int k : new int[]{intState, intState - 1, intState + 1}){
+         if(k < StateImpl.getMinIntState() || k > StateImpl.getMaxIntState()) continue;
+         double outcome = this.randomOutcomeFunction.apply(initialState, action, new StateImpl(new StateDescriptorImpl(initialState.getPeriod()+1, k)));
+         if(randomOutcome > outcome - StateImpl.getStepSize()*0.5 && randomOutcome <= outcome + StateImpl.getStepSize()*0.5)
+            return k;
+      }
+      return Integer.MIN_VALUE;
+   }
 }
 
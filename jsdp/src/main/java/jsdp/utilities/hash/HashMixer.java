@@ -0,0 +1,82 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.utilities.hash;
+
+/**
+ * Hash mixing functions for the primitive keys used by states, actions and state descriptors.
+ * 
+ * Combining fields with {@code 31*h+x} is linear, so keys such as (period, state) and 
+ * (period+1, state-31) collide. The functions below pack the fields into a {@code long} 
+ * and apply the MurmurHash3 64-bit finalizer, so every input bit affects every output bit.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public final class HashMixer {
+   
+   private HashMixer(){}
+   
+   /**
+    * MurmurHash3 {@code fmix64} finalizer folded to 32 bits.
+    * 
+    * @param key the key.
+    * @return the mixed hash of {@code key}.
+    */
+   public static int mix(long key){
+      key ^= key >>> 33;
+      key *= 0xff51afd7ed558ccdL;
+      key ^= key >>> 33;
+      key *= 0xc4ceb9fe1a85ec53L;
+      key ^= key >>> 33;
+      return (int)(key ^ (key >>> 32));
+   }
+   
+   /**
+    * Mixes two integer fields.
+    * 
+    * @param high the first field.
+    * @param low the second field.
+    * @return the mixed hash of the pair ({@code high}, {@code low}).
+    */
+   public static int mix(int high, int low){
+      return mix(((long) high << 32) | (low & 0xffffffffL));
+   }
+   
+   /**
+    * Mixes an integer field with each entry of an array, chaining the mix over the entries.
+    * 
+    * @param seed the first field.
+    * @param values the array.
+    * @return the mixed hash of {@code seed} and {@code values}.
+    */
+   public static int mix(int seed, int[] values){
+      int hash = mix(seed, values.length);
+      for(int value : values)
+         hash = mix(hash, value);
+      return hash;
+   }
+}
@@ -0,0 +1,112 @@
+package jsdp.utilities.monitoring;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Headless replacement for the graphical monitoring interfaces: periodically writes 
+ * the metrics of a recursion to the log and, optionally, appends them to a CSV file.
+ * 
+ * <pre>
+ * recursion.setStateMonitoring(true);
+ * MetricsReporter reporter = new MetricsReporter(recursion.getMetrics(), 1000);
+ * reporter.start();
+ * recursion.runBackwardRecursion();
+ * reporter.stop();
+ * </pre>
+ * 
+ * @author Roberto Rossi
+ *
+ */
+
+public class MetricsReporter {
+   
+   static final Logger logger = LogManager.getLogger(MetricsReporter.class.getName());
+   
+   private final RecursionMetrics metrics;
+   private final long periodMillis;
+   private File csvFile;
+   private PrintWriter csvWriter;
+   private ScheduledExecutorService scheduler;
+   
+   /**
+    * Creates a reporter for {@code metrics} reporting every {@code periodMillis} milliseconds
+    * 
+    * @param metrics the metrics to report
+    * @param periodMillis the reporting period (in milliseconds)
+    */
+   public MetricsReporter(RecursionMetrics metrics, long periodMillis){
+      if(metrics == null)
+         throw new NullPointerException("Metrics cannot be null: enable state monitoring first");
+      this.metrics = metrics;
+      this.periodMillis = periodMillis;
+   }
+   
+   /**
+    * Appends metrics to {@code csvFile}, in addition to logging them
+    * 
+    * @param csvFile the CSV file
+    */
+   public void setCsvFile(File csvFile){
+      this.csvFile = csvFile;
+   }
+   
+   /**
+    * Starts reporting; the clock of the metrics is restarted
+    */
+   public synchronized void start(){
+      if(this.scheduler != null)
+         return;
+      if(this.csvFile != null){
+         try {
+            boolean header = !this.csvFile.exists() || this.csvFile.length() == 0;
+            this.csvWriter = new PrintWriter(new FileWriter(this.csvFile, true));
+            if(header)
+               this.csvWriter.println(RecursionMetrics.getCsvHeader());
+         } catch (IOException e) {
+            logger.error("Unable to open metrics file "+this.csvFile, e);
+         }
+      }
+      this.metrics.start();
+      this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+         Thread thread = new Thread(r, "jsdp-metrics");
+         thread.setDaemon(true);
+         return thread;
+      });
+      this.scheduler.scheduleAtFixedRate(this::report, this.periodMillis, this.periodMillis, TimeUnit.MILLISECONDS);
+   }
+   
+   /**
+    * Reports the current value of the metrics
+    */
+   public synchronized void report(){
+      logger.info(this.metrics);
+      if(this.csvWriter != null){
+         this.csvWriter.println(this.metrics.toCsvRow());
+         this.csvWriter.flush();
+      }
+   }
+   
+   /**
+    * Stops reporting after a final report
+    */
+   public synchronized void stop(){
+      if(this.scheduler == null)
+         return;
+      this.scheduler.shutdownNow();
+      this.scheduler = null;
+      report();
+      if(this.csvWriter != null){
+         this.csvWriter.close();
+         this.csvWriter = null;
+      }
+   }
+}
@@ -15,9 +15,11 @@ public class MonitoringInterfaceBackward extends MonitoringInterface{
    
    protected long processedStates;
    protected int currentStage;
+   protected RecursionMetrics metrics;
    
    public MonitoringInterfaceBackward(Recursion recursion){
       recursion.setStateMonitoring(true);
+      this.metrics = recursion.getMetrics();
       this.setTitle("jsdp statistics");
       this.text.setEditable(false);
       this.getContentPane().add(text);
@@ -52,6 +54,7 @@ public class MonitoringInterfaceBackward extends MonitoringInterface{
          }
          this.cpuAfter = this.osMBean.getProcessCpuTime();
          this.nanoAfter = System.nanoTime();
+         this.setStates(metrics.getGeneratedStates(), metrics.getProcessedStates(), metrics.getCurrentPeriod());
             
          setText("Time: " + getTime() +"\n"
                + "CPU: " +this.getPercentCPU()+ "%" +" ("+Runtime.getRuntime().availableProcessors()+" cores)\n"
@@ -19,9 +19,12 @@ public class MonitoringInterfaceForward extends MonitoringInterface{
    protected long actionCounter;
    protected long totalActions;
    protected long[] actionFrequencies;
+   protected long[] actionsEvaluated;
+   protected RecursionMetrics metrics;
    
    public MonitoringInterfaceForward(Recursion recursion){
       recursion.setStateMonitoring(true);
+      this.metrics = recursion.getMetrics();
       this.setTitle("jsdp statistics");
       this.text.setEditable(false);
       this.getContentPane().add(text);
@@ -58,6 +61,7 @@ public class MonitoringInterfaceForward extends MonitoringInterface{
          
          this.cpuAfter = this.osMBean.getProcessCpuTime();
          this.nanoAfter = System.nanoTime();
+         this.refreshStates();
             
          setText("Time: " + this.getTime() +"\n"
                + "CPU: "  + this.getPercentCPU() +"%" +" ("+Runtime.getRuntime().availableProcessors()+" cores)\n"
@@ -69,6 +73,19 @@ public class MonitoringInterfaceForward extends MonitoringInterface{
       }
    }
    
+   /**
+    * Reads states status from the recursion metrics; action frequencies are the number of 
+    * actions evaluated in each period since the previous refresh
+    */
+   private void refreshStates(){
+      long[] actionsEvaluated = metrics.getActionsEvaluatedPerPeriod();
+      long[] actionFrequencies = new long[actionsEvaluated.length - 1];
+      for(int i = 0; i < actionFrequencies.length; i++)
+         actionFrequencies[i] = actionsEvaluated[i] - (this.actionsEvaluated == null ? 0 : this.actionsEvaluated[i]);
+      this.actionsEvaluated = actionsEvaluated;
+      this.setStates(metrics.getGeneratedStates(), metrics.getReusedStates(), actionsEvaluated[0], metrics.getFirstPeriodActions(), actionFrequencies);
+   }
+   
    /**
     * Get number of states that have been reused in the forward recursion process. 
     * In forward recursion if a state has been already visited, the optimal cost/action
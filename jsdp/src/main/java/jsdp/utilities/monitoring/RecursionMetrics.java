@@ -0,0 +1,324 @@
+package jsdp.utilities.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.sun.management.OperatingSystemMXBean;
+
+/**
+ * Headless metrics of a recursion. 
+ * 
+ * Counters are {@code LongAdder} instances, hence they can be updated concurrently by the threads 
+ * of the recursion without contention. Metrics can be polled directly, exposed as a JMX MBean via 
+ * {@code register}, or periodically written to the log and to a CSV file by a {@code MetricsReporter}.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+
+@SuppressWarnings("restriction")
+public class RecursionMetrics implements RecursionMetricsMBean{
+   
+   static final Logger logger = LogManager.getLogger(RecursionMetrics.class.getName());
+   
+   private final LongAdder[] generatedStates;
+   private final LongAdder[] processedStates;
+   private final LongAdder[] reusedStates;
+   private final LongAdder[] actionsEvaluated;
+   private final LongAdder transitionEvaluations = new LongAdder();
+   private final LongAdder expectedValueHits = new LongAdder();
+   private final LongAdder expectedValueMisses = new LongAdder();
+   
+   private volatile int currentPeriod;
+   private volatile long firstPeriodActions;
+   
+   private volatile long nanoBefore;
+   private volatile long cpuBefore;
+   
+   private ObjectName objectName;
+   
+   /**
+    * Creates metrics for a recursion over periods {@code 0}, ..., {@code horizonLength}
+    * 
+    * @param horizonLength the planning horizon length
+    */
+   public RecursionMetrics(int horizonLength){
+      int periods = horizonLength + 1;
+      this.generatedStates = newCounters(periods);
+      this.processedStates = newCounters(periods);
+      this.reusedStates = newCounters(periods);
+      this.actionsEvaluated = newCounters(periods);
+      this.currentPeriod = horizonLength;
+      this.start();
+   }
+   
+   private static LongAdder[] newCounters(int periods){
+      LongAdder[] counters = new LongAdder[periods];
+      for(int i = 0; i < periods; i++)
+         counters[i] = new LongAdder();
+      return counters;
+   }
+   
+   private int index(int period){
+      return Math.max(0, Math.min(period, this.generatedStates.length - 1));
+   }
+   
+   /**
+    * Restarts the clock used to compute time, CPU usage and throughput; counters are not reset
+    */
+   public void start(){
+      this.nanoBefore = System.nanoTime();
+      this.cpuBefore = getProcessCpuTime();
+   }
+   
+   private static long getProcessCpuTime(){
+      java.lang.management.OperatingSystemMXBean osMBean = ManagementFactory.getOperatingSystemMXBean();
+      if(osMBean instanceof OperatingSystemMXBean)
+         return ((OperatingSystemMXBean) osMBean).getProcessCpuTime();
+      else
+         return 0;
+   }
+   
+   /**
+    * Resets all counters
+    */
+   public void reset(){
+      for(int i = 0; i < this.generatedStates.length; i++){
+         this.generatedStates[i].reset();
+         this.processedStates[i].reset();
+         this.reusedStates[i].reset();
+         this.actionsEvaluated[i].reset();
+      }
+      this.transitionEvaluations.reset();
+      this.expectedValueHits.reset();
+      this.expectedValueMisses.reset();
+   }
+   
+   public void stateGenerated(int period){
+      this.generatedStates[index(period)].increment();
+   }
+   
+   public void stateProcessed(int period){
+      this.processedStates[index(period)].increment();
+   }
+   
+   public void stateReused(int period){
+      this.reusedStates[index(period)].increment();
+   }
+   
+   public void actionEvaluated(int period){
+      this.actionsEvaluated[index(period)].increment();
+   }
+   
+   public void transitionsEvaluated(long transitions){
+      this.transitionEvaluations.add(transitions);
+   }
+   
+   public void expectedValueHit(){
+      this.expectedValueHits.increment();
+   }
+   
+   public void expectedValueMiss(){
+      this.expectedValueMisses.increment();
+   }
+   
+   public void setCurrentPeriod(int period){
+      this.currentPeriod = period;
+   }
+   
+   public void setFirstPeriodActions(long actions){
+      this.firstPeriodActions = actions;
+   }
+   
+   /**
+    * Get the number of feasible actions in the initial state of a forward recursion
+    * 
+    * @return the number of feasible actions in the initial state
+    */
+   public long getFirstPeriodActions(){
+      return this.firstPeriodActions;
+   }
+   
+   private static long sum(LongAdder[] counters){
+      long sum = 0;
+      for(LongAdder counter : counters)
+         sum += counter.sum();
+      return sum;
+   }
+   
+   private static long[] sums(LongAdder[] counters){
+      return Arrays.stream(counters).mapToLong(counter -> counter.sum()).toArray();
+   }
+   
+   private static double rate(long hits, long misses){
+      return hits + misses > 0 ? ((double) hits)/(hits + misses) : 0;
+   }
+   
+   private double getElapsedSeconds(){
+      return (System.nanoTime() - this.nanoBefore)*Math.pow(10, -9);
+   }
+   
+   @Override
+   public int getTime(){
+      return (int) Math.ceil(getElapsedSeconds());
+   }
+   
+   @Override
+   public long getPercentCPU(){
+      long nanos = System.nanoTime() - this.nanoBefore;
+      return nanos > 0 ? ((getProcessCpuTime() - this.cpuBefore)*100L)/nanos : 0;
+   }
+   
+   @Override
+   public long getGeneratedStates(){
+      return sum(this.generatedStates);
+   }
+   
+   public long getGeneratedStates(int period){
+      return this.generatedStates[index(period)].sum();
+   }
+   
+   @Override
+   public long getProcessedStates(){
+      return sum(this.processedStates);
+   }
+   
+   public long getProcessedStates(int period){
+      return this.processedStates[index(period)].sum();
+   }
+   
+   @Override
+   public long getReusedStates(){
+      return sum(this.reusedStates);
+   }
+   
+   public long getReusedStates(int period){
+      return this.reusedStates[index(period)].sum();
+   }
+   
+   @Override
+   public double getStatesPerSecond(){
+      double seconds = getElapsedSeconds();
+      long states = Math.max(getProcessedStates(), getGeneratedStates() + getReusedStates());
+      return seconds > 0 ? Math.ceil(states/seconds) : 0;
+   }
+   
+   @Override
+   public long getActionsEvaluated(){
+      return sum(this.actionsEvaluated);
+   }
+   
+   public long getActionsEvaluated(int period){
+      return this.actionsEvaluated[index(period)].sum();
+   }
+   
+   @Override
+   public long getTransitionEvaluations(){
+      return this.transitionEvaluations.sum();
+   }
+   
+   @Override
+   public double getStateReuseRate(){
+      return rate(getReusedStates(), getGeneratedStates());
+   }
+   
+   @Override
+   public double getExpectedValueHitRate(){
+      return rate(this.expectedValueHits.sum(), this.expectedValueMisses.sum());
+   }
+   
+   @Override
+   public int getCurrentPeriod(){
+      return this.currentPeriod;
+   }
+   
+   @Override
+   public long[] getGeneratedStatesPerPeriod(){
+      return sums(this.generatedStates);
+   }
+   
+   @Override
+   public long[] getProcessedStatesPerPeriod(){
+      return sums(this.processedStates);
+   }
+   
+   @Override
+   public long[] getActionsEvaluatedPerPeriod(){
+      return sums(this.actionsEvaluated);
+   }
+   
+   /**
+    * Registers these metrics with the platform MBean server under {@code jsdp:type=RecursionMetrics,name=<name>}
+    * 
+    * @param name the name of the recursion
+    */
+   public synchronized void register(String name){
+      try {
+         MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+         ObjectName objectName = new ObjectName("jsdp:type=RecursionMetrics,name="+ObjectName.quote(name));
+         if(server.isRegistered(objectName))
+            server.unregisterMBean(objectName);
+         server.registerMBean(this, objectName);
+         this.objectName = objectName;
+      } catch (JMException e) {
+         logger.error("Unable to register recursion metrics "+name, e);
+      }
+   }
+   
+   /**
+    * Unregisters these metrics from the platform MBean server
+    */
+   public synchronized void unregister(){
+      if(this.objectName == null)
+         return;
+      try {
+         ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+      } catch (JMException e) {
+         logger.error("Unable to unregister recursion metrics "+this.objectName, e);
+      }
+      this.objectName = null;
+   }
+   
+   /**
+    * Get the CSV header matching {@code toCsvRow}
+    * 
+    * @return the CSV header
+    */
+   public static String getCsvHeader(){
+      return "time,cpu,currentPeriod,generatedStates,processedStates,reusedStates,statesPerSecond,"
+            + "actionsEvaluated,transitionEvaluations,stateReuseRate,expectedValueHitRate";
+   }
+   
+   /**
+    * Get a CSV row with the current value of the metrics
+    * 
+    * @return a CSV row
+    */
+   public String toCsvRow(){
+      return getTime() + "," + getPercentCPU() + "," + getCurrentPeriod() + "," + getGeneratedStates() + "," 
+            + getProcessedStates() + "," + getReusedStates() + "," + getStatesPerSecond() + "," 
+            + getActionsEvaluated() + "," + getTransitionEvaluations() + "," 
+            + getStateReuseRate() + "," + getExpectedValueHitRate();
+   }
+   
+   @Override
+   public String toString(){
+      return "Time: " + getTime() + "\t"
+            + "CPU: " + getPercentCPU() + "%" + " (" + Runtime.getRuntime().availableProcessors() + " cores)\t"
+            + "Current period: " + getCurrentPeriod() + "\t"
+            + "Generated states: " + getGeneratedStates() + "\t"
+            + "States processed: " + getProcessedStates() + "\t"
+            + "Reused states: " + getReusedStates() + "\t"
+            + "States per second: " + getStatesPerSecond() + "\t"
+            + "Actions evaluated: " + getActionsEvaluated() + "\t"
+            + "Transitions evaluated: " + getTransitionEvaluations();
+   }
+}
@@ -0,0 +1,109 @@
+package jsdp.utilities.monitoring;
+
+/**
+ * Management interface exposing the metrics of a recursion via JMX
+ * 
+ * @author Roberto Rossi
+ *
+ */
+
+public interface RecursionMetricsMBean {
+   
+   /**
+    * Get the elapsed time since monitoring started (in seconds)
+    * 
+    * @return the elapsed time (in seconds)
+    */
+   public int getTime();
+   
+   /**
+    * Get the % usage for the available cores
+    * 
+    * @return the % usage for the available cores
+    */
+   public long getPercentCPU();
+   
+   /**
+    * Get the number of generated states
+    * 
+    * @return the number of generated states
+    */
+   public long getGeneratedStates();
+   
+   /**
+    * Get the number of processed states
+    * 
+    * @return the number of processed states
+    */
+   public long getProcessedStates();
+   
+   /**
+    * Get the number of states reused by memoisation in forward recursion
+    * 
+    * @return the number of reused states
+    */
+   public long getReusedStates();
+   
+   /**
+    * Get the number of states generated, processed or reused per second
+    * 
+    * @return the number of states per second
+    */
+   public double getStatesPerSecond();
+   
+   /**
+    * Get the number of actions evaluated
+    * 
+    * @return the number of actions evaluated
+    */
+   public long getActionsEvaluated();
+   
+   /**
+    * Get the number of transitions to final states evaluated
+    * 
+    * @return the number of transitions evaluated
+    */
+   public long getTransitionEvaluations();
+   
+   /**
+    * Get the fraction of state visits answered by memoisation in forward recursion
+    * 
+    * @return the state reuse rate
+    */
+   public double getStateReuseRate();
+   
+   /**
+    * Get the fraction of expected value requests answered by memoisation in backward recursion
+    * 
+    * @return the expected value hit rate
+    */
+   public double getExpectedValueHitRate();
+   
+   /**
+    * Get the period currently processed
+    * 
+    * @return the period currently processed
+    */
+   public int getCurrentPeriod();
+   
+   /**
+    * Get the number of generated states for each period
+    * 
+    * @return the number of generated states for each period
+    */
+   public long[] getGeneratedStatesPerPeriod();
+   
+   /**
+    * Get the number of processed states for each period
+    * 
+    * @return the number of processed states for each period
+    */
+   public long[] getProcessedStatesPerPeriod();
+   
+   /**
+    * Get the number of actions evaluated for each period
+    * 
+    * @return the number of actions evaluated for each period
+    */
+   public long[] getActionsEvaluatedPerPeriod();
+}
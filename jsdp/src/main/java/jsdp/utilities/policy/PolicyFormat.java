@@ -0,0 +1,95 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.utilities.policy;
+
+/**
+ * Layout of a policy file written by {@code PolicyWriter} and read by {@code PolicyReader}.
+ * 
+ * A policy file stores, in big-endian order, a header 
+ * <pre>
+ * int    magic number
+ * int    version
+ * int    state space dimension d
+ * int    first period stored
+ * int    number of periods stored
+ * int    flags (1 if optimal expected values are stored)
+ * d x (int minIntState, int maxIntState, double stepSize)
+ * </pre>
+ * followed by {@code periods x cells x d} integer actions and, optionally, {@code periods x cells} 
+ * optimal expected values, where {@code cells} is the number of states in the state space of a period. 
+ * The cell of an integer state is obtained by mixed radix encoding of {@code intState[k] - minIntState[k]}, 
+ * the last dimension varying fastest. Missing actions are encoded as {@code Integer.MIN_VALUE}, 
+ * missing values as {@code Double.NaN}.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+final class PolicyFormat {
+   
+   static final int MAGIC = 0x4A534450;
+   static final int VERSION = 2;
+   static final int FLAG_VALUES = 1;
+   static final int NO_ACTION = Integer.MIN_VALUE;
+   
+   private PolicyFormat(){}
+   
+   static int headerSize(int dimension){
+      return 6*Integer.BYTES + dimension*(2*Integer.BYTES + Double.BYTES);
+   }
+   
+   static int[] strides(int[] minIntState, int[] maxIntState){
+      int[] strides = new int[minIntState.length];
+      long stride = 1;
+      for(int k = minIntState.length - 1; k >= 0; k--){
+         if(stride > Integer.MAX_VALUE)
+            throw new NullPointerException("State space too large for a policy file");
+         strides[k] = (int) stride;
+         stride *= maxIntState[k] - minIntState[k] + 1;
+      }
+      return strides;
+   }
+   
+   static long cells(int[] minIntState, int[] maxIntState){
+      long cells = 1;
+      for(int k = 0; k < minIntState.length; k++)
+         cells *= maxIntState[k] - minIntState[k] + 1;
+      return cells;
+   }
+   
+   /**
+    * Returns the cell of {@code intState} within a period, or -1 if {@code intState} lies outside the state space boundaries.
+    */
+   static int cell(int[] intState, int[] minIntState, int[] maxIntState, int[] strides){
+      int cell = 0;
+      for(int k = 0; k < intState.length; k++){
+         if(intState[k] < minIntState[k] || intState[k] > maxIntState[k])
+            return -1;
+         cell += (intState[k] - minIntState[k])*strides[k];
+      }
+      return cell;
+   }
+}
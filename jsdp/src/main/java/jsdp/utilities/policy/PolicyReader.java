@@ -0,0 +1,323 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.utilities.policy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a policy file written by {@code PolicyWriter}. The file is memory-mapped and optimal actions 
+ * are retrieved in constant time without deserialising any object, so that a policy can be served 
+ * without keeping the original recursion in memory.
+ * 
+ * Instances of this class are safe for concurrent use.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class PolicyReader {
+   
+   /**
+    * Integer action returned for states for which no optimal action has been stored.
+    */
+   public static final int NO_ACTION = PolicyFormat.NO_ACTION;
+   
+   private final MappedByteBuffer buffer;
+   
+   private final int dimension;
+   private final int firstPeriod;
+   private final int periods;
+   private final boolean values;
+   private final int[] minIntState;
+   private final int[] maxIntState;
+   private final double[] stepSize;
+   private final int[] strides;
+   private final int cells;
+   private final int actionOffset;
+   private final int valueOffset;
+   
+   /**
+    * Opens the policy file {@code file}.
+    * 
+    * @param file the policy file.
+    * @throws IOException if the file cannot be read or is not a policy file.
+    */
+   public PolicyReader(File file) throws IOException {
+      try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)){
+         this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+      if(this.buffer.getInt(0) != PolicyFormat.MAGIC)
+         throw new IOException("Not a policy file: "+file);
+      if(this.buffer.getInt(Integer.BYTES) != PolicyFormat.VERSION)
+         throw new IOException("Unsupported policy file version: "+this.buffer.getInt(Integer.BYTES));
+      this.dimension = this.buffer.getInt(2*Integer.BYTES);
+      this.firstPeriod = this.buffer.getInt(3*Integer.BYTES);
+      this.periods = this.buffer.getInt(4*Integer.BYTES);
+      this.values = (this.buffer.getInt(5*Integer.BYTES) & PolicyFormat.FLAG_VALUES) != 0;
+      this.minIntState = new int[this.dimension];
+      this.maxIntState = new int[this.dimension];
+      this.stepSize = new double[this.dimension];
+      int position = 6*Integer.BYTES;
+      for(int k = 0; k < this.dimension; k++){
+         this.minIntState[k] = this.buffer.getInt(position);
+         this.maxIntState[k] = this.buffer.getInt(position + Integer.BYTES);
+         this.stepSize[k] = this.buffer.getDouble(position + 2*Integer.BYTES);
+         position += 2*Integer.BYTES + Double.BYTES;
+      }
+      this.strides = PolicyFormat.strides(this.minIntState, this.maxIntState);
+      this.cells = (int) PolicyFormat.cells(this.minIntState, this.maxIntState);
+      this.actionOffset = PolicyFormat.headerSize(this.dimension);
+      this.valueOffset = this.actionOffset + this.periods*this.cells*this.dimension*Integer.BYTES;
+      long size = this.valueOffset + (this.values ? (long) this.periods*this.cells*Double.BYTES : 0);
+      if(this.buffer.capacity() != size)
+         throw new IOException("Truncated policy file: "+file);
+   }
+   
+   /**
+    * Returns the dimension of the state space.
+    * 
+    * @return the dimension of the state space.
+    */
+   public int getDimension(){
+      return this.dimension;
+   }
+   
+   /**
+    * Returns the first period stored.
+    * 
+    * @return the first period stored.
+    */
+   public int getFirstPeriod(){
+      return this.firstPeriod;
+   }
+   
+   /**
+    * Returns the number of periods stored, i.e. periods {@code getFirstPeriod()} to {@code getFirstPeriod()+getPeriods()-1}.
+    * 
+    * @return the number of periods stored.
+    */
+   public int getPeriods(){
+      return this.periods;
+   }
+   
+   /**
+    * Returns the minimum integer state in each dimension.
+    * 
+    * @return the minimum integer state in each dimension.
+    */
+   public int[] getMinIntState(){
+      return Arrays.copyOf(this.minIntState, this.dimension);
+   }
+   
+   /**
+    * Returns the maximum integer state in each dimension.
+    * 
+    * @return the maximum integer state in each dimension.
+    */
+   public int[] getMaxIntState(){
+      return Arrays.copyOf(this.maxIntState, this.dimension);
+   }
+   
+   /**
+    * Returns the number of states in the state space of a period.
+    * 
+    * @return the number of states in the state space of a period.
+    */
+   public int getCells(){
+      return this.cells;
+   }
+   
+   /**
+    * Returns the integer state associated with cell {@code cell}, where {@code 0 <= cell < getCells()}.
+    * 
+    * @param cell the cell.
+    * @return the integer state associated with cell {@code cell}.
+    */
+   public int[] getIntState(int cell){
+      int[] intState = new int[this.dimension];
+      for(int k = 0; k < this.dimension; k++){
+         intState[k] = this.minIntState[k] + cell/this.strides[k];
+         cell %= this.strides[k];
+      }
+      return intState;
+   }
+   
+   /**
+    * Returns true if optimal expected values are stored.
+    * 
+    * @return true if optimal expected values are stored.
+    */
+   public boolean hasValues(){
+      return this.values;
+   }
+   
+   private int index(int period, int intState){
+      if(this.dimension != 1)
+         throw new NullPointerException("Policy file is not univariate");
+      period -= this.firstPeriod;
+      if(period < 0 || period >= this.periods || intState < this.minIntState[0] || intState > this.maxIntState[0])
+         return -1;
+      return period*this.cells + intState - this.minIntState[0];
+   }
+   
+   private int index(int period, int[] intState){
+      if(intState.length != this.dimension)
+         throw new NullPointerException("State dimension does not agree");
+      period -= this.firstPeriod;
+      if(period < 0 || period >= this.periods)
+         return -1;
+      int cell = PolicyFormat.cell(intState, this.minIntState, this.maxIntState, this.strides);
+      return cell < 0 ? -1 : period*this.cells + cell;
+   }
+   
+   private int[] toIntState(double[] state){
+      int[] intState = new int[state.length];
+      for(int k = 0; k < state.length; k++)
+         intState[k] = (int) Math.round(state[k]/this.stepSize[k]);
+      return intState;
+   }
+   
+   /**
+    * Returns the optimal integer action of integer state {@code intState} in period {@code period} 
+    * of a univariate policy, or {@code NO_ACTION} if no action is stored.
+    * 
+    * @param period the target period.
+    * @param intState the integer state.
+    * @return the optimal integer action.
+    */
+   public int getOptimalIntAction(int period, int intState){
+      int index = index(period, intState);
+      return index < 0 ? NO_ACTION : this.buffer.getInt(this.actionOffset + index*Integer.BYTES);
+   }
+   
+   /**
+    * Returns the optimal action of state {@code state} in period {@code period} of a univariate policy, 
+    * or {@code Double.NaN} if no action is stored.
+    * 
+    * @param period the target period.
+    * @param state the state.
+    * @return the optimal action.
+    */
+   public double getOptimalAction(int period, double state){
+      int intAction = getOptimalIntAction(period, (int) Math.round(state/this.stepSize[0]));
+      return intAction == NO_ACTION ? Double.NaN : intAction*this.stepSize[0];
+   }
+   
+   /**
+    * Returns the optimal integer action of integer state {@code intState} in period {@code period}, 
+    * or {@code null} if no action is stored.
+    * 
+    * @param period the target period.
+    * @param intState the integer state.
+    * @return the optimal integer action.
+    */
+   public int[] getOptimalIntAction(int period, int[] intState){
+      int index = index(period, intState);
+      if(index < 0 || this.buffer.getInt(this.actionOffset + index*this.dimension*Integer.BYTES) == NO_ACTION)
+         return null;
+      int[] intAction = new int[this.dimension];
+      for(int k = 0; k < this.dimension; k++)
+         intAction[k] = this.buffer.getInt(this.actionOffset + (index*this.dimension + k)*Integer.BYTES);
+      return intAction;
+   }
+   
+   /**
+    * Returns the optimal action of state {@code state} in period {@code period}, 
+    * or {@code null} if no action is stored.
+    * 
+    * @param period the target period.
+    * @param state the state.
+    * @return the optimal action.
+    */
+   public double[] getOptimalAction(int period, double[] state){
+      int[] intAction = getOptimalIntAction(period, toIntState(state));
+      if(intAction == null)
+         return null;
+      double[] action = new double[this.dimension];
+      for(int k = 0; k < this.dimension; k++)
+         action[k] = intAction[k]*this.stepSize[k];
+      return action;
+   }
+   
+   /**
+    * Returns the optimal expected value of state {@code state} in period {@code period} of a univariate policy, 
+    * or {@code Double.NaN} if no value is stored.
+    * 
+    * @param period the target period.
+    * @param state the state.
+    * @return the optimal expected value.
+    */
+   public double getOptimalExpectedValue(int period, double state){
+      return getOptimalExpectedValue(index(period, (int) Math.round(state/this.stepSize[0])));
+   }
+   
+   /**
+    * Returns the optimal expected value of state {@code state} in period {@code period}, 
+    * or {@code Double.NaN} if no value is stored.
+    * 
+    * @param period the target period.
+    * @param state the state.
+    * @return the optimal expected value.
+    */
+   public double getOptimalExpectedValue(int period, double[] state){
+      return getOptimalExpectedValue(index(period, toIntState(state)));
+   }
+   
+   /**
+    * Returns the optimal expected value of integer state {@code intState} in period {@code period} of a univariate policy, 
+    * or {@code Double.NaN} if no value is stored.
+    * 
+    * @param period the target period.
+    * @param intState the integer state.
+    * @return the optimal expected value.
+    */
+   public double getOptimalExpectedValueOfIntState(int period, int intState){
+      return getOptimalExpectedValue(index(period, intState));
+   }
+   
+   /**
+    * Returns the optimal expected value of integer state {@code intState} in period {@code period}, 
+    * or {@code Double.NaN} if no value is stored.
+    * 
+    * @param period the target period.
+    * @param intState the integer state.
+    * @return the optimal expected value.
+    */
+   public double getOptimalExpectedValueOfIntState(int period, int[] intState){
+      return getOptimalExpectedValue(index(period, intState));
+   }
+   
+   private double getOptimalExpectedValue(int index){
+      if(!this.values)
+         throw new NullPointerException("Policy file does not store optimal expected values");
+      return index < 0 ? Double.NaN : this.buffer.getDouble(this.valueOffset + index*Double.BYTES);
+   }
+}
@@ -0,0 +1,278 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.utilities.policy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.function.Function;
+
+import jsdp.sdp.Action;
+import jsdp.sdp.State;
+import jsdp.sdp.ValueRepository;
+
+/**
+ * Exports the optimal policy stored in a {@code ValueRepository} to a compact binary policy file, 
+ * which can be loaded by {@code PolicyReader} without deserialising any object. 
+ * 
+ * For each period, the file stores a dense array of integer actions indexed by state, see {@code PolicyFormat}; 
+ * optimal expected values can be optionally stored too.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public final class PolicyWriter {
+   
+   private PolicyWriter(){}
+   
+   /**
+    * Writes the optimal policy of a univariate stochastic dynamic program to {@code file}.
+    * 
+    * @param file the policy file.
+    * @param recursion the recursion storing the optimal policy.
+    * @param values true if optimal expected values should be stored.
+    * @throws IOException if the file cannot be written.
+    */
+   public static void write(File file, jsdp.sdp.impl.univariate.BackwardRecursionImpl recursion, boolean values) throws IOException {
+      write(file, 
+            recursion.getValueRepository(), 
+            recursion.getHorizonLength(),
+            new int[]{jsdp.sdp.impl.univariate.StateImpl.getMinIntState()},
+            new int[]{jsdp.sdp.impl.univariate.StateImpl.getMaxIntState()},
+            new double[]{jsdp.sdp.impl.univariate.StateImpl.getStepSize()},
+            PolicyWriter::univariateIntState,
+            PolicyWriter::univariateIntAction,
+            values);
+   }
+   
+   /**
+    * Writes the optimal actions and optimal expected values of the states of period {@code period} 
+    * of a univariate stochastic dynamic program to {@code file}.
+    * 
+    * @param file the policy file.
+    * @param recursion the recursion storing the optimal policy.
+    * @param period the target period.
+    * @throws IOException if the file cannot be written.
+    */
+   public static void writePeriod(File file, jsdp.sdp.impl.univariate.BackwardRecursionImpl recursion, int period) throws IOException {
+      writePeriod(file, 
+                  recursion.getValueRepository(), 
+                  recursion.getStateSpace(period).entrySet(),
+                  period,
+                  new int[]{jsdp.sdp.impl.univariate.StateImpl.getMinIntState()},
+                  new int[]{jsdp.sdp.impl.univariate.StateImpl.getMaxIntState()},
+                  new double[]{jsdp.sdp.impl.univariate.StateImpl.getStepSize()},
+                  PolicyWriter::univariateIntState,
+                  PolicyWriter::univariateIntAction);
+   }
+   
+   /**
+    * Writes the optimal policy of a multivariate stochastic dynamic program to {@code file}.
+    * 
+    * @param file the policy file.
+    * @param recursion the recursion storing the optimal policy.
+    * @param values true if optimal expected values should be stored.
+    * @throws IOException if the file cannot be written.
+    */
+   public static void write(File file, jsdp.sdp.impl.multivariate.BackwardRecursionImpl recursion, boolean values) throws IOException {
+      write(file, 
+            recursion.getValueRepository(), 
+            recursion.getHorizonLength(),
+            jsdp.sdp.impl.multivariate.StateImpl.getMinIntState(),
+            jsdp.sdp.impl.multivariate.StateImpl.getMaxIntState(),
+            jsdp.sdp.impl.multivariate.StateImpl.getStepSize(),
+            PolicyWriter::multivariateIntState,
+            PolicyWriter::multivariateIntAction,
+            values);
+   }
+   
+   /**
+    * Writes the optimal actions and optimal expected values of the states of period {@code period} 
+    * of a multivariate stochastic dynamic program to {@code file}.
+    * 
+    * @param file the policy file.
+    * @param recursion the recursion storing the optimal policy.
+    * @param period the target period.
+    * @throws IOException if the file cannot be written.
+    */
+   public static void writePeriod(File file, jsdp.sdp.impl.multivariate.BackwardRecursionImpl recursion, int period) throws IOException {
+      writePeriod(file, 
+                  recursion.getValueRepository(), 
+                  recursion.getStateSpace(period).entrySet(),
+                  period,
+                  jsdp.sdp.impl.multivariate.StateImpl.getMinIntState(),
+                  jsdp.sdp.impl.multivariate.StateImpl.getMaxIntState(),
+                  jsdp.sdp.impl.multivariate.StateImpl.getStepSize(),
+                  PolicyWriter::multivariateIntState,
+                  PolicyWriter::multivariateIntAction);
+   }
+   
+   private static int[] univariateIntState(State state){
+      return new int[]{((jsdp.sdp.impl.univariate.StateImpl)state).getInitialIntState()};
+   }
+   
+   private static int[] univariateIntAction(Action action){
+      return new int[]{jsdp.sdp.impl.univariate.ActionImpl.actionToIntAction(((jsdp.sdp.impl.univariate.ActionImpl)action).getAction())};
+   }
+   
+   private static int[] multivariateIntState(State state){
+      return ((jsdp.sdp.impl.multivariate.StateImpl)state).getInitialIntState();
+   }
+   
+   private static int[] multivariateIntAction(Action action){
+      return ((jsdp.sdp.impl.multivariate.ActionImpl)action).getIntAction();
+   }
+   
+   /**
+    * Writes the optimal policy stored in {@code repository} to {@code file}.
+    * 
+    * @param file the policy file.
+    * @param repository the value repository storing the optimal policy.
+    * @param periods the number of periods stored.
+    * @param minIntState the minimum integer state in each dimension.
+    * @param maxIntState the maximum integer state in each dimension.
+    * @param stepSize the discretisation step in each dimension.
+    * @param intState a function mapping a state to its integer state.
+    * @param intAction a function mapping an action to its integer action, which must have the same dimension of the state.
+    * @param values true if optimal expected values should be stored.
+    * @throws IOException if the file cannot be written.
+    */
+   public static void write(File file, 
+                            ValueRepository repository, 
+                            int periods, 
+                            int[] minIntState, 
+                            int[] maxIntState, 
+                            double[] stepSize,
+                            Function<State, int[]> intState,
+                            Function<Action, int[]> intAction,
+                            boolean values) throws IOException {
+      Map<State,Action> optimalActions = repository.getOptimalActionHashTable();
+      Map<State,Double> optimalValues = repository.getOptimalValueHashTable();
+      synchronized(optimalActions){
+         synchronized(optimalValues){
+            write(file, 0, periods, minIntState, maxIntState, stepSize, 
+                  optimalActions.entrySet(), values ? optimalValues.entrySet() : null, intState, intAction);
+         }
+      }
+   }
+   
+   private static <SD> void writePeriod(File file, 
+                                        ValueRepository repository, 
+                                        Iterable<Map.Entry<SD,State>> states,
+                                        int period, 
+                                        int[] minIntState, 
+                                        int[] maxIntState, 
+                                        double[] stepSize,
+                                        Function<State, int[]> intState,
+                                        Function<Action, int[]> intAction) throws IOException {
+      ArrayList<Map.Entry<State,Action>> optimalActions = new ArrayList<Map.Entry<State,Action>>();
+      ArrayList<Map.Entry<State,Double>> optimalValues = new ArrayList<Map.Entry<State,Double>>();
+      for(Map.Entry<SD,State> entry : states){
+         State state = entry.getValue();
+         Action action = repository.getOptimalActionHashTable().get(state);
+         if(action != null)
+            optimalActions.add(new AbstractMap.SimpleImmutableEntry<State,Action>(state, action));
+         Double value = repository.getOptimalValueHashTable().get(state);
+         if(value != null)
+            optimalValues.add(new AbstractMap.SimpleImmutableEntry<State,Double>(state, value));
+      }
+      write(file, period, 1, minIntState, maxIntState, stepSize, optimalActions, optimalValues, intState, intAction);
+   }
+   
+   private static void write(File file, 
+                             int firstPeriod,
+                             int periods, 
+                             int[] minIntState, 
+                             int[] maxIntState, 
+                             double[] stepSize,
+                             Iterable<Map.Entry<State,Action>> optimalActions,
+                             Iterable<Map.Entry<State,Double>> optimalValues,
+                             Function<State, int[]> intState,
+                             Function<Action, int[]> intAction) throws IOException {
+      int dimension = minIntState.length;
+      int[] strides = PolicyFormat.strides(minIntState, maxIntState);
+      long cells = PolicyFormat.cells(minIntState, maxIntState);
+      long actionOffset = PolicyFormat.headerSize(dimension);
+      long valueOffset = actionOffset + periods*cells*dimension*Integer.BYTES;
+      long size = valueOffset + (optimalValues != null ? periods*cells*Double.BYTES : 0);
+      if(size > Integer.MAX_VALUE)
+         throw new IOException("Policy too large for a memory-mapped policy file: "+size+" bytes");
+      
+      try(RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"); 
+          FileChannel channel = randomAccessFile.getChannel()){
+         randomAccessFile.setLength(size);
+         MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+         buffer.putInt(PolicyFormat.MAGIC);
+         buffer.putInt(PolicyFormat.VERSION);
+         buffer.putInt(dimension);
+         buffer.putInt(firstPeriod);
+         buffer.putInt(periods);
+         buffer.putInt(optimalValues != null ? PolicyFormat.FLAG_VALUES : 0);
+         for(int k = 0; k < dimension; k++){
+            buffer.putInt(minIntState[k]);
+            buffer.putInt(maxIntState[k]);
+            buffer.putDouble(stepSize[k]);
+         }
+         
+         for(long i = 0; i < periods*cells*dimension; i++)
+            buffer.putInt((int) (actionOffset + i*Integer.BYTES), PolicyFormat.NO_ACTION);
+         for(Map.Entry<State,Action> entry : optimalActions){
+            long index = index(entry.getKey(), firstPeriod, periods, cells, minIntState, maxIntState, strides, intState);
+            if(index < 0 || entry.getValue() == null)
+               continue;
+            int[] action = intAction.apply(entry.getValue());
+            for(int k = 0; k < dimension; k++)
+               buffer.putInt((int) (actionOffset + (index*dimension + k)*Integer.BYTES), action[k]);
+         }
+         
+         if(optimalValues != null){
+            for(long i = 0; i < periods*cells; i++)
+               buffer.putDouble((int) (valueOffset + i*Double.BYTES), Double.NaN);
+            for(Map.Entry<State,Double> entry : optimalValues){
+               long index = index(entry.getKey(), firstPeriod, periods, cells, minIntState, maxIntState, strides, intState);
+               if(index < 0)
+                  continue;
+               buffer.putDouble((int) (valueOffset + index*Double.BYTES), entry.getValue().doubleValue());
+            }
+         }
+         buffer.force();
+      }
+   }
+   
+   private static long index(State state, int firstPeriod, int periods, long cells, int[] minIntState, int[] maxIntState, int[] strides, Function<State, int[]> intState){
+      int period = state.getPeriod() - firstPeriod;
+      if(period < 0 || period >= periods)
+         return -1;
+      int cell = PolicyFormat.cell(intState.apply(state), minIntState, maxIntState, strides);
+      return cell < 0 ? -1 : period*cells + cell;
+   }
+}
@@ -41,7 +41,9 @@ import umontreal.ssj.probdist.Distribution;
 /**
  * {@code DiscreteDistributionFactory} converts a {@code ContinuousDistribution} 
  * or a {@code DiscreteDistributionInt} from the {@code umontreal.ssj.probdist} 
- * package to a {@code DiscreteDistribution}.
+ * package to a {@code DiscreteDistribution}. Discretised distributions are returned as 
+ * {@code TabulatedDiscreteDistribution}, which provide constant time access to the probability 
+ * of each discretisation interval.
  *  
  * @author Roberto Rossi
  *
@@ -72,7 +74,7 @@ public class DiscreteDistributionFactory {
 		   if(stepSize != 1) 
             throw new NullPointerException("Factor must be 1 for DiscreteDistribution");
 		   logger.trace("Note that trucation has not been implemented here!");
-		   return (DiscreteDistribution) distribution;
+		   return new TabulatedDiscreteDistribution((DiscreteDistribution) distribution, stepSize);
 		}else{
 			throw new NullPointerException("Unknown distribution");
 		}
@@ -99,9 +101,10 @@ public class DiscreteDistributionFactory {
 													 		          (distribution.cdf(supportUB)-distribution.cdf(supportLB-1)))
 											          .toArray();
 		
-		return new DiscreteDistribution(demandValues, 
-										demandProbabilities, 
-										demandValues.length);
+		return new TabulatedDiscreteDistribution(Arrays.stream(demandValues).asDoubleStream().toArray(), 
+										         demandProbabilities, 
+										         demandValues.length,
+										         1);
 	}
 	
 	/**
@@ -126,7 +129,7 @@ public class DiscreteDistributionFactory {
 											          .map(d -> (distribution.cdf(d+0.5*stepSize) - distribution.cdf(d-0.5*stepSize))/
 											                    (distribution.cdf(supportUB+0.5*stepSize)-distribution.cdf(supportLB-0.5*stepSize)))
 											          .toArray();
-		return new DiscreteDistribution(demandValues, demandProbabilities, demandValues.length);
+		return new TabulatedDiscreteDistribution(demandValues, demandProbabilities, demandValues.length, stepSize);
 	}
 }
 
@@ -0,0 +1,148 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.utilities.probdist;
+
+import umontreal.ssj.probdist.DiscreteDistribution;
+
+/**
+ * A {@code DiscreteDistribution} whose support is a uniform grid {@code v_0 + k*stepSize}, 
+ * for which the probability of each discretisation interval is precomputed in a dense table. 
+ * The probability associated with the interval of width {@code stepSize} centred on an outcome, 
+ * i.e. {@code cdf(x+stepSize/2)-cdf(x-stepSize/2)}, can then be retrieved in constant time.
+ * 
+ * If the support is not a uniform grid with spacing {@code stepSize}, no table is built and 
+ * probabilities are computed via {@code cdf} differences.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class TabulatedDiscreteDistribution extends DiscreteDistribution {
+   
+   private static final double tolerance = 1e-9;
+   
+   private final double stepSize;
+   private final double firstValue;
+   private final double[] pmf;
+   
+   /**
+    * Creates a tabulated discrete distribution.
+    * 
+    * @param values the support values, in increasing order.
+    * @param probabilities the probabilities associated with the support values.
+    * @param n the number of support values.
+    * @param stepSize the discretisation step.
+    */
+   public TabulatedDiscreteDistribution(double[] values, double[] probabilities, int n, double stepSize){
+      super(values, probabilities, n);
+      this.stepSize = stepSize;
+      this.firstValue = values[0];
+      this.pmf = isUniformGrid(values, n, stepSize) ? tabulate(n) : null;
+   }
+   
+   /**
+    * Creates a tabulated copy of {@code distribution}.
+    * 
+    * @param distribution the original distribution.
+    * @param stepSize the discretisation step.
+    */
+   public TabulatedDiscreteDistribution(DiscreteDistribution distribution, double stepSize){
+      this(getValues(distribution), getProbabilities(distribution), distribution.getN(), stepSize);
+   }
+   
+   private static double[] getValues(DiscreteDistribution distribution){
+      double[] values = new double[distribution.getN()];
+      for(int i = 0; i < values.length; i++) 
+         values[i] = distribution.getValue(i);
+      return values;
+   }
+   
+   private static double[] getProbabilities(DiscreteDistribution distribution){
+      double[] probabilities = new double[distribution.getN()];
+      for(int i = 0; i < probabilities.length; i++) 
+         probabilities[i] = distribution.prob(i);
+      return probabilities;
+   }
+   
+   private static boolean isUniformGrid(double[] values, int n, double stepSize){
+      for(int k = 1; k < n; k++){
+         if(Math.abs(values[k] - values[0] - k*stepSize) > stepSize*tolerance*k)
+            return false;
+      }
+      return true;
+   }
+   
+   private double[] tabulate(int n){
+      double[] pmf = new double[n];
+      for(int k = 0; k < n; k++){
+         double value = this.getValue(k);
+         pmf[k] = this.cdf(value + this.stepSize*0.5) - this.cdf(value - this.stepSize*0.5);
+      }
+      return pmf;
+   }
+   
+   /**
+    * Returns true if the support of this distribution is a uniform grid and a probability table is available.
+    * 
+    * @return true if a probability table is available.
+    */
+   public boolean isTabulated(){
+      return this.pmf != null;
+   }
+   
+   /**
+    * Returns the probability of the {@code intOutcomeOffset}-th support value, i.e. of the interval of width 
+    * {@code stepSize} centred on {@code v_0 + intOutcomeOffset*stepSize}.
+    * 
+    * @param intOutcomeOffset the integer outcome offset from the first support value {@code v_0}.
+    * @return the probability of the {@code intOutcomeOffset}-th support value.
+    */
+   public double probabilityOfIntOutcome(int intOutcomeOffset){
+      if(this.pmf == null){
+         double value = this.firstValue + intOutcomeOffset*this.stepSize;
+         return this.cdf(value + this.stepSize*0.5) - this.cdf(value - this.stepSize*0.5);
+      }
+      return intOutcomeOffset >= 0 && intOutcomeOffset < this.pmf.length ? this.pmf[intOutcomeOffset] : 0;
+   }
+   
+   /**
+    * Returns the probability of the interval of width {@code stepSize} centred on {@code outcome}, 
+    * i.e. {@code cdf(outcome+stepSize/2)-cdf(outcome-stepSize/2)}.
+    * 
+    * @param outcome the outcome.
+    * @return the probability of the interval of width {@code stepSize} centred on {@code outcome}.
+    */
+   public double probabilityOfOutcome(double outcome){
+      if(this.pmf != null){
+         double offset = (outcome - this.firstValue)/this.stepSize + 0.5;
+         double intOffset = Math.floor(offset);
+         if(offset - intOffset > tolerance && intOffset + 1 - offset > tolerance){
+            return intOffset >= 0 && intOffset < this.pmf.length ? this.pmf[(int) intOffset] : 0;
+         }
+      }
+      return this.cdf(outcome + this.stepSize*0.5) - this.cdf(outcome - this.stepSize*0.5);
+   }
+}
@@ -0,0 +1,161 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.ToDoubleFunction;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import jsdp.sdp.Recursion.OptimisationDirection;
+import jsdp.sdp.impl.univariate.ActionImpl;
+import jsdp.sdp.impl.univariate.ActionIteratorImpl;
+import jsdp.sdp.impl.univariate.StateDescriptorImpl;
+import jsdp.sdp.impl.univariate.StateImpl;
+
+/**
+ * Tests {@code UnimodalActionSearch} and {@code LocalActionSearch} on synthetic action values, 
+ * over the feasible actions 0, ..., {@code actions-1} of a single state.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class ActionSearchStrategyTest {
+   
+   static final int actions = 101;
+   
+   State state;
+   TreeSet<Integer> evaluated;
+   
+   @Before
+   public void setUp() {
+      StateImpl.setStateBoundaries(1, 0, actions - 1);
+      this.state = new StateImpl(new StateDescriptorImpl(0, 0));
+      this.evaluated = new TreeSet<Integer>();
+   }
+   
+   @Test
+   public void testUnimodalActionSearch() {
+      for(int optimum : new int[]{0, 1, 37, 50, 99, 100}){
+         this.evaluated.clear();
+         BestActionRepository repository = new UnimodalActionSearch().search(
+               recursion(OptimisationDirection.MIN, true), this.state, value(i -> (i - optimum)*(i - optimum)), false);
+         assertEquals(optimum, ((ActionImpl)repository.getBestAction()).getAction(), 0);
+         assertEquals(0, repository.getBestValue(), 0);
+         assertTrue(this.evaluated.size() <= 2*Math.ceil(Math.log(actions)/Math.log((1 + Math.sqrt(5))/2)) + 3);
+      }
+   }
+   
+   @Test
+   public void testUnimodalActionSearchMaximisation() {
+      for(int optimum : new int[]{0, 63, 100}){
+         BestActionRepository repository = new UnimodalActionSearch().search(
+               recursion(OptimisationDirection.MAX, true), this.state, value(i -> -Math.abs(i - optimum)), false);
+         assertEquals(optimum, ((ActionImpl)repository.getBestAction()).getAction(), 0);
+      }
+   }
+   
+   @Test
+   public void testUnimodalActionSearchSequentialIterator() {
+      // iterators without random access are collected in a list, and searched in the same way
+      for(int optimum : new int[]{0, 37, 100}){
+         IntToDoubleFunction objective = i -> (i - optimum)*(i - optimum);
+         BestActionRepository randomAccess = new UnimodalActionSearch().search(
+               recursion(OptimisationDirection.MIN, true), this.state, value(objective), false);
+         BestActionRepository sequential = new UnimodalActionSearch().search(
+               recursion(OptimisationDirection.MIN, false), this.state, value(objective), false);
+         assertEquals(randomAccess.getBestAction(), sequential.getBestAction());
+      }
+   }
+   
+   @Test
+   public void testLocalActionSearch() {
+      int warmStart = 40, radius = 5;
+      LocalActionSearch search = new LocalActionSearch(s -> new ActionImpl(s, warmStart), radius);
+      int[] optima = {0, 38, 44, 45, 46, 100};
+      int[] expected = {35, 38, 44, 45, 45, 45};
+      for(int k = 0; k < optima.length; k++){
+         int optimum = optima[k];
+         this.evaluated.clear();
+         BestActionRepository repository = search.search(
+               recursion(OptimisationDirection.MIN, true), this.state, value(i -> Math.abs(i - optimum)), false);
+         assertEquals(expected[k], ((ActionImpl)repository.getBestAction()).getAction(), 0);
+         assertTrue(this.evaluated.first() >= warmStart - radius);
+         assertTrue(this.evaluated.last() <= warmStart + radius);
+      }
+   }
+   
+   @Test
+   public void testLocalActionSearchInfeasibleWarmStart() {
+      // the search starts from the middle feasible action
+      LocalActionSearch search = new LocalActionSearch(s -> new ActionImpl(s, 2.0*actions), 3);
+      BestActionRepository repository = search.search(
+            recursion(OptimisationDirection.MIN, true), this.state, value(i -> Math.abs(i - 100)), false);
+      assertEquals(actions/2 + 3, ((ActionImpl)repository.getBestAction()).getAction(), 0);
+      assertTrue(this.evaluated.first() >= actions/2 - 3);
+   }
+   
+   /**
+    * Returns a recursion enumerating the feasible actions 0, ..., {@code actions-1}, by means of a 
+    * {@code RandomAccessActionIterator} if {@code randomAccess} is true, or of a sequential iterator otherwise.
+    */
+   private static Recursion recursion(OptimisationDirection direction, boolean randomAccess){
+      Recursion recursion = new Recursion(direction){};
+      if(randomAccess)
+         recursion.setBuildActionIterator(s -> new ActionIteratorImpl(s, 0, actions - 1));
+      else
+         recursion.setBuildActionIterator(s -> new ActionIterator(){
+            final Iterator<Action> iterator = new ActionIteratorImpl(s, 0, actions - 1);
+            
+            public boolean hasNext(){
+               return this.iterator.hasNext();
+            }
+            
+            public Action next(){
+               return this.iterator.next();
+            }
+         });
+      return recursion;
+   }
+   
+   /**
+    * Returns the value of an action as a function of its order quantity, recording the actions evaluated.
+    */
+   private ToDoubleFunction<Action> value(IntToDoubleFunction objective){
+      return action -> {
+         int i = (int) ((ActionImpl)action).getAction();
+         this.evaluated.add(i);
+         return objective.applyAsDouble(i);
+      };
+   }
+}
@@ -0,0 +1,111 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Shared checks for the {@code equals}/{@code hashCode} contract of {@code State}, {@code Action}, 
+ * {@code StateDescriptor} and {@code StateAction} implementations, which are used as hash keys 
+ * throughout the library.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class EqualsHashCodeContract {
+   
+   /**
+    * Checks that instances built by {@code factory} are equal to each other and have the same hash code, 
+    * also after a serialization round trip, and that they differ from each of {@code others}.
+    * 
+    * @param factory builds a new instance with the same content at each invocation.
+    * @param others instances whose content differs from that of the instances built by {@code factory}.
+    */
+   public static void assertContract(Supplier<?> factory, Object... others){
+      Object a = factory.get();
+      Object b = factory.get();
+      assertNotSame(a, b);
+      
+      assertTrue("reflexive", a.equals(a));
+      assertTrue("equal content", a.equals(b));
+      assertTrue("symmetric", b.equals(a));
+      assertEquals("equal hash codes", a.hashCode(), b.hashCode());
+      assertEquals("consistent hash codes", a.hashCode(), a.hashCode());
+      assertFalse("null", a.equals(null));
+      assertFalse("other type", a.equals(new Object()));
+      
+      Object c = roundTrip(a);
+      assertTrue("equal after serialization", a.equals(c) && c.equals(a));
+      assertEquals("equal hash codes after serialization", a.hashCode(), c.hashCode());
+      
+      for(Object other : others){
+         assertFalse("different content", a.equals(other));
+         assertFalse("different content", other.equals(a));
+      }
+   }
+   
+   /**
+    * Checks that the distinct objects in {@code keys} are spread over at least a fraction 
+    * {@code minDistinctRatio} of distinct hash codes, so that they do not cluster in open 
+    * addressing tables.
+    * 
+    * @param keys a collection of pairwise different objects.
+    * @param minDistinctRatio the minimum ratio between distinct hash codes and objects.
+    */
+   public static void assertHashSpread(Collection<?> keys, double minDistinctRatio){
+      Set<Integer> hashes = new HashSet<Integer>();
+      for(Object key : keys)
+         hashes.add(key.hashCode());
+      assertTrue("hash spread: "+hashes.size()+" distinct hash codes for "+keys.size()+" keys", 
+            hashes.size() >= minDistinctRatio*keys.size());
+   }
+   
+   private static Object roundTrip(Object object){
+      try{
+         ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+         try(ObjectOutputStream out = new ObjectOutputStream(bytes)){
+            out.writeObject((Serializable) object);
+         }
+         try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))){
+            return in.readObject();
+         }
+      }catch(IOException | ClassNotFoundException e){
+         throw new AssertionError("Serialization failed for "+object, e);
+      }
+   }
+}
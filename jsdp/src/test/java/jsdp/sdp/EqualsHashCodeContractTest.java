@@ -0,0 +1,173 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp;
+
+import static jsdp.sdp.EqualsHashCodeContract.assertContract;
+import static jsdp.sdp.EqualsHashCodeContract.assertHashSpread;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import jsdp.app.inventory.capital.CF_Action;
+import jsdp.app.inventory.capital.CF_State;
+import jsdp.app.inventory.capital.CF_StateDescriptor;
+import jsdp.app.lotsizing.sS_Action;
+import jsdp.app.lotsizing.sS_State;
+import jsdp.app.lotsizing.sS_StateDescriptor;
+import jsdp.app.routing.deterministic.BR_Action;
+import jsdp.app.routing.deterministic.BR_State;
+import jsdp.app.routing.deterministic.BR_StateDescriptor;
+import jsdp.app.routing.stochastic.fuel.BRF_Action;
+import jsdp.app.routing.stochastic.fuel.BRF_State;
+import jsdp.app.routing.stochastic.fuel.BRF_StateDescriptor;
+import jsdp.app.routing.stochastic.location.BRL_Action;
+import jsdp.app.routing.stochastic.location.BRL_State;
+import jsdp.app.routing.stochastic.location.BRL_StateDescriptor;
+
+public class EqualsHashCodeContractTest {
+   
+   @Test
+   public void testUnivariate() {
+      assertContract(() -> new jsdp.sdp.impl.univariate.StateDescriptorImpl(1, 5),
+            new jsdp.sdp.impl.univariate.StateDescriptorImpl(2, 5),
+            new jsdp.sdp.impl.univariate.StateDescriptorImpl(1, 6));
+      assertContract(() -> univariateState(1, 5), univariateState(2, 5), univariateState(1, 6));
+      assertContract(() -> new jsdp.sdp.impl.univariate.ActionImpl(univariateState(1, 5), 3),
+            new jsdp.sdp.impl.univariate.ActionImpl(univariateState(1, 5), 4),
+            new jsdp.sdp.impl.univariate.ActionImpl(univariateState(1, 6), 3));
+      assertContract(() -> new StateAction(univariateState(1, 5), new jsdp.sdp.impl.univariate.ActionImpl(univariateState(1, 5), 3)),
+            new StateAction(univariateState(1, 6), new jsdp.sdp.impl.univariate.ActionImpl(univariateState(1, 6), 3)),
+            new StateAction(univariateState(1, 5), new jsdp.sdp.impl.univariate.ActionImpl(univariateState(1, 5), 4)));
+   }
+   
+   @Test
+   public void testUnivariateHashSpread() {
+      // four periods of the lot sizing grid -50..150 with order quantities 0..100
+      List<Object> descriptors = new ArrayList<Object>();
+      List<Object> states = new ArrayList<Object>();
+      List<Object> stateActions = new ArrayList<Object>();
+      for(int period = 0; period < 4; period++){
+         for(int intState = -50; intState <= 150; intState++){
+            descriptors.add(new jsdp.sdp.impl.univariate.StateDescriptorImpl(period, intState));
+            State state = univariateState(period, intState);
+            states.add(state);
+            for(int intAction = 0; intAction <= 100; intAction++)
+               stateActions.add(new StateAction(state, new jsdp.sdp.impl.univariate.ActionImpl(state, intAction)));
+         }
+      }
+      assertHashSpread(descriptors, 0.999);
+      assertHashSpread(states, 0.999);
+      assertHashSpread(stateActions, 0.999);
+   }
+   
+   @Test
+   public void testMultivariateHashSpread() {
+      List<Object> states = new ArrayList<Object>();
+      for(int period = 0; period < 4; period++)
+         for(int i = -20; i <= 20; i++)
+            for(int j = -20; j <= 20; j++)
+               states.add(multivariateState(period, i, j));
+      assertHashSpread(states, 0.999);
+   }
+   
+   @Test
+   public void testMultivariate() {
+      assertContract(() -> new jsdp.sdp.impl.multivariate.StateDescriptorImpl(1, new int[]{2, 3}),
+            new jsdp.sdp.impl.multivariate.StateDescriptorImpl(2, new int[]{2, 3}),
+            new jsdp.sdp.impl.multivariate.StateDescriptorImpl(1, new int[]{3, 2}));
+      assertContract(() -> multivariateState(1, 2, 3), multivariateState(2, 2, 3), multivariateState(1, 3, 2));
+      assertContract(() -> new jsdp.sdp.impl.multivariate.ActionImpl(multivariateState(1, 2, 3), new int[]{1, 0}),
+            new jsdp.sdp.impl.multivariate.ActionImpl(multivariateState(1, 2, 3), new int[]{0, 1}));
+   }
+   
+   @Test
+   public void testLotSizing() {
+      assertContract(() -> new sS_StateDescriptor(1, 5), new sS_StateDescriptor(2, 5), new sS_StateDescriptor(1, 6));
+      assertContract(() -> new sS_State(new sS_StateDescriptor(1, 5)), 
+            new sS_State(new sS_StateDescriptor(2, 5)), new sS_State(new sS_StateDescriptor(1, 6)));
+      assertContract(() -> new sS_Action(new sS_State(new sS_StateDescriptor(1, 5)), 3),
+            new sS_Action(new sS_State(new sS_StateDescriptor(1, 5)), 4));
+   }
+   
+   @Test
+   public void testCapitalFlow() {
+      assertContract(() -> new CF_StateDescriptor(1, 5, 10), 
+            new CF_StateDescriptor(2, 5, 10), new CF_StateDescriptor(1, 6, 10), new CF_StateDescriptor(1, 5, 11));
+      assertContract(() -> new CF_State(new CF_StateDescriptor(1, 5, 10)), 
+            new CF_State(new CF_StateDescriptor(2, 5, 10)), new CF_State(new CF_StateDescriptor(1, 6, 10)), 
+            new CF_State(new CF_StateDescriptor(1, 5, 11)));
+      assertContract(() -> new CF_Action(new CF_State(new CF_StateDescriptor(1, 5, 10)), 3),
+            new CF_Action(new CF_State(new CF_StateDescriptor(1, 5, 10)), 4));
+      // actions only compare quantities, hence they must hash alike in different periods
+      assertEquals(new CF_Action(new CF_State(new CF_StateDescriptor(1, 5, 10)), 3).hashCode(), 
+            new CF_Action(new CF_State(new CF_StateDescriptor(2, 5, 10)), 3).hashCode());
+   }
+   
+   @Test
+   public void testBowserRouting() {
+      assertContract(() -> new BR_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{0, 1}),
+            new BR_StateDescriptor(2, 5, 2, new int[]{3, 4}, new int[]{0, 1}),
+            new BR_StateDescriptor(1, 6, 2, new int[]{3, 4}, new int[]{0, 1}),
+            new BR_StateDescriptor(1, 5, 3, new int[]{3, 4}, new int[]{0, 1}),
+            new BR_StateDescriptor(1, 5, 2, new int[]{4, 3}, new int[]{0, 1}),
+            new BR_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{1, 0}));
+      assertContract(() -> new BR_State(new BR_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{0, 1})),
+            new BR_State(new BR_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{1, 0})));
+      assertContract(() -> new BR_Action(new BR_State(new BR_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{0, 1})), 1, 2, new int[]{1, 1}),
+            new BR_Action(new BR_State(new BR_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{0, 1})), 1, 2, new int[]{2, 0}));
+   }
+   
+   @Test
+   public void testStochasticBowserRouting() {
+      assertContract(() -> new BRF_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{0, 1}),
+            new BRF_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{1, 0}));
+      assertContract(() -> new BRF_State(new BRF_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{0, 1})),
+            new BRF_State(new BRF_StateDescriptor(2, 5, 2, new int[]{3, 4}, new int[]{0, 1})),
+            new BRF_State(new BRF_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{1, 0})));
+      assertContract(() -> new BRF_Action(new BRF_State(new BRF_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{0, 1})), 1, 2, new int[]{1, 1}),
+            new BRF_Action(new BRF_State(new BRF_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{0, 1})), 0, 2, new int[]{1, 1}));
+      
+      assertContract(() -> new BRL_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{0, 1}),
+            new BRL_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{1, 0}));
+      assertContract(() -> new BRL_State(new BRL_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{0, 1})),
+            new BRL_State(new BRL_StateDescriptor(2, 5, 2, new int[]{3, 4}, new int[]{0, 1})),
+            new BRL_State(new BRL_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{1, 0})));
+      assertContract(() -> new BRL_Action(new BRL_State(new BRL_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{0, 1})), 1, 2, new int[]{1, 1}),
+            new BRL_Action(new BRL_State(new BRL_StateDescriptor(1, 5, 2, new int[]{3, 4}, new int[]{0, 1})), 1, 3, new int[]{1, 1}));
+   }
+   
+   private static State univariateState(int period, int intState){
+      return new jsdp.sdp.impl.univariate.StateImpl(new jsdp.sdp.impl.univariate.StateDescriptorImpl(period, intState));
+   }
+   
+   private static State multivariateState(int period, int... intState){
+      return new jsdp.sdp.impl.multivariate.StateImpl(new jsdp.sdp.impl.multivariate.StateDescriptorImpl(period, intState));
+   }
+}
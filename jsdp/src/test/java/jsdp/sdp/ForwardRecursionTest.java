@@ -0,0 +1,217 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.PrimitiveIterator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import jsdp.app.inventory.capital.CF_Action;
+import jsdp.app.inventory.capital.CF_ForwardRecursion;
+import jsdp.app.inventory.capital.CF_State;
+import jsdp.app.inventory.capital.CF_StateDescriptor;
+import jsdp.app.inventory.capital.CF_StateSpace;
+import jsdp.app.inventory.capital.ImmediateValueFunction;
+import jsdp.sdp.impl.univariate.SamplingScheme;
+
+import umontreal.ssj.probdist.Distribution;
+import umontreal.ssj.probdist.PoissonDist;
+
+/**
+ * Checks the forward recursion engines against {@code runForwardRecursion} on a small 
+ * instance of the capital flow model in {@code jsdp.app.inventory.capital}.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class ForwardRecursionTest {
+   
+   static final double K = 10, v = 1, S = 5, h = 1, p = 2, b = 0.05;
+   static final double[] lambda = {2, 3, 4};
+   
+   CF_StateDescriptor initialState;
+   double expectedCapital;
+   CF_Action optimalAction;
+   int states;
+   
+   @Before
+   public void setUp() {
+      this.initialState = new CF_StateDescriptor(0, 0, 0);
+      CF_ForwardRecursion recursion = buildModel();
+      recursion.runForwardRecursion(getState(recursion, this.initialState));
+      this.expectedCapital = recursion.getExpectedCapital(this.initialState);
+      this.optimalAction = recursion.getOptimalAction(this.initialState);
+      this.states = recursion.getValueRepository().getOptimalValueHashTable().size();
+   }
+   
+   @Test
+   public void testParallelForwardRecursion() {
+      CF_ForwardRecursion recursion = buildModel();
+      double value = recursion.runParallelForwardRecursion(getState(recursion, this.initialState));
+      assertSameSolution(recursion, value);
+   }
+   
+   @Test
+   public void testParallelForwardRecursionExecutor() {
+      CF_ForwardRecursion recursion = buildModel();
+      RecursionExecutor executor = new RecursionExecutor(2);
+      recursion.setExecutor(executor);
+      try{
+         double value = recursion.runParallelForwardRecursion(getState(recursion, this.initialState));
+         assertSameSolution(recursion, value);
+      }finally{
+         executor.shutdown();
+      }
+   }
+   
+   @Test
+   public void testIterativeForwardRecursion() {
+      CF_ForwardRecursion recursion = buildModel();
+      double value = recursion.runIterativeForwardRecursion(getState(recursion, this.initialState));
+      assertSameSolution(recursion, value);
+   }
+   
+   @Test
+   public void testIterativeForwardRecursionActionIterator() {
+      CF_ForwardRecursion reference = buildModel();
+      reference.setBuildActionIterator(evenOrderQuantities());
+      double expectedValue = reference.runForwardRecursion(getState(reference, this.initialState));
+      assertNotEquals(this.expectedCapital, expectedValue, 1e-9);
+      
+      CF_ForwardRecursion recursion = buildModel();
+      recursion.setBuildActionIterator(evenOrderQuantities());
+      assertEquals(expectedValue, recursion.runIterativeForwardRecursion(getState(recursion, this.initialState)), 1e-9);
+      assertEquals(reference.getOptimalAction(this.initialState), recursion.getOptimalAction(this.initialState));
+      assertEquals(reference.getValueRepository().getOptimalValueHashTable().size(), 
+                   recursion.getValueRepository().getOptimalValueHashTable().size());
+      
+      recursion = buildModel();
+      recursion.setBuildActionIterator(evenOrderQuantities());
+      assertEquals(expectedValue, recursion.runParallelForwardRecursion(getState(recursion, this.initialState)), 1e-9);
+      assertEquals(reference.getOptimalAction(this.initialState), recursion.getOptimalAction(this.initialState));
+   }
+   
+   @Test(expected = NullPointerException.class)
+   public void testIterativeForwardRecursionRejectsActionSearchStrategy() {
+      CF_ForwardRecursion recursion = buildModel();
+      recursion.setActionSearchStrategy(new UnimodalActionSearch());
+      recursion.runIterativeForwardRecursion(getState(recursion, this.initialState));
+   }
+   
+   @Test(expected = NullPointerException.class)
+   public void testParallelForwardRecursionRejectsActionSearchStrategy() {
+      CF_ForwardRecursion recursion = buildModel();
+      recursion.setActionSearchStrategy(new UnimodalActionSearch());
+      recursion.runParallelForwardRecursion(getState(recursion, this.initialState));
+   }
+   
+   private void assertSameSolution(CF_ForwardRecursion recursion, double value){
+      assertEquals(this.expectedCapital, value, 1e-9);
+      assertEquals(this.expectedCapital, recursion.getExpectedCapital(this.initialState), 1e-9);
+      assertEquals(this.optimalAction, recursion.getOptimalAction(this.initialState));
+      assertEquals(this.states, recursion.getValueRepository().getOptimalValueHashTable().size());
+   }
+   
+   private static State getState(CF_ForwardRecursion recursion, CF_StateDescriptor descriptor){
+      return ((CF_StateSpace)recursion.getStateSpace()[descriptor.getPeriod()]).getState(descriptor);
+   }
+   
+   /**
+    * Returns a builder of lazy action iterators that only enumerates even order quantities.
+    */
+   private static Function<State, ActionIterator> evenOrderQuantities(){
+      return s -> new ActionIterator(){
+         final PrimitiveIterator.OfInt quantities = CF_Action.generateOrderQuantities((CF_State) s).filter(q -> q % 2 == 0).iterator();
+         
+         public boolean hasNext(){
+            return this.quantities.hasNext();
+         }
+         
+         public Action next(){
+            return new CF_Action((CF_State) s, this.quantities.nextInt());
+         }
+      };
+   }
+   
+   private static CF_ForwardRecursion buildModel(){
+      CF_Action.setMaxOrderQuantity(10);
+      
+      Function<State, ArrayList<Action>> buildActionList = s -> {
+         CF_State state = (CF_State) s;
+         return CF_Action.generateOrderQuantities(state)
+                         .mapToObj(action -> new CF_Action(state, action))
+                         .collect(Collectors.toCollection(ArrayList<Action>::new));
+      };
+      
+      jsdp.sdp.ImmediateValueFunction<State, Action, Double> immediateValueFunction = (initialState, action, finalState) -> {
+         CF_State is = (CF_State) initialState;
+         CF_Action a = (CF_Action) action;
+         CF_State fs = (CF_State) finalState;
+         int demand = is.getInventory() + a.getOrderQuantity() - fs.getInventory();
+         return value(is, a, demand, fs.getInventory(), fs.getCapital());
+      };
+      
+      ImmediateValueFunction<State, Action, Integer, Double> immediateValueFunctionRandomOutcome = (initialState, action, demand) -> {
+         CF_State is = (CF_State) initialState;
+         CF_Action a = (CF_Action) action;
+         int finalInventory = is.getInventory() + a.getOrderQuantity() - demand;
+         int finalCapital = is.getCapital() + (int) Math.round(value(is, a, demand, finalInventory, 0));
+         return value(is, a, demand, finalInventory, finalCapital);
+      };
+      
+      Distribution[] distributions = IntStream.range(0, lambda.length)
+                                              .mapToObj(i -> new PoissonDist(lambda[i]))
+                                              .toArray(Distribution[]::new);
+      
+      // THASHMAP tolerates the nested computeIfAbsent calls of runForwardRecursion
+      return new CF_ForwardRecursion(distributions,
+                                     immediateValueFunction,
+                                     immediateValueFunctionRandomOutcome,
+                                     buildActionList,
+                                     1.0,
+                                     HashType.THASHMAP,
+                                     SamplingScheme.NONE,
+                                     50,
+                                     20);
+   }
+   
+   private static double value(CF_State is, CF_Action a, int demand, int finalInventory, int finalCapital){
+      double revenue = S*Math.min(demand + Math.max(-is.getInventory(), 0), a.getOrderQuantity() + Math.max(is.getInventory(), 0));
+      double orderingCost = a.getOrderQuantity() > 0 ? K + a.getOrderQuantity()*v : 0;
+      double inventoryCost = h*Math.max(finalInventory, 0) + p*Math.max(-finalInventory, 0);
+      double borrowingCost = b*Math.max(-finalCapital, 0);
+      return revenue - orderingCost - inventoryCost - borrowingCost;
+   }
+}
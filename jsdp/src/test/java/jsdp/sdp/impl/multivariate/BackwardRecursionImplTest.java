@@ -0,0 +1,125 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp.impl.multivariate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import jsdp.app.inventory.multivariate.ActionIteratorImpl;
+import jsdp.sdp.Action;
+import jsdp.sdp.ActionIterator;
+import jsdp.sdp.HashType;
+import jsdp.sdp.ImmediateValueFunction;
+import jsdp.sdp.RandomOutcomeFunction;
+import jsdp.sdp.Recursion.OptimisationDirection;
+import jsdp.sdp.State;
+import jsdp.utilities.probdist.MultiINIDistribution;
+
+import umontreal.ssj.probdist.BinomialDist;
+import umontreal.ssj.probdist.Distribution;
+import umontreal.ssj.probdistmulti.DiscreteDistributionIntMulti;
+
+/**
+ * Tests {@code BackwardRecursionImpl} on a small two-item stochastic lot sizing instance.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class BackwardRecursionImplTest {
+   
+   @Test
+   public void testInitialStatesAreSolvedWithApproximator() {
+      double[][] initialStates = {{0, 0}, {3, 1}, {-2, 4}};
+      
+      BackwardRecursionImpl recursion = buildModel();
+      recursion.getValueRepository().setValueFunctionApproximator(new NearestNeighbourApproximator());
+      recursion.runBackwardRecursion();
+      for(double[] initialState : initialStates){
+         double expectedCost = recursion.getExpectedCost(initialState);
+         
+         // each initial state must be solved, not approximated from the initial states solved before it
+         State state = ((StateSpaceImpl)recursion.getStateSpace(0)).getState(new StateDescriptorImpl(0, initialState));
+         assertTrue(recursion.getValueRepository().getOptimalValueHashTable().containsKey(state));
+         
+         BackwardRecursionImpl reference = buildModel();
+         reference.runBackwardRecursion();
+         assertEquals(reference.getExpectedCost(initialState), expectedCost, 1e-9);
+         assertEquals(reference.getOptimalAction(new StateDescriptorImpl(0, initialState)), 
+                      recursion.getOptimalAction(new StateDescriptorImpl(0, initialState)));
+      }
+   }
+   
+   /**
+    * Builds a two-period, two-item lot sizing instance with binomial demand, fixed ordering cost 10, 
+    * holding cost 1 and penalty cost 4.
+    */
+   static BackwardRecursionImpl buildModel(){
+      double fixedOrderingCost = 10, holdingCost = 1, penaltyCost = 4;
+      int horizonLength = 2;
+      
+      double[] supportLowerBounds = {0, 0};
+      double[] supportUpperBounds = {3, 3};
+      DiscreteDistributionIntMulti[] demand = IntStream.range(0, horizonLength)
+            .mapToObj(i -> new MultiINIDistribution(new Distribution[]{new BinomialDist(3, 0.3), new BinomialDist(3, 0.6)}, 
+                                                    supportLowerBounds, supportUpperBounds))
+            .toArray(DiscreteDistributionIntMulti[]::new);
+      StateImpl.setStateBoundaries(new double[]{1, 1}, new double[]{-4, -4}, new double[]{6, 6});
+      
+      Function<State, ArrayList<Action>> buildActionList = s -> {
+         ArrayList<Action> feasibleActions = new ArrayList<Action>();
+         ActionIterator actionIterator = new ActionIteratorImpl((StateImpl) s);
+         while(actionIterator.hasNext())
+            feasibleActions.add(actionIterator.next());
+         return feasibleActions;
+      };
+      Function<State, Action> idempotentAction = s -> new ActionImpl(s, new double[StateImpl.getStateDimension()]);
+      ImmediateValueFunction<State, Action, Double> immediateValueFunction = (initialState, action, finalState) -> {
+         int[] orderQuantity = ((ActionImpl)action).getIntAction();
+         int[] finalInventory = ((StateImpl)finalState).getInitialIntState();
+         return (Arrays.stream(orderQuantity).sum() > 0 ? fixedOrderingCost : 0) + 
+                holdingCost*Arrays.stream(finalInventory).map(x -> Math.max(x, 0)).sum() + 
+                penaltyCost*Arrays.stream(finalInventory).map(x -> Math.max(-x, 0)).sum();
+      };
+      RandomOutcomeFunction<State, Action, double[]> randomOutcomeFunction = (initialState, action, finalState) -> {
+         double[] realizedDemand = new double[StateImpl.getStateDimension()];
+         for(int i = 0; i < realizedDemand.length; i++)
+            realizedDemand[i] = ((StateImpl)initialState).getInitialState()[i] + ((ActionImpl)action).getAction()[i] - 
+                                ((StateImpl)finalState).getInitialState()[i];
+         return realizedDemand;
+      };
+      
+      return new BackwardRecursionImpl(OptimisationDirection.MIN, demand, immediateValueFunction, randomOutcomeFunction, 
+            buildActionList, idempotentAction, 1.0, SamplingScheme.NONE, Integer.MAX_VALUE, 1, HashType.THASHMAP);
+   }
+}
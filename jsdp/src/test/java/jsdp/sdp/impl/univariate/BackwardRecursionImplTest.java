@@ -0,0 +1,246 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp.impl.univariate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jsdp.sdp.Action;
+import jsdp.sdp.HashType;
+import jsdp.sdp.ImmediateValueFunction;
+import jsdp.sdp.RandomOutcomeFunction;
+import jsdp.sdp.Recursion.OptimisationDirection;
+import jsdp.sdp.State;
+
+import umontreal.ssj.probdist.Distribution;
+import umontreal.ssj.probdist.PoissonDist;
+
+/**
+ * Tests {@code BackwardRecursionImpl} on small stochastic lot sizing instances.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class BackwardRecursionImplTest {
+   
+   static final double minState = -20;
+   static final double maxState = 60;
+   
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder();
+   
+   @Test
+   public void testTransitionKernels() {
+      double[] meanDemand = {10, 20, 15};
+      assertSameSolution(solve(buildModel(meanDemand, HashType.THASHMAP)), 
+            solve(withTransitionKernels(buildModel(meanDemand, HashType.THASHMAP), false)), true);
+   }
+   
+   @Test
+   public void testStationaryTransitionKernels() {
+      double[] meanDemand = {15, 15, 15};
+      assertSameSolution(solve(buildModel(meanDemand, HashType.THASHMAP)), 
+            solve(withTransitionKernels(buildModel(meanDemand, HashType.THASHMAP), true)), true);
+   }
+   
+   @Test
+   public void testMonotoneActionSearch() {
+      // lot sizing admits an (s,S) optimal policy, whose order quantity is non-increasing in the inventory level
+      double[] meanDemand = {10, 20, 15};
+      BackwardRecursionImpl reference = solve(buildModel(meanDemand, HashType.THASHMAP));
+      for(boolean kernels : new boolean[]{false, true}){
+         BackwardRecursionImpl recursion = buildModel(meanDemand, HashType.THASHMAP);
+         if(kernels)
+            withTransitionKernels(recursion, false);
+         recursion.setMonotoneActionSearch(true, 0);
+         solve(recursion);
+         assertSameSolution(reference, recursion, true);
+      }
+   }
+   
+   @Test
+   public void testMonotoneActionSearchVerification() {
+      // the cost of deviating from a target order quantity that oscillates with the inventory level 
+      // makes the optimal order quantity non-monotone: every state is verified, and violations are corrected
+      double[] meanDemand = {10, 20, 15};
+      ImmediateValueFunction<State, Action, Double> immediateValueFunction = (initialState, action, finalState) -> 
+         lotSizingCost().apply(initialState, action, finalState) + 
+         100*Math.abs(((ActionImpl)action).getAction() - 10*Math.floorMod(((StateImpl)initialState).getInitialIntState(), 3));
+      BackwardRecursionImpl reference = solve(buildModel(meanDemand, HashType.THASHMAP, immediateValueFunction));
+      for(boolean kernels : new boolean[]{false, true}){
+         BackwardRecursionImpl recursion = buildModel(meanDemand, HashType.THASHMAP, immediateValueFunction);
+         if(kernels)
+            withTransitionKernels(recursion, false);
+         recursion.setMonotoneActionSearch(true, 1);
+         solve(recursion);
+         assertTrue(recursion.getMonotoneSearchViolations() > 0);
+         assertSameSolution(reference, recursion, false);
+      }
+   }
+   
+   private static BackwardRecursionImpl solve(BackwardRecursionImpl recursion){
+      recursion.runBackwardRecursion();
+      return recursion;
+   }
+   
+   private static BackwardRecursionImpl withTransitionKernels(BackwardRecursionImpl recursion, boolean stationary){
+      recursion.setTransitionKernels(true, stationary);
+      return recursion;
+   }
+   
+   /**
+    * Checks that every state solved by {@code reference} has the same optimal expected value in {@code recursion}, 
+    * and if {@code actions} is true the same optimal action.
+    */
+   static void assertSameSolution(BackwardRecursionImpl reference, BackwardRecursionImpl recursion, boolean actions){
+      for(int t = 0; t < reference.getHorizonLength(); t++){
+         for(State state : reference.getStateSpace(t)){
+            StateDescriptorImpl descriptor = new StateDescriptorImpl(t, ((StateImpl)state).getInitialState());
+            State other = ((StateSpaceImpl)recursion.getStateSpace(t)).getState(descriptor);
+            assertNotNull(other);
+            assertEquals(reference.getValueRepository().getOptimalExpectedValue(state), 
+                  recursion.getValueRepository().getOptimalExpectedValue(other), 1e-9);
+            if(actions)
+               assertEquals(((ActionImpl)reference.getValueRepository().getOptimalAction(state)).getAction(), 
+                     ((ActionImpl)recursion.getValueRepository().getOptimalAction(other)).getAction(), 1e-9);
+         }
+      }
+      assertEquals(reference.getExpectedCost(0), recursion.getExpectedCost(0), 1e-9);
+   }
+   
+   @Test
+   public void testResumeBackwardRecursion() throws IOException {
+      assertResumedSolution(false);
+   }
+   
+   @Test
+   public void testResumeBackwardRecursionRollingMemory() throws IOException {
+      assertResumedSolution(true);
+   }
+   
+   /**
+    * Interrupts a recursion with checkpoints after periods 3 and 2 have been processed, resumes it with a new recursion, 
+    * and checks that the optimal expected values and actions of period 0 are those of an uninterrupted recursion.
+    */
+   private void assertResumedSolution(boolean rollingMemory) throws IOException {
+      double[] meanDemand = {10, 20, 15, 10};
+      BackwardRecursionImpl reference = buildModel(meanDemand, HashType.THASHMAP);
+      reference.runBackwardRecursion();
+      
+      // a directory in place of its temporary file prevents the checkpoint of period 1 from being written
+      File directory = folder.newFolder();
+      File blocker = new File(directory, "period-1.checkpoint.tmp");
+      assertTrue(blocker.mkdir());
+      assertTrue(new File(blocker, "blocker").createNewFile());
+      BackwardRecursionImpl interrupted = buildModel(meanDemand, HashType.THASHMAP);
+      interrupted.setRollingMemory(rollingMemory);
+      interrupted.setCheckpointDirectory(directory);
+      try{
+         interrupted.runBackwardRecursion();
+         fail("The failed checkpoint should stop the recursion");
+      }catch(UncheckedIOException e){
+      }
+      assertTrue(new File(directory, "period-3.checkpoint").exists());
+      assertTrue(new File(directory, "period-2.checkpoint").exists());
+      assertFalse(new File(directory, "period-1.checkpoint").exists());
+      new File(blocker, "blocker").delete();
+      blocker.delete();
+      
+      BackwardRecursionImpl resumed = buildModel(meanDemand, HashType.THASHMAP);
+      resumed.setRollingMemory(rollingMemory);
+      resumed.resumeBackwardRecursion(directory);
+      for(State state : reference.getStateSpace(0)){
+         StateDescriptorImpl descriptor = new StateDescriptorImpl(0, ((StateImpl)state).getInitialState());
+         State resumedState = ((StateSpaceImpl)resumed.getStateSpace(0)).getState(descriptor);
+         assertEquals(reference.getValueRepository().getOptimalExpectedValue(state), 
+               resumed.getValueRepository().getOptimalExpectedValue(resumedState), 1e-9);
+         assertEquals(((ActionImpl)reference.getValueRepository().getOptimalAction(state)).getAction(), 
+               ((ActionImpl)resumed.getValueRepository().getOptimalAction(resumedState)).getAction(), 1e-9);
+      }
+      assertTrue(new File(directory, "period-0.checkpoint").exists());
+   }
+   
+   /**
+    * Builds a lot sizing instance with Poisson demand, fixed ordering cost 50, holding cost 1 and penalty cost 5, 
+    * whose transitions are computed by means of a state transition function, as required by transition kernels.
+    */
+   public static BackwardRecursionImpl buildModel(double[] meanDemand, HashType hash){
+      return buildModel(meanDemand, hash, lotSizingCost());
+   }
+   
+   /**
+    * Returns the immediate cost of the lot sizing instance: fixed ordering cost 50, holding cost 1 and penalty cost 5.
+    */
+   static ImmediateValueFunction<State, Action, Double> lotSizingCost(){
+      double K = 50, h = 1, p = 5;
+      return (initialState, action, finalState) -> {
+         double orderQuantity = ((ActionImpl)action).getAction();
+         double finalInventory = ((StateImpl)finalState).getInitialState();
+         return (orderQuantity > 0 ? K : 0) + h*Math.max(finalInventory, 0) + p*Math.max(-finalInventory, 0);
+      };
+   }
+   
+   static BackwardRecursionImpl buildModel(double[] meanDemand, HashType hash, ImmediateValueFunction<State, Action, Double> immediateValueFunction){
+      Distribution[] demand = Arrays.stream(meanDemand).mapToObj(m -> new PoissonDist(m)).toArray(Distribution[]::new);
+      double[] supportLB = Arrays.stream(demand).mapToDouble(d -> d.inverseF(0.001)).toArray();
+      double[] supportUB = Arrays.stream(demand).mapToDouble(d -> d.inverseF(0.999)).toArray();
+      StateImpl.setStateBoundaries(1, minState, maxState);
+      
+      Function<State, ArrayList<Action>> buildActionList = s -> {
+         StateImpl state = (StateImpl) s;
+         ArrayList<Action> feasibleActions = new ArrayList<Action>();
+         for(double i = state.getInitialState(); i <= StateImpl.getMaxState(); i += StateImpl.getStepSize())
+            feasibleActions.add(new ActionImpl(state, i - state.getInitialState()));
+         return feasibleActions;
+      };
+      Function<State, Action> idempotentAction = s -> new ActionImpl(s, 0.0);
+      RandomOutcomeFunction<State, Action, Double> randomOutcomeFunction = (initialState, action, finalState) -> 
+         ((StateImpl)initialState).getInitialState() + ((ActionImpl)action).getAction() - ((StateImpl)finalState).getInitialState();
+      
+      BackwardRecursionImpl recursion = new BackwardRecursionImpl(OptimisationDirection.MIN, demand, supportLB, supportUB, 
+            immediateValueFunction, randomOutcomeFunction, buildActionList, idempotentAction, 1.0, 
+            SamplingScheme.NONE, 1, 1, hash);
+      recursion.getTransitionProbability().setStateTransitionFunction((initialState, action, finalState) -> 
+         new StateImpl(new StateDescriptorImpl(initialState.getPeriod() + 1, 
+               ((StateImpl)initialState).getInitialState() + ((ActionImpl)action).getAction() - finalState)));
+      return recursion;
+   }
+}
@@ -0,0 +1,178 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp.impl.univariate;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import jsdp.sdp.Action;
+import jsdp.sdp.HashType;
+import jsdp.sdp.ImmediateValueFunction;
+import jsdp.sdp.RandomOutcomeFunction;
+import jsdp.sdp.State;
+import jsdp.sdp.StateTransitionFunction;
+import jsdp.sdp.Recursion.OptimisationDirection;
+
+import umontreal.ssj.probdist.DiscreteDistribution;
+
+/**
+ * Tests that value iteration, Gauss-Seidel value iteration and modified policy iteration reach the same fixed point 
+ * on the machine maintenance problem of {@code jsdp.app.maintenance.MaintenanceScheduling}, and that this agrees 
+ * with a long finite horizon backward recursion.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class InfiniteHorizonRecursionImplTest {
+   
+   static final double[] states = {0, 1, 2, 3};
+   static final double[] maintenanceCost = {0, 500+1500, 500+2500, 1000+3000};
+   static final double[] lostProfit = {0, 1000, 1500, Double.NaN};
+   static final double[][][] transitionProbabilities = {{{1.0/4,1.0/4,1.0/4,1.0/4},
+                                                         {0,1.0/3,1.0/3,1.0/3},
+                                                         {0,0,1.0/2,1.0/2},
+                                                         {0,0,0,1.0}},
+                                                        {{1.0,0,0,0},
+                                                         {1.0,0,0,0},
+                                                         {1.0,0,0,0},
+                                                         {1.0,0,0,0}}};
+   static final double discountFactor = 0.95;
+   static final double epsilon = 1e-6;
+   
+   double[] reference;
+   
+   @Before
+   public void setUp() {
+      StateImpl.setStateBoundaries(1, 0, 3);
+      int periods = 1000;
+      BackwardRecursionImpl recursion = new BackwardRecursionImpl(OptimisationDirection.MIN, 
+            nCopies(distributions(), periods, DiscreteDistribution[][][]::new), 
+            nCopies(support(0), periods, double[][][]::new), 
+            nCopies(support(3), periods, double[][][]::new), 
+            immediateValueFunction(), randomOutcomeFunction(), buildActionList(), s -> new ActionImpl(s, 0), 
+            discountFactor, SamplingScheme.NONE, 1, 1, HashType.THASHMAP);
+      recursion.getTransitionProbability().setStateTransitionFunction(stateTransitionFunction());
+      recursion.setTransitionKernels(true, true);
+      recursion.runBackwardRecursion();
+      this.reference = Arrays.stream(states).map(s -> recursion.getExpectedCost(s)).toArray();
+   }
+   
+   @Test
+   public void testValueIteration() {
+      assertFixedPoint(r -> r.runValueIteration(epsilon));
+   }
+   
+   @Test
+   public void testGaussSeidelValueIteration() {
+      assertFixedPoint(r -> r.runGaussSeidelValueIteration(epsilon));
+   }
+   
+   @Test
+   public void testModifiedPolicyIteration() {
+      assertFixedPoint(r -> r.runModifiedPolicyIteration(1, epsilon));
+      assertFixedPoint(r -> r.runModifiedPolicyIteration(10, epsilon));
+   }
+   
+   /**
+    * Solves the stationary problem by means of {@code method} and checks values and optimal actions 
+    * against the finite horizon backward recursion.
+    */
+   void assertFixedPoint(Consumer<InfiniteHorizonRecursionImpl> method){
+      InfiniteHorizonRecursionImpl recursion = new InfiniteHorizonRecursionImpl(OptimisationDirection.MIN, 
+            distributions(), support(0), support(3), 
+            immediateValueFunction(), randomOutcomeFunction(), buildActionList(), s -> new ActionImpl(s, 0), 
+            discountFactor, HashType.THASHMAP);
+      recursion.getTransitionProbability().setStateTransitionFunction(stateTransitionFunction());
+      method.accept(recursion);
+      for(int i = 0; i < states.length; i++){
+         assertEquals(this.reference[i], recursion.getExpectedCost(states[i]), epsilon);
+      }
+      // repair in every faulty state
+      assertEquals(0, recursion.getOptimalAction(0).getAction(), 0);
+      for(int i = 1; i < states.length; i++)
+         assertEquals(1, recursion.getOptimalAction(states[i]).getAction(), 0);
+   }
+   
+   static DiscreteDistribution[][] distributions(){
+      DiscreteDistribution[][] distributions = new DiscreteDistribution[transitionProbabilities.length][];
+      for(int a = 0; a < transitionProbabilities.length; a++){
+         final int action = a;
+         distributions[a] = Arrays.stream(states).mapToObj(s -> 
+            new DiscreteDistribution(states, transitionProbabilities[action][(int)s], states.length)).toArray(DiscreteDistribution[]::new);
+      }
+      return distributions;
+   }
+   
+   static double[][] support(double bound){
+      double[][] support = new double[transitionProbabilities.length][states.length];
+      for(double[] s : support)
+         Arrays.fill(s, bound);
+      return support;
+   }
+   
+   static <T> T[] nCopies(T element, int periods, IntFunction<T[]> generator){
+      T[] copies = generator.apply(periods);
+      Arrays.fill(copies, element);
+      return copies;
+   }
+   
+   static Function<State, ArrayList<Action>> buildActionList(){
+      return s -> {
+         StateImpl state = (StateImpl) s;
+         ArrayList<Action> feasibleActions = new ArrayList<Action>();
+         if(state.getInitialState() < 3)
+            feasibleActions.add(new ActionImpl(state, 0));
+         if(state.getInitialState() > 0)
+            feasibleActions.add(new ActionImpl(state, 1));
+         return feasibleActions;
+      };
+   }
+   
+   static ImmediateValueFunction<State, Action, Double> immediateValueFunction(){
+      return (initialState, action, finalState) -> {
+         int state = ((StateImpl)initialState).getInitialIntState();
+         return ((ActionImpl)action).getAction() == 1 ? maintenanceCost[state] : lostProfit[state];
+      };
+   }
+   
+   static RandomOutcomeFunction<State, Action, Double> randomOutcomeFunction(){
+      return (initialState, action, finalState) -> (double)((StateImpl)finalState).getInitialIntState();
+   }
+   
+   static StateTransitionFunction<State, Action, Double> stateTransitionFunction(){
+      return (initialState, action, randomOutcome) -> 
+         new StateImpl(new StateDescriptorImpl(initialState.getPeriod() + 1, randomOutcome.intValue()));
+   }
+}
@@ -0,0 +1,156 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.sdp.impl.univariate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import jsdp.sdp.Action;
+import jsdp.sdp.HashType;
+import jsdp.sdp.ImmediateValueFunction;
+import jsdp.sdp.RandomOutcomeFunction;
+import jsdp.sdp.Recursion.OptimisationDirection;
+import jsdp.sdp.State;
+
+import umontreal.ssj.probdist.Distribution;
+import umontreal.ssj.probdist.NormalDist;
+
+/**
+ * Compares {@code MultigridBackwardRecursion} with a direct solution of the finest grid 
+ * on a small stochastic lot sizing instance.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class MultigridBackwardRecursionTest {
+   
+   static final double[] meanDemand = {10, 20, 15};
+   static final double minState = -20;
+   static final double maxState = 60;
+   
+   double[][] values;
+   double[][] actions;
+   
+   @Before
+   public void setUp() {
+      StateImpl.setStateBoundaries(1, minState, maxState);
+      BackwardRecursionImpl recursion = buildModel();
+      recursion.runBackwardRecursion();
+      this.values = new double[meanDemand.length][];
+      this.actions = new double[meanDemand.length][];
+      for(int t = 0; t < meanDemand.length; t++){
+         final int period = t;
+         this.values[t] = states().map(s -> recursion.getExpectedCost(new StateDescriptorImpl(period, s))).toArray();
+         this.actions[t] = states().map(s -> recursion.getOptimalAction(new StateDescriptorImpl(period, s)).getAction()).toArray();
+      }
+   }
+   
+   @Test
+   public void testDefaultMargin() {
+      BackwardRecursionImpl recursion = solve(new double[]{2, 1}, 1);
+      for(int t = 0; t < meanDemand.length; t++){
+         final int period = t;
+         double[] values = states().map(s -> recursion.getExpectedCost(new StateDescriptorImpl(period, s))).toArray();
+         double[] actions = states().map(s -> recursion.getOptimalAction(new StateDescriptorImpl(period, s)).getAction()).toArray();
+         for(int i = 0; i < values.length; i++){
+            assertEquals(this.values[t][i], values[i], 1e-9);
+            assertEquals(this.actions[t][i], actions[i], 1e-9);
+         }
+      }
+   }
+   
+   @Test
+   public void testSmallMargin() {
+      // with no margin the bounded action search misses optimal actions of this instance, e.g. around reorder points: 
+      // values are upper bounds of the optimal ones, and remain within 10% of them
+      BackwardRecursionImpl recursion = solve(new double[]{4, 2, 1}, 0);
+      double gap = 0;
+      for(int t = 0; t < meanDemand.length; t++){
+         final int period = t;
+         double[] values = states().map(s -> recursion.getExpectedCost(new StateDescriptorImpl(period, s))).toArray();
+         for(int i = 0; i < values.length; i++){
+            assertTrue(values[i] >= this.values[t][i] - 1e-9);
+            gap = Math.max(gap, (values[i] - this.values[t][i])/this.values[t][i]);
+         }
+      }
+      assertTrue(gap < 0.1);
+   }
+   
+   private static BackwardRecursionImpl solve(double[] stepSizes, int margin){
+      MultigridBackwardRecursion multigrid = new MultigridBackwardRecursion(stepSizes, minState, maxState, () -> buildModel());
+      multigrid.setMargin(margin);
+      return multigrid.runBackwardRecursion();
+   }
+   
+   private static DoubleStream states(){
+      return IntStream.rangeClosed((int) minState, (int) maxState).asDoubleStream();
+   }
+   
+   /**
+    * Builds a lot sizing instance with normal demand, fixed ordering cost 100, holding cost 1 and penalty cost 10, 
+    * discretised according to the current state space boundaries.
+    */
+   static BackwardRecursionImpl buildModel(){
+      double K = 100, h = 1, p = 10;
+      Distribution[] demand = Arrays.stream(meanDemand).mapToObj(m -> new NormalDist(m, 0.25*m)).toArray(Distribution[]::new);
+      double[] supportLB = Arrays.stream(demand).mapToDouble(d -> d.inverseF(0.001)).toArray();
+      double[] supportUB = Arrays.stream(demand).mapToDouble(d -> d.inverseF(0.999)).toArray();
+      
+      Function<State, ArrayList<Action>> buildActionList = s -> {
+         StateImpl state = (StateImpl) s;
+         ArrayList<Action> feasibleActions = new ArrayList<Action>();
+         for(double i = state.getInitialState(); i <= StateImpl.getMaxState(); i += StateImpl.getStepSize())
+            feasibleActions.add(new ActionImpl(state, i - state.getInitialState()));
+         return feasibleActions;
+      };
+      Function<State, Action> idempotentAction = s -> new ActionImpl(s, 0.0);
+      ImmediateValueFunction<State, Action, Double> immediateValueFunction = (initialState, action, finalState) -> {
+         double orderQuantity = ((ActionImpl)action).getAction();
+         double finalInventory = ((StateImpl)finalState).getInitialState();
+         return (orderQuantity > 0 ? K : 0) + h*Math.max(finalInventory, 0) + p*Math.max(-finalInventory, 0);
+      };
+      RandomOutcomeFunction<State, Action, Double> randomOutcomeFunction = (initialState, action, finalState) -> 
+         ((StateImpl)initialState).getInitialState() + ((ActionImpl)action).getAction() - ((StateImpl)finalState).getInitialState();
+      
+      BackwardRecursionImpl recursion = new BackwardRecursionImpl(OptimisationDirection.MIN, demand, supportLB, supportUB, 
+            immediateValueFunction, randomOutcomeFunction, buildActionList, idempotentAction, 1.0, 
+            SamplingScheme.NONE, 1, 1, HashType.THASHMAP);
+      recursion.getTransitionProbability().setStateTransitionFunction((initialState, action, randomOutcome) -> 
+         new StateImpl(new StateDescriptorImpl(initialState.getPeriod() + 1, 
+               ((StateImpl)initialState).getInitialState() + ((ActionImpl)action).getAction() - randomOutcome)));
+      return recursion;
+   }
+}
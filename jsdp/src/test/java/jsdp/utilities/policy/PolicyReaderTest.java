@@ -0,0 +1,102 @@
+/**
+ * jsdp: A Java Stochastic Dynamic Programming Library
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package jsdp.utilities.policy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jsdp.sdp.HashType;
+import jsdp.sdp.State;
+import jsdp.sdp.impl.univariate.ActionImpl;
+import jsdp.sdp.impl.univariate.BackwardRecursionImpl;
+import jsdp.sdp.impl.univariate.BackwardRecursionImplTest;
+import jsdp.sdp.impl.univariate.StateImpl;
+
+/**
+ * Tests that a policy written by {@code PolicyWriter} is read back unchanged by {@code PolicyReader}.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public class PolicyReaderTest {
+   
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder();
+   
+   @Test
+   public void testRoundTrip() throws IOException {
+      BackwardRecursionImpl recursion = BackwardRecursionImplTest.buildModel(new double[]{10, 20, 15}, HashType.THASHMAP);
+      recursion.runBackwardRecursion();
+      File file = folder.newFile("policy.bin");
+      PolicyWriter.write(file, recursion, true);
+      
+      PolicyReader reader = new PolicyReader(file);
+      assertEquals(1, reader.getDimension());
+      assertEquals(recursion.getHorizonLength(), reader.getPeriods());
+      assertEquals(StateImpl.getMinIntState(), reader.getMinIntState()[0]);
+      assertEquals(StateImpl.getMaxIntState(), reader.getMaxIntState()[0]);
+      assertTrue(reader.hasValues());
+      for(int t = 0; t < recursion.getHorizonLength(); t++){
+         for(State state : recursion.getStateSpace(t)){
+            double initialState = ((StateImpl)state).getInitialState();
+            assertEquals(((ActionImpl)recursion.getValueRepository().getOptimalAction(state)).getAction(), 
+                  reader.getOptimalAction(t, initialState), 1e-9);
+            assertEquals(recursion.getValueRepository().getOptimalExpectedValue(state), 
+                  reader.getOptimalExpectedValue(t, initialState), 1e-9);
+         }
+      }
+      
+      // states and periods outside the policy have no action
+      assertTrue(Double.isNaN(reader.getOptimalAction(0, StateImpl.getMaxState() + 1)));
+      assertTrue(Double.isNaN(reader.getOptimalAction(recursion.getHorizonLength(), 0)));
+   }
+   
+   @Test
+   public void testRoundTripWithoutValues() throws IOException {
+      BackwardRecursionImpl recursion = BackwardRecursionImplTest.buildModel(new double[]{10, 20, 15}, HashType.THASHMAP);
+      recursion.runBackwardRecursion();
+      File file = folder.newFile("policy.bin");
+      PolicyWriter.write(file, recursion, false);
+      
+      PolicyReader reader = new PolicyReader(file);
+      assertFalse(reader.hasValues());
+      for(int t = 0; t < recursion.getHorizonLength(); t++){
+         for(State state : recursion.getStateSpace(t)){
+            assertEquals(((ActionImpl)recursion.getValueRepository().getOptimalAction(state)).getAction(), 
+                  reader.getOptimalAction(t, ((StateImpl)state).getInitialState()), 1e-9);
+         }
+      }
+   }
+}